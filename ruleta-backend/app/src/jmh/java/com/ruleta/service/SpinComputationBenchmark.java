@@ -0,0 +1,101 @@
+package com.ruleta.service;
+
+import com.ruleta.dto.RouletteSpinResponse;
+import com.ruleta.entity.Participant;
+import com.ruleta.entity.Wheel;
+import com.ruleta.service.sampling.SamplerCache;
+import com.ruleta.service.sampling.SamplerType;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cada fase del cálculo de un spin por separado y el cálculo completo ({@link #spinComputation}),
+ * en memoria y sin base de datos. Con el perfilador GC, {@code gc.alloc.rate.norm} de spinComputation
+ * debería ser prácticamente solo la respuesta.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class SpinComputationBenchmark {
+
+    @Param({"10", "1000", "100000"})
+    public int participantCount;
+
+    private RouletteService rouletteService;
+    private WheelWeights wheelWeights;
+    private Wheel wheel;
+    private List<Participant> participants;
+    private double[] weights;
+    private double[] probabilities;
+    private Participant winner;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        wheel = new Wheel("benchmark");
+        wheel.setId(1L);
+        wheelWeights = new WheelWeights(WeightPolicy.DEFAULT, new JpaWheelStore(null, null, null, null, null));
+        // Solo se usan los métodos de cálculo: no necesitan repositorios
+        rouletteService = new RouletteService(null, null, new SamplerCache(SamplerType.CUMULATIVE, false),
+                null, wheelWeights, null, null, null, null, null, null);
+
+        participants = new ArrayList<>(participantCount);
+        for (int i = 0; i < participantCount; i++) {
+            Participant participant = new Participant(wheel, "participant-" + i);
+            participant.setId((long) i);
+            wheelWeights.set(wheel, participant, 0.1 + (i % 30) * 0.1);
+            participants.add(participant);
+        }
+        weights = new double[participantCount];
+        probabilities = rouletteService.calculateWeightedProbabilities(participants,
+                wheelWeights.weightsOf(wheel, participants));
+        winner = participants.get(participantCount / 2);
+    }
+
+    @Benchmark
+    public double[] effectiveWeights() {
+        return wheelWeights.weightsOf(wheel, participants, weights);
+    }
+
+    @Benchmark
+    public double[] calculateWeightedProbabilities() {
+        // Normaliza sobre el mismo array: con pesos ya normalizados el resultado no cambia
+        return rouletteService.calculateWeightedProbabilities(participants, probabilities);
+    }
+
+    @Benchmark
+    public Object buildAliasTable() {
+        return SamplerType.ALIAS.build(probabilities);
+    }
+
+    @Benchmark
+    public int selectWinnerByProbability() {
+        return rouletteService.selectWinnerByProbability(wheel, participants, probabilities);
+    }
+
+    @Benchmark
+    public Long recalculateWeights() {
+        // Acumula impulsos entre invocaciones; los topes mantienen los pesos en rango
+        wheelWeights.recalculate(wheel, participants, List.of(), winner);
+        return wheel.getBoostEpoch();
+    }
+
+    @Benchmark
+    public RouletteSpinResponse buildSpinResponse() {
+        return rouletteService.buildSpinResponse(participantCount / 2, participants, probabilities);
+    }
+
+    @Benchmark
+    public RouletteSpinResponse spinComputation() {
+        double[] spinProbabilities = rouletteService.calculateWeightedProbabilities(participants,
+                wheelWeights.weightsOf(wheel, participants, weights));
+        int spinWinner = rouletteService.selectWinnerByProbability(wheel, participants, spinProbabilities);
+        wheelWeights.recalculate(wheel, participants, List.of(), participants.get(spinWinner));
+        return rouletteService.buildSpinResponse(spinWinner, participants, spinProbabilities);
+    }
+}
@@ -0,0 +1,71 @@
+package com.ruleta.service;
+
+import com.ruleta.App;
+import com.ruleta.dto.RouletteSpinResponse;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link RouletteService#spinRoulette} completo contra H2 en memoria: resolución de participantes,
+ * cálculo, historial y commit. Con {@code engine=event-log} el commit es un registro en el log
+ * (en un directorio temporal) y las tablas se actualizan en segundo plano.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SpinEndToEndBenchmark {
+
+    private static final String WHEEL = "benchmark";
+
+    @Param({"10", "1000"})
+    public int participantCount;
+
+    @Param({"jpa", "event-log"})
+    public String engine;
+
+    private ConfigurableApplicationContext context;
+    private RouletteService rouletteService;
+    private List<String> names;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        // Como argumentos y no como properties(): estas tienen menos prioridad que application.yml
+        context = new SpringApplicationBuilder(App.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.datasource.url=jdbc:h2:mem:jmh-" + engine + "-" + participantCount + ";DB_CLOSE_DELAY=-1",
+                        "--spring.jpa.show-sql=false",
+                        "--ruleta.storage.engine=" + engine,
+                        "--ruleta.event-log.directory=" + Files.createTempDirectory("jmh-event-log"),
+                        "--logging.level.com.ruleta=WARN",
+                        "--logging.level.org.springframework.web=WARN");
+        rouletteService = context.getBean(RouletteService.class);
+
+        names = new ArrayList<>(participantCount);
+        for (int i = 0; i < participantCount; i++) {
+            names.add("participant-" + i);
+        }
+        // Primer spin fuera de la medida: crea los participantes y llena la caché de ids
+        rouletteService.spinRoulette(WHEEL, names);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public RouletteSpinResponse spinRoulette() {
+        return rouletteService.spinRoulette(WHEEL, names);
+    }
+}
@@ -1,60 +1,196 @@
 package com.ruleta.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ruleta.dto.DrawHistoryDto;
+import com.ruleta.dto.FairnessReportDto;
+import com.ruleta.dto.HistoryEntryDto;
+import com.ruleta.dto.HistoryPageResponse;
 import com.ruleta.dto.ParticipantDto;
+import com.ruleta.dto.ParticipantImportResponse;
+import com.ruleta.dto.ParticipantStatsDto;
+import com.ruleta.dto.RouletteBatchSpinResponse;
+import com.ruleta.dto.RouletteDrawResponse;
 import com.ruleta.dto.RouletteSpinRequest;
 import com.ruleta.dto.RouletteSpinResponse;
 import com.ruleta.dto.RecordWinnerRequest;
-import com.ruleta.entity.SelectionHistory;
+import com.ruleta.dto.StatsBucketDto;
+import com.ruleta.entity.Wheel;
+import com.ruleta.service.ParticipantTransferService;
+import com.ruleta.service.ParticipantsSnapshotCache;
 import com.ruleta.service.RouletteService;
+import com.ruleta.service.SpinExecutor;
+import com.ruleta.service.StatsService;
+import com.ruleta.service.WheelEventBroadcaster;
+import com.ruleta.service.admission.AdmissionController;
+import com.ruleta.service.admission.AdmissionRejectedException;
+import com.ruleta.service.fairness.FairnessTracker;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
 
 @RestController
-@RequestMapping("/api/roulette")
+@RequestMapping({"/api/roulette", "/api/wheels/{wheel}"})
 @CrossOrigin(origins = {"http://localhost:5173", "http://localhost:5174"}) // Para el frontend React
 @RequiredArgsConstructor
 @Slf4j
 public class RouletteController {
     
+    private static final String NDJSON = "application/x-ndjson";
+    
     private final RouletteService rouletteService;
+    private final SpinExecutor spinExecutor;
+    private final AdmissionController admissionController;
+    private final StatsService statsService;
+    private final FairnessTracker fairnessTracker;
+    private final WheelEventBroadcaster wheelEvents;
+    private final ParticipantsSnapshotCache participantsCache;
+    private final ParticipantTransferService participantTransfer;
+    private final ObjectMapper objectMapper;
     
     /**
      * Endpoint principal: girar la ruleta
      */
     @PostMapping("/spin")
-    public ResponseEntity<RouletteSpinResponse> spin(@Valid @RequestBody RouletteSpinRequest request) {
-        log.info("Solicitud de spin recibida con {} participantes", request.getParticipantNames().size());
+    public ResponseEntity<RouletteSpinResponse> spin(@PathVariable(required = false) String wheel,
+                                                     @Valid @RequestBody RouletteSpinRequest request) {
+        String wheelName = wheelName(wheel);
+        log.info("Solicitud de spin recibida en '{}' con {} participantes", wheelName, request.getParticipantNames().size());
         
         try {
-            RouletteSpinResponse response = rouletteService.spinRoulette(request.getParticipantNames());
+            RouletteSpinResponse response = spinExecutor.execute(wheelName,
+                    () -> rouletteService.spinRoulette(wheelName, request.getParticipantNames()));
             return ResponseEntity.ok(response);
+        } catch (RejectedExecutionException e) {
+            return rejected(e);
         } catch (Exception e) {
             log.error("Error durante el spin: ", e);
             return ResponseEntity.internalServerError().build();
         }
     }
     
+    /**
+     * Girar la ruleta varias veces seguidas en una sola transacción
+     */
+    @PostMapping("/spin/batch")
+    public ResponseEntity<RouletteBatchSpinResponse> spinBatch(@PathVariable(required = false) String wheel,
+                                                               @Valid @RequestBody RouletteSpinRequest request,
+                                                               @RequestParam int count) {
+        String wheelName = wheelName(wheel);
+        log.info("Solicitud de {} spins en lote en '{}' con {} participantes", 
+                count, wheelName, request.getParticipantNames().size());
+        
+        try {
+            RouletteBatchSpinResponse response = spinExecutor.execute(wheelName,
+                    () -> rouletteService.spinRouletteBatch(wheelName, request.getParticipantNames(), count));
+            return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            log.warn("Spin en lote rechazado: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        } catch (RejectedExecutionException e) {
+            return rejected(e);
+        } catch (Exception e) {
+            log.error("Error durante el spin en lote: ", e);
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+    
+    /**
+     * Extraer varios participantes distintos de una vez (equipos, órdenes): {@code count} según sus pesos,
+     * o una permutación ponderada de todos si se omite. Sin cuerpo, entre todos los participantes activos
+     */
+    @PostMapping("/draw")
+    public ResponseEntity<RouletteDrawResponse> draw(@PathVariable(required = false) String wheel,
+                                                     @RequestBody(required = false) RouletteSpinRequest request,
+                                                     @RequestParam(required = false) Integer count) {
+        String wheelName = wheelName(wheel);
+        try {
+            List<String> names = request != null ? request.getParticipantNames() : null;
+            // No pasa por el hilo escritor de la ruleta, pero escribe en draw_history: cuenta como escritura
+            long admittedAt = admissionController.admit();
+            try {
+                return ResponseEntity.ok(rouletteService.drawParticipants(wheelName, names, count));
+            } finally {
+                admissionController.release(admittedAt, true);
+            }
+        } catch (IllegalArgumentException e) {
+            log.warn("Extracción rechazada: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        } catch (RejectedExecutionException e) {
+            return rejected(e);
+        }
+    }
+    
+    /**
+     * Obtener las extracciones recientes, de más reciente a más antigua
+     */
+    @GetMapping("/draws")
+    public ResponseEntity<List<DrawHistoryDto>> getDraws(@PathVariable(required = false) String wheel,
+                                                         @RequestParam(defaultValue = "7") int days,
+                                                         @RequestParam(defaultValue = "50") int limit) {
+        try {
+            return ResponseEntity.ok(rouletteService.getRecentDraws(wheelName(wheel), days, limit));
+        } catch (IllegalArgumentException e) {
+            log.warn("Error en el historial de extracciones: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+    }
+    
     /**
      * Obtener todos los participantes activos
      */
     @GetMapping("/participants")
-    public ResponseEntity<List<ParticipantDto>> getAllParticipants() {
-        List<ParticipantDto> participants = rouletteService.getAllActiveParticipants();
-        return ResponseEntity.ok(participants);
+    public ResponseEntity<byte[]> getAllParticipants(@PathVariable(required = false) String wheel,
+                                                     @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+                                                     WebRequest request) {
+        String wheelName = wheelName(wheel);
+        boolean acceptsGzip = acceptEncoding != null && acceptEncoding.contains("gzip");
+        // La versión se toma antes de cargar: el contenido servido es al menos tan reciente como su ETag
+        long version = participantsCache.version(wheelName);
+        String etag = participantsCache.etag(version, acceptsGzip);
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        
+        ParticipantsSnapshotCache.Snapshot snapshot = participantsCache.get(wheelName, version,
+                () -> rouletteService.getAllActiveParticipants(wheelName));
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(CacheControl.noCache())
+                .varyBy(HttpHeaders.ACCEPT_ENCODING)
+                .contentType(MediaType.APPLICATION_JSON);
+        if (acceptsGzip && snapshot.gzip() != null) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(snapshot.body(acceptsGzip));
     }
     
     /**
      * Añadir un nuevo participante
      */
     @PostMapping("/participants")
-    public ResponseEntity<ParticipantDto> addParticipant(@RequestParam String name) {
+    public ResponseEntity<ParticipantDto> addParticipant(@PathVariable(required = false) String wheel,
+                                                         @RequestParam String name) {
+        String wheelName = wheelName(wheel);
         try {
-            ParticipantDto participant = rouletteService.addParticipant(name.trim());
+            ParticipantDto participant = spinExecutor.execute(wheelName,
+                    () -> rouletteService.addParticipant(wheelName, name.trim()));
             return ResponseEntity.ok(participant);
         } catch (IllegalArgumentException e) {
             log.warn("Error al añadir participante: {}", e.getMessage());
@@ -62,13 +198,61 @@ public class RouletteController {
         }
     }
     
+    /**
+     * Importar participantes en bloque desde CSV o NDJSON (según el Content-Type), leyendo el cuerpo
+     * en streaming. Los existentes desactivados se reactivan y los activos se actualizan
+     */
+    @PostMapping(value = "/participants/import", consumes = {"text/csv", NDJSON})
+    public ResponseEntity<ParticipantImportResponse> importParticipants(@PathVariable(required = false) String wheel,
+                                                                       @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+                                                                       InputStream body) {
+        String wheelName = wheelName(wheel);
+        ParticipantTransferService.Format format = MediaType.parseMediaType(contentType)
+                .isCompatibleWith(MediaType.parseMediaType(NDJSON))
+                ? ParticipantTransferService.Format.NDJSON
+                : ParticipantTransferService.Format.CSV;
+        try {
+            return ResponseEntity.ok(participantTransfer.importParticipants(wheelName, body, format));
+        } catch (IllegalArgumentException e) {
+            log.warn("Importación de participantes rechazada: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        } catch (RejectedExecutionException e) {
+            return rejected(e);
+        } catch (IOException e) {
+            log.warn("Importación de participantes interrumpida: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+    }
+    
+    /**
+     * Exportar todos los participantes, activos o no, como NDJSON o CSV ({@code format=csv})
+     */
+    @GetMapping("/participants/export")
+    public ResponseEntity<StreamingResponseBody> exportParticipants(@PathVariable(required = false) String wheel,
+                                                                    @RequestParam(defaultValue = "ndjson") String format) {
+        String wheelName = wheelName(wheel);
+        ParticipantTransferService.Format exportFormat;
+        try {
+            exportFormat = ParticipantTransferService.Format.parse(format);
+        } catch (IllegalArgumentException e) {
+            log.warn("Exportación de participantes rechazada: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+        StreamingResponseBody body = out -> participantTransfer.exportParticipants(wheelName, exportFormat, out);
+        return ResponseEntity.ok()
+                .contentType(new MediaType(MediaType.parseMediaType(exportFormat.mediaType()), StandardCharsets.UTF_8))
+                .body(body);
+    }
+    
     /**
      * Eliminar un participante
      */
     @DeleteMapping("/participants/{name}")
-    public ResponseEntity<Void> removeParticipant(@PathVariable String name) {
+    public ResponseEntity<Void> removeParticipant(@PathVariable(required = false) String wheel,
+                                                  @PathVariable String name) {
+        String wheelName = wheelName(wheel);
         try {
-            rouletteService.removeParticipant(name);
+            spinExecutor.execute(wheelName, () -> rouletteService.removeParticipant(wheelName, name));
             return ResponseEntity.ok().build();
         } catch (IllegalArgumentException e) {
             log.warn("Error al eliminar participante: {}", e.getMessage());
@@ -80,20 +264,118 @@ public class RouletteController {
      * Obtener historial reciente
      */
     @GetMapping("/history")
-    public ResponseEntity<List<SelectionHistory>> getHistory(@RequestParam(defaultValue = "7") int days) {
-        List<SelectionHistory> history = rouletteService.getRecentHistory(days);
+    public ResponseEntity<List<HistoryEntryDto>> getHistory(@PathVariable(required = false) String wheel,
+                                                            @RequestParam(defaultValue = "7") int days) {
+        List<HistoryEntryDto> history = rouletteService.getRecentHistory(wheelName(wheel), days);
         return ResponseEntity.ok(history);
     }
     
+    /**
+     * Obtener historial paginado por cursor
+     */
+    @GetMapping("/history/page")
+    public ResponseEntity<HistoryPageResponse> getHistoryPage(@PathVariable(required = false) String wheel,
+                                                              @RequestParam(defaultValue = "7") int days,
+                                                              @RequestParam(required = false) String cursor,
+                                                              @RequestParam(defaultValue = "50") int limit) {
+        try {
+            return ResponseEntity.ok(rouletteService.getHistoryPage(wheelName(wheel), days, cursor, limit));
+        } catch (IllegalArgumentException e) {
+            log.warn("Error en la página de historial: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+    }
+    
+    /**
+     * Exportar el historial completo como NDJSON (una entrada JSON por línea)
+     */
+    @GetMapping(value = "/history/export", produces = NDJSON)
+    public ResponseEntity<StreamingResponseBody> exportHistory(@PathVariable(required = false) String wheel,
+                                                               @RequestParam(defaultValue = "7") int days) {
+        String wheelName = wheelName(wheel);
+        StreamingResponseBody body = out -> {
+            try {
+                rouletteService.streamHistory(wheelName, days, entry -> writeLine(out, entry));
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            out.flush();
+        };
+        return ResponseEntity.ok().contentType(MediaType.parseMediaType(NDJSON)).body(body);
+    }
+    
+    /**
+     * Stream de Server-Sent Events con los spins y los cambios de participantes de la ruleta.
+     * Con el límite de suscriptores alcanzado responde 503
+     */
+    @GetMapping(value = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<ResponseBodyEmitter> events(@PathVariable(required = false) String wheel) {
+        ResponseBodyEmitter emitter = wheelEvents.subscribe(wheelName(wheel));
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache())
+                .contentType(MediaType.TEXT_EVENT_STREAM)
+                .body(emitter);
+    }
+    
     /**
      * Resetear todas las estadísticas
      */
     @PostMapping("/reset")
-    public ResponseEntity<Void> resetStats() {
-        rouletteService.resetAllStats();
+    public ResponseEntity<Void> resetStats(@PathVariable(required = false) String wheel) {
+        String wheelName = wheelName(wheel);
+        spinExecutor.execute(wheelName, () -> rouletteService.resetAllStats(wheelName));
         return ResponseEntity.ok().build();
     }
     
+    /**
+     * Estadísticas por participante (desde los acumulados, sin recorrer el historial)
+     */
+    @GetMapping("/stats/participants")
+    public ResponseEntity<List<ParticipantStatsDto>> getParticipantStats(@PathVariable(required = false) String wheel,
+                                                                         @RequestParam(defaultValue = "90") int days,
+                                                                         @RequestParam(defaultValue = "day") String granularity) {
+        try {
+            return ResponseEntity.ok(statsService.getParticipantStats(wheelName(wheel), days, granularity));
+        } catch (IllegalArgumentException e) {
+            log.warn("Error en estadísticas por participante: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+    }
+    
+    /**
+     * Spins por hora o por día
+     */
+    @GetMapping("/stats/timeline")
+    public ResponseEntity<List<StatsBucketDto>> getTimeline(@PathVariable(required = false) String wheel,
+                                                            @RequestParam(defaultValue = "7") int days,
+                                                            @RequestParam(defaultValue = "day") String granularity) {
+        try {
+            return ResponseEntity.ok(statsService.getTimeline(wheelName(wheel), days, granularity));
+        } catch (IllegalArgumentException e) {
+            log.warn("Error en la serie temporal de estadísticas: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+    }
+    
+    /**
+     * Victorias esperadas frente a observadas, chi-cuadrado, sequías y rachas (acumulados en línea)
+     */
+    @GetMapping("/stats/fairness")
+    public ResponseEntity<FairnessReportDto> getFairness(@PathVariable(required = false) String wheel) {
+        return fairnessTracker.report(wheelName(wheel))
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+    
+    private void writeLine(OutputStream out, HistoryEntryDto entry) {
+        try {
+            out.write(objectMapper.writeValueAsBytes(entry));
+            out.write('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+    
     /**
      * Health check
      */
@@ -106,16 +388,44 @@ public class RouletteController {
      * Registrar un ganador específico (cuando la ruleta frontend ya seleccionó)
      */
     @PostMapping("/record-winner")
-    public ResponseEntity<RouletteSpinResponse> recordWinner(@RequestBody RecordWinnerRequest request) {
-        log.info("Registrando ganador específico: {} de {} participantes", 
-                request.getWinner(), request.getParticipants().size());
+    public ResponseEntity<RouletteSpinResponse> recordWinner(@PathVariable(required = false) String wheel,
+                                                             @RequestBody RecordWinnerRequest request) {
+        String wheelName = wheelName(wheel);
+        log.info("Registrando ganador específico en '{}': {} de {} participantes", 
+                wheelName, request.getWinner(), request.getParticipants().size());
         try {
-            RouletteSpinResponse response = rouletteService.recordSpecificWinner(
-                    request.getWinner(), request.getParticipants());
+            RouletteSpinResponse response = spinExecutor.execute(wheelName,
+                    () -> rouletteService.recordSpecificWinner(wheelName, request.getWinner(), request.getParticipants()));
             return ResponseEntity.ok(response);
+        } catch (RejectedExecutionException e) {
+            return rejected(e);
         } catch (Exception e) {
             log.error("Error registrando ganador específico: ", e);
             return ResponseEntity.internalServerError().build();
         }
     }
-} 
\ No newline at end of file
+    
+    /**
+     * Escritura rechazada: 429 con {@code Retry-After} si se alcanzó el límite de admisión,
+     * 503 si la cola de la ruleta está llena o el ejecutor se detiene
+     */
+    @ExceptionHandler(RejectedExecutionException.class)
+    public <T> ResponseEntity<T> rejected(RejectedExecutionException e) {
+        if (e instanceof AdmissionRejectedException admission) {
+            log.debug("Escritura rechazada por admisión: {}", e.getMessage());
+            long seconds = Math.max(1, (admission.getRetryAfter().toMillis() + 999) / 1000);
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, Long.toString(seconds))
+                    .build();
+        }
+        log.warn("Operación rechazada: {}", e.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+    }
+    
+    /**
+     * Los endpoints sin ámbito operan sobre la ruleta por defecto
+     */
+    private static String wheelName(String wheel) {
+        return wheel != null ? wheel : Wheel.DEFAULT_NAME;
+    }
+}
\ No newline at end of file
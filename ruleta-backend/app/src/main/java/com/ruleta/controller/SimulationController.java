@@ -0,0 +1,50 @@
+package com.ruleta.controller;
+
+import com.ruleta.dto.SimulationRequest;
+import com.ruleta.dto.SimulationResponse;
+import com.ruleta.service.WeightPolicy;
+import com.ruleta.service.simulation.MonteCarloSimulator;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Simulación de políticas de pesos en memoria, sin tocar ninguna ruleta
+ */
+@RestController
+@RequestMapping("/api/simulations")
+@CrossOrigin(origins = {"http://localhost:5173", "http://localhost:5174"})
+@RequiredArgsConstructor
+@Slf4j
+public class SimulationController {
+
+    private final MonteCarloSimulator simulator;
+    private final WeightPolicy weightPolicy;
+
+    /**
+     * Ejecutar una simulación y devolver sus métricas de equidad
+     */
+    @PostMapping
+    public ResponseEntity<SimulationResponse> simulate(@Valid @RequestBody SimulationRequest request) {
+        try {
+            WeightPolicy policy = new WeightPolicy(
+                    request.getWinnerFactor() != null ? request.getWinnerFactor() : weightPolicy.winnerFactor(),
+                    request.getOthersFactor() != null ? request.getOthersFactor() : weightPolicy.othersFactor(),
+                    request.getMinWeight() != null ? request.getMinWeight() : weightPolicy.minWeight(),
+                    request.getMaxWeight() != null ? request.getMaxWeight() : weightPolicy.maxWeight());
+            long seed = request.getSeed() != null ? request.getSeed() : ThreadLocalRandom.current().nextLong();
+
+            SimulationResponse response = simulator.simulate(policy, request.getParticipants(),
+                    request.getSpinsPerTrial(), request.getTrials(), seed);
+            log.info("Simulación de {} spins completada en {} ms", response.getTotalSpins(), response.getElapsedMillis());
+            return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            log.warn("Simulación rechazada: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+    }
+}
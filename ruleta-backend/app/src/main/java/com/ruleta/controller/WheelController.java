@@ -0,0 +1,29 @@
+package com.ruleta.controller;
+
+import com.ruleta.service.WheelRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * Listado de ruletas. Las operaciones de cada ruleta están en {@link RouletteController}
+ * bajo {@code /api/wheels/{wheel}}.
+ */
+@RestController
+@RequestMapping("/api/wheels")
+@CrossOrigin(origins = {"http://localhost:5173", "http://localhost:5174"})
+@RequiredArgsConstructor
+public class WheelController {
+
+    private final WheelRegistry wheelRegistry;
+
+    /**
+     * Obtener los nombres de todas las ruletas
+     */
+    @GetMapping
+    public ResponseEntity<List<String>> getWheels() {
+        return ResponseEntity.ok(wheelRegistry.names());
+    }
+}
@@ -0,0 +1,17 @@
+package com.ruleta.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DrawHistoryDto {
+    private Long id;
+    private LocalDateTime drawnAt;
+    private Integer totalParticipants;
+    private List<String> winners;
+}
@@ -0,0 +1,35 @@
+package com.ruleta.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Equidad de una ruleta: victorias observadas frente a las esperadas según las probabilidades de cada spin.
+ * Los valores esperados, el chi-cuadrado y las repeticiones cubren los spins registrados desde
+ * {@code trackedSince}; victorias, sequías y rachas incluyen también el historial anterior.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FairnessReportDto {
+    private String wheel;
+    /** Spins de la ruleta, incluido el historial anterior al arranque */
+    private long spins;
+    private long trackedSpins;
+    private LocalDateTime trackedSince;
+    /** Estadístico de Pearson sobre las victorias de los spins seguidos; null sin spins seguidos */
+    private Double chiSquare;
+    private int degreesOfFreedom;
+    /** Probabilidad de un chi-cuadrado igual o mayor si los spins respetaran sus probabilidades */
+    private Double chiSquarePValue;
+    /** Spins seguidos en los que repitió el ganador anterior */
+    private long repeats;
+    /** Repeticiones esperadas: suma de la probabilidad del ganador anterior en cada spin */
+    private double expectedRepeats;
+    private String streakHolder;
+    private long currentStreak;
+    private List<ParticipantFairnessDto> participants;
+}
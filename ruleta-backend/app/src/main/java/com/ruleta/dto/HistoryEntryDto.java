@@ -0,0 +1,17 @@
+package com.ruleta.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class HistoryEntryDto {
+    private Long id;
+    private String participantName;
+    private LocalDateTime selectedAt;
+    private Integer totalParticipants;
+    private Double probabilityAtSelection;
+}
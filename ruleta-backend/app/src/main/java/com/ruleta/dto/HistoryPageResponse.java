@@ -0,0 +1,15 @@
+package com.ruleta.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class HistoryPageResponse {
+    private List<HistoryEntryDto> entries;
+    /** Cursor opaco para la página siguiente; null si no hay más */
+    private String nextCursor;
+}
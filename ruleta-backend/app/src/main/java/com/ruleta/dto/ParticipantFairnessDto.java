@@ -0,0 +1,28 @@
+package com.ruleta.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ParticipantFairnessDto {
+    private String participantName;
+    /** Victorias en todo el historial */
+    private long wins;
+    /** Media de probabilityAtSelection en esas victorias */
+    private double averageProbabilityAtWin;
+    /** Spins seguidos en los que participó */
+    private long trackedSpins;
+    private long trackedWins;
+    /** Suma de su probabilidad en cada uno de esos spins */
+    private double expectedWins;
+    /** (trackedWins - expectedWins) / desviación típica de las victorias esperadas */
+    private double standardizedDeviation;
+    /** Spins de la ruleta desde su última victoria */
+    private long currentDrought;
+    private long longestDrought;
+    private long currentStreak;
+    private long longestStreak;
+}
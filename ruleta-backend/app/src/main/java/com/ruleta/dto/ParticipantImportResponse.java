@@ -0,0 +1,32 @@
+package com.ruleta.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+/**
+ * Resultado de una importación de participantes (o de uno de sus bloques)
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ParticipantImportResponse {
+    /** Nombres nuevos dados de alta */
+    private long created;
+    /** Participantes desactivados que vuelven a estar activos */
+    private long reactivated;
+    /** Participantes activos con peso o estadísticas cambiados */
+    private long updated;
+    /** Participantes activos que ya tenían esos valores */
+    private long unchanged;
+    /** Filas con isActive=false: no se dan de alta ni se reactivan */
+    private long skipped;
+
+    public void add(ParticipantImportResponse other) {
+        created += other.created;
+        reactivated += other.reactivated;
+        updated += other.updated;
+        unchanged += other.unchanged;
+        skipped += other.skipped;
+    }
+}
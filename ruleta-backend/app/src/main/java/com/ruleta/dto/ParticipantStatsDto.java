@@ -0,0 +1,20 @@
+package com.ruleta.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+public class ParticipantStatsDto {
+    private String participantName;
+    private Long wins;
+    private Double averageProbability;
+    private Double averageParticipants;
+    
+    public ParticipantStatsDto(String participantName, Long wins, Double probabilitySum, Long participantsSum) {
+        this.participantName = participantName;
+        this.wins = wins;
+        this.averageProbability = wins > 0 ? probabilitySum / wins : 0.0;
+        this.averageParticipants = wins > 0 ? (double) participantsSum / wins : 0.0;
+    }
+}
@@ -0,0 +1,24 @@
+package com.ruleta.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RouletteBatchSpinResponse {
+    private List<SpinResult> winners;
+    private Integer totalParticipants;
+    private LocalDateTime spinTime;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class SpinResult {
+        private String winner;
+        private Double probability;
+    }
+}
@@ -0,0 +1,26 @@
+package com.ruleta.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RouletteDrawResponse {
+    private Long drawId;
+    /** Extraídos en orden; la probabilidad es la de salir en su turno, entre los que aún quedaban */
+    private List<DrawResult> winners;
+    private Integer totalParticipants;
+    private LocalDateTime drawTime;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class DrawResult {
+        private String winner;
+        private Double probability;
+    }
+}
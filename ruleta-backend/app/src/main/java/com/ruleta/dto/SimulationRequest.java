@@ -0,0 +1,34 @@
+package com.ruleta.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+
+/**
+ * Parámetros de una simulación. Los campos de la política que vengan a null toman el valor configurado.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SimulationRequest {
+    @NotNull
+    @Min(value = 2, message = "Se necesitan al menos 2 participantes")
+    private Integer participants;
+    
+    @NotNull
+    @Min(1)
+    private Integer spinsPerTrial;
+    
+    @NotNull
+    @Min(1)
+    private Integer trials;
+    
+    private Long seed;
+    
+    private Double winnerFactor;
+    private Double othersFactor;
+    private Double minWeight;
+    private Double maxWeight;
+}
@@ -0,0 +1,30 @@
+package com.ruleta.dto;
+
+import com.ruleta.service.WeightPolicy;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SimulationResponse {
+    private WeightPolicy policy;
+    private int participants;
+    private int spinsPerTrial;
+    private int trials;
+    private long seed;
+    private long totalSpins;
+    /** Varianza media de las victorias por participante en un ensayo */
+    private double meanWinCountVariance;
+    /** La misma varianza si los spins fueran uniformes e independientes, como referencia */
+    private double uniformWinCountVariance;
+    /** Media por ensayo de la sequía más larga (spins seguidos sin ganar) */
+    private double meanMaxDrought;
+    private int maxDrought;
+    /** Número de rachas de victorias seguidas por longitud: posición i = longitud i + 1, la última agrupa el resto */
+    private List<Long> streakHistogram;
+    private long elapsedMillis;
+    private double spinsPerSecond;
+}
@@ -0,0 +1,19 @@
+package com.ruleta.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+public class StatsBucketDto {
+    private LocalDateTime bucketStart;
+    private Long spins;
+    private Double averageProbability;
+    
+    public StatsBucketDto(LocalDateTime bucketStart, Long spins, Double probabilitySum) {
+        this.bucketStart = bucketStart;
+        this.spins = spins;
+        this.averageProbability = spins > 0 ? probabilitySum / spins : 0.0;
+    }
+}
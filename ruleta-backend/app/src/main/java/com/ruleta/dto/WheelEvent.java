@@ -0,0 +1,25 @@
+package com.ruleta.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import java.time.LocalDateTime;
+
+/**
+ * Cambio en una ruleta enviado a los suscriptores de /events. Solo se rellena el campo del tipo de evento.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class WheelEvent {
+    private String type;
+    private String wheel;
+    private LocalDateTime occurredAt;
+    private RouletteSpinResponse spin;
+    private RouletteBatchSpinResponse batch;
+    private ParticipantDto participant;
+    private String participantName;
+    private ParticipantImportResponse participantsImported;
+}
@@ -0,0 +1,56 @@
+package com.ruleta.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+import java.time.LocalDateTime;
+
+/**
+ * Extracción de varios participantes distintos en una sola petición, registrada como una única entrada
+ */
+@Entity
+@Table(name = "draw_history",
+        indexes = @Index(name = "idx_draw_history_wheel_drawn_id", columnList = "wheel_id, drawn_at, id"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DrawHistory {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "draw_history_seq")
+    @SequenceGenerator(name = "draw_history_seq", sequenceName = "draw_history_seq", allocationSize = 50)
+    private Long id;
+
+    // Sin clave ajena: con el motor event-log la ruleta puede no estar proyectada todavía
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "wheel_id", nullable = false, foreignKey = @ForeignKey(ConstraintMode.NO_CONSTRAINT))
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private Wheel wheel;
+
+    @Column(name = "drawn_at", nullable = false)
+    private LocalDateTime drawnAt = LocalDateTime.now();
+
+    @Column(name = "total_participants", nullable = false)
+    private Integer totalParticipants;
+
+    @Column(name = "draw_count", nullable = false)
+    private Integer drawCount;
+
+    // Nombres extraídos en orden de extracción, como array JSON: una permutación completa puede tener miles
+    @Lob
+    @Column(name = "winners", nullable = false)
+    @ToString.Exclude
+    private String winners;
+
+    public DrawHistory(Wheel wheel, Integer totalParticipants, Integer drawCount, String winners) {
+        this.wheel = wheel;
+        this.totalParticipants = totalParticipants;
+        this.drawCount = drawCount;
+        this.winners = winners;
+        this.drawnAt = LocalDateTime.now();
+    }
+}
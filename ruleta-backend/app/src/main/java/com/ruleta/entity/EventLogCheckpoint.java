@@ -0,0 +1,24 @@
+package com.ruleta.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+/**
+ * Posición del log de eventos hasta la que las tablas JPA están al día (motor event-log).
+ * Se escribe en la misma transacción que los registros proyectados.
+ */
+@Entity
+@Table(name = "event_log_checkpoint")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EventLogCheckpoint {
+
+    @Id
+    private String name;
+
+    @Column(nullable = false)
+    private Long position;
+}
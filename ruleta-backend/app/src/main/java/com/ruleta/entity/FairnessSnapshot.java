@@ -0,0 +1,33 @@
+package com.ruleta.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import lombok.ToString;
+import java.time.LocalDateTime;
+
+/**
+ * Últimos acumuladores de equidad guardados de una ruleta, cargados al arrancar en lugar de recorrer el historial
+ */
+@Entity
+@Table(name = "fairness_snapshots")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FairnessSnapshot {
+
+    // Por nombre, como los lleva FairnessTracker, y sin clave ajena a wheels
+    @Id
+    @Column(name = "wheel_name")
+    private String wheelName;
+
+    @Column(name = "taken_at", nullable = false)
+    private LocalDateTime takenAt;
+
+    // Estado de WheelFairness como JSON: una fila por participante que haya aparecido en la ruleta
+    @Lob
+    @Column(name = "state", nullable = false)
+    @ToString.Exclude
+    private String state;
+}
@@ -4,28 +4,47 @@ import jakarta.persistence.*;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+import org.hibernate.annotations.ColumnDefault;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "participants")
+@Table(name = "participants",
+        uniqueConstraints = @UniqueConstraint(name = "uk_participants_wheel_name", columnNames = {"wheel_id", "name"}),
+        indexes = @Index(name = "idx_participants_wheel_active", columnList = "wheel_id, is_active"))
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class Participant {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // SEQUENCE con asignación por bloques: IDENTITY desactiva el batching de inserts en Hibernate
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "participants_seq")
+    @SequenceGenerator(name = "participants_seq", sequenceName = "participants_seq", allocationSize = 50)
     private Long id;
     
-    @Column(nullable = false, unique = true)
+    // Nulable solo para migrar filas anteriores a las ruletas múltiples (ver DefaultWheelInitializer)
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "wheel_id")
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private Wheel wheel;
+    
+    @Column(nullable = false)
     private String name;
     
     @Column(name = "times_selected", nullable = false)
     private Integer timesSelected = 0;
     
+    // Peso base: el efectivo aplica los impulsos de la ruleta posteriores a weightEpoch (ver WheelWeights)
     @Column(name = "probability_weight", nullable = false)
     private Double probabilityWeight = 1.0;
     
+    @ColumnDefault("0")
+    @Column(name = "weight_epoch", nullable = false)
+    private Long weightEpoch = 0L;
+    
     @Column(name = "created_at", nullable = false)
     private LocalDateTime createdAt = LocalDateTime.now();
     
@@ -35,7 +54,8 @@ public class Participant {
     @Column(name = "is_active", nullable = false)
     private Boolean isActive = true;
     
-    public Participant(String name) {
+    public Participant(Wheel wheel, String name) {
+        this.wheel = wheel;
         this.name = name;
         this.timesSelected = 0;
         this.probabilityWeight = 1.0;
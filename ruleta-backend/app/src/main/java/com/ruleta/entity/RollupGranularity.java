@@ -0,0 +1,19 @@
+package com.ruleta.entity;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Resolución temporal de los acumulados de selecciones
+ */
+public enum RollupGranularity {
+    HOUR,
+    DAY;
+
+    /**
+     * Inicio del intervalo que contiene el instante indicado
+     */
+    public LocalDateTime bucketStart(LocalDateTime time) {
+        return this == HOUR ? time.truncatedTo(ChronoUnit.HOURS) : time.truncatedTo(ChronoUnit.DAYS);
+    }
+}
@@ -4,19 +4,37 @@ import jakarta.persistence.*;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "selection_history")
+@Table(name = "selection_history",
+        indexes = {
+                @Index(name = "idx_selection_history_wheel_selected_id", columnList = "wheel_id, selected_at, id"),
+                // Historial y recuento por participante
+                @Index(name = "idx_selection_history_participant_selected", columnList = "participant_id, selected_at"),
+                // Consultas por fecha sin ruleta y la retención, que archiva en orden de antigüedad
+                @Index(name = "idx_selection_history_selected_id", columnList = "selected_at, id")
+        })
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class SelectionHistory {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // SEQUENCE con asignación por bloques: IDENTITY desactiva el batching de inserts en Hibernate
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "selection_history_seq")
+    @SequenceGenerator(name = "selection_history_seq", sequenceName = "selection_history_seq", allocationSize = 50)
     private Long id;
     
+    // Desnormalizado desde el participante para filtrar el historial por ruleta sin join
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "wheel_id")
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private Wheel wheel;
+    
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "participant_id", nullable = false)
     private Participant participant;
@@ -31,6 +49,7 @@ public class SelectionHistory {
     private Double probabilityAtSelection;
     
     public SelectionHistory(Participant participant, Integer totalParticipants, Double probabilityAtSelection) {
+        this.wheel = participant.getWheel();
         this.participant = participant;
         this.totalParticipants = totalParticipants;
         this.probabilityAtSelection = probabilityAtSelection;
@@ -0,0 +1,37 @@
+package com.ruleta.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import java.time.LocalDateTime;
+
+/**
+ * Registro de historial archivado por antigüedad. Mismas columnas que {@link SelectionHistory}, sin
+ * claves ajenas ni más índice que la clave primaria, para que archivar cueste solo el INSERT.
+ */
+@Entity
+@Table(name = "selection_history_archive")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SelectionHistoryArchive {
+
+    @Id
+    private Long id;
+
+    @Column(name = "wheel_id")
+    private Long wheelId;
+
+    @Column(name = "participant_id", nullable = false)
+    private Long participantId;
+
+    @Column(name = "selected_at", nullable = false)
+    private LocalDateTime selectedAt;
+
+    @Column(name = "total_participants", nullable = false)
+    private Integer totalParticipants;
+
+    @Column(name = "probability_at_selection", nullable = false)
+    private Double probabilityAtSelection;
+}
@@ -0,0 +1,70 @@
+package com.ruleta.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+import java.time.LocalDateTime;
+
+/**
+ * Acumulado de selecciones de un participante en un intervalo (hora o día).
+ * Se actualiza junto con cada escritura de historial, así las estadísticas no recorren selection_history.
+ */
+@Entity
+@Table(name = "selection_rollups",
+        uniqueConstraints = @UniqueConstraint(name = "uk_selection_rollups_bucket",
+                columnNames = {"participant_id", "granularity", "bucket_start"}),
+        indexes = @Index(name = "idx_selection_rollups_wheel_bucket", columnList = "wheel_id, granularity, bucket_start"))
+@Data
+@NoArgsConstructor
+public class SelectionRollup {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "selection_rollups_seq")
+    @SequenceGenerator(name = "selection_rollups_seq", sequenceName = "selection_rollups_seq", allocationSize = 50)
+    private Long id;
+    
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "wheel_id", nullable = false)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private Wheel wheel;
+    
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "participant_id", nullable = false)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private Participant participant;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 8)
+    private RollupGranularity granularity;
+    
+    @Column(name = "bucket_start", nullable = false)
+    private LocalDateTime bucketStart;
+    
+    @Column(name = "win_count", nullable = false)
+    private Long winCount = 0L;
+    
+    // Suma de probabilityAtSelection: dividida entre winCount da la probabilidad media al ganar
+    @Column(name = "probability_sum", nullable = false)
+    private Double probabilitySum = 0.0;
+    
+    // Suma de totalParticipants de cada selección
+    @Column(name = "participants_sum", nullable = false)
+    private Long participantsSum = 0L;
+    
+    public SelectionRollup(Wheel wheel, Participant participant, RollupGranularity granularity, LocalDateTime bucketStart) {
+        this.wheel = wheel;
+        this.participant = participant;
+        this.granularity = granularity;
+        this.bucketStart = bucketStart;
+    }
+    
+    public void add(long wins, double probability, long participants) {
+        this.winCount += wins;
+        this.probabilitySum += probability;
+        this.participantsSum += participants;
+    }
+}
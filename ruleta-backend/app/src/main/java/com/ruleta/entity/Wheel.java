@@ -0,0 +1,53 @@
+package com.ruleta.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import org.hibernate.annotations.ColumnDefault;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "wheels")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class Wheel {
+
+    /** Ruleta usada por los endpoints sin ámbito ({@code /api/roulette}) */
+    public static final String DEFAULT_NAME = "default";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "wheels_seq")
+    @SequenceGenerator(name = "wheels_seq", sequenceName = "wheels_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(nullable = false, unique = true)
+    private String name;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt = LocalDateTime.now();
+
+    // Spins que han impulsado a todos los no ganadores; ver WheelWeights
+    @ColumnDefault("0")
+    @Column(name = "boost_epoch", nullable = false)
+    private Long boostEpoch = 0L;
+
+    // Factor y tope con los que se han acumulado esos impulsos; null hasta el primer spin
+    @Column(name = "boost_factor")
+    private Double boostFactor;
+
+    @Column(name = "boost_cap")
+    private Double boostCap;
+
+    // Toda escritura sobre la ruleta la incrementa en modo multinodo (ver JpaWheelStore); null hasta persistir
+    @Version
+    @ColumnDefault("0")
+    @Column(name = "version", nullable = false)
+    private Long version;
+
+    public Wheel(String name) {
+        this.name = name;
+        this.createdAt = LocalDateTime.now();
+    }
+}
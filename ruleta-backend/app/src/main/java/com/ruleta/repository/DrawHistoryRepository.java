@@ -0,0 +1,19 @@
+package com.ruleta.repository;
+
+import com.ruleta.entity.DrawHistory;
+import com.ruleta.entity.Wheel;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface DrawHistoryRepository extends JpaRepository<DrawHistory, Long> {
+
+    @Query("SELECT d FROM DrawHistory d WHERE d.wheel = :wheel AND d.drawnAt >= :since ORDER BY d.drawnAt DESC, d.id DESC")
+    List<DrawHistory> findRecent(@Param("wheel") Wheel wheel, @Param("since") LocalDateTime since, Limit limit);
+}
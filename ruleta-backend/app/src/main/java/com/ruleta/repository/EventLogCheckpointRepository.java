@@ -0,0 +1,9 @@
+package com.ruleta.repository;
+
+import com.ruleta.entity.EventLogCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface EventLogCheckpointRepository extends JpaRepository<EventLogCheckpoint, String> {
+}
@@ -0,0 +1,9 @@
+package com.ruleta.repository;
+
+import com.ruleta.entity.FairnessSnapshot;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface FairnessSnapshotRepository extends JpaRepository<FairnessSnapshot, String> {
+}
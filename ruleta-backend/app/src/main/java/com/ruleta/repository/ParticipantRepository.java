@@ -1,26 +1,48 @@
 package com.ruleta.repository;
 
 import com.ruleta.entity.Participant;
+import com.ruleta.entity.Wheel;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface ParticipantRepository extends JpaRepository<Participant, Long> {
     
-    List<Participant> findByIsActiveTrue();
+    List<Participant> findByWheelAndIsActiveTrue(Wheel wheel);
     
-    Optional<Participant> findByNameAndIsActiveTrue(String name);
+    List<Participant> findByWheel(Wheel wheel);
     
-    boolean existsByNameAndIsActiveTrue(String name);
+    long countByWheelAndIsActiveTrue(Wheel wheel);
     
-    Optional<Participant> findByName(String name);
+    Optional<Participant> findByWheelAndNameAndIsActiveTrue(Wheel wheel, String name);
     
-    @Query("SELECT p FROM Participant p WHERE p.isActive = true ORDER BY p.probabilityWeight DESC")
-    List<Participant> findActiveParticipantsOrderByWeight();
+    boolean existsByWheelAndNameAndIsActiveTrue(Wheel wheel, String name);
+    
+    Optional<Participant> findByWheelAndName(Wheel wheel, String name);
+    
+    List<Participant> findByWheelAndNameIn(Wheel wheel, Collection<String> names);
+    
+    @Query("SELECT p FROM Participant p WHERE p.wheel = :wheel ORDER BY p.id")
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<Participant> streamByWheel(@Param("wheel") Wheel wheel);
     
     @Query("SELECT COUNT(p) FROM Participant p WHERE p.isActive = true")
     long countActiveParticipants();
-} 
\ No newline at end of file
+    
+    @Modifying
+    @Query("UPDATE Participant p SET p.wheel = :wheel WHERE p.wheel IS NULL")
+    int assignWheelWhereMissing(@Param("wheel") Wheel wheel);
+}
@@ -0,0 +1,11 @@
+package com.ruleta.repository;
+
+import com.ruleta.entity.SelectionHistoryArchive;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface SelectionHistoryArchiveRepository extends JpaRepository<SelectionHistoryArchive, Long> {
+
+    long countByWheelId(Long wheelId);
+}
@@ -1,25 +1,88 @@
 package com.ruleta.repository;
 
+import com.ruleta.dto.HistoryEntryDto;
 import com.ruleta.entity.SelectionHistory;
 import com.ruleta.entity.Participant;
+import com.ruleta.entity.Wheel;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface SelectionHistoryRepository extends JpaRepository<SelectionHistory, Long> {
     
+    String ENTRY_PROJECTION = "SELECT new com.ruleta.dto.HistoryEntryDto("
+            + "sh.id, p.name, sh.selectedAt, sh.totalParticipants, sh.probabilityAtSelection) "
+            + "FROM SelectionHistory sh JOIN sh.participant p ";
+    
+    String ENTRY_ORDER = "ORDER BY sh.selectedAt DESC, sh.id DESC";
+    
     List<SelectionHistory> findByParticipantOrderBySelectedAtDesc(Participant participant);
     
+    List<SelectionHistory> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+    
     @Query("SELECT sh FROM SelectionHistory sh ORDER BY sh.selectedAt DESC")
     List<SelectionHistory> findAllOrderBySelectedAtDesc();
     
     @Query("SELECT sh FROM SelectionHistory sh WHERE sh.selectedAt >= :since ORDER BY sh.selectedAt DESC")
     List<SelectionHistory> findRecentSelections(@Param("since") LocalDateTime since);
     
+    // Proyecciones con el nombre del participante en la misma consulta, ordenadas por (selected_at, id)
+    
+    @Query(ENTRY_PROJECTION + "WHERE sh.wheel = :wheel AND sh.selectedAt >= :since " + ENTRY_ORDER)
+    List<HistoryEntryDto> findEntries(@Param("wheel") Wheel wheel, @Param("since") LocalDateTime since, Limit limit);
+    
+    @Query(ENTRY_PROJECTION + "WHERE sh.wheel = :wheel AND sh.selectedAt >= :since "
+            + "AND (sh.selectedAt < :cursorAt OR (sh.selectedAt = :cursorAt AND sh.id < :cursorId)) " + ENTRY_ORDER)
+    List<HistoryEntryDto> findEntriesBefore(@Param("wheel") Wheel wheel,
+                                            @Param("since") LocalDateTime since,
+                                            @Param("cursorAt") LocalDateTime cursorAt,
+                                            @Param("cursorId") Long cursorId,
+                                            Limit limit);
+    
+    @Query(ENTRY_PROJECTION + "WHERE sh.wheel = :wheel AND sh.selectedAt >= :since " + ENTRY_ORDER)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    Stream<HistoryEntryDto> streamEntries(@Param("wheel") Wheel wheel, @Param("since") LocalDateTime since);
+    
+    @Query(ENTRY_PROJECTION + "WHERE sh.wheel = :wheel ORDER BY sh.selectedAt, sh.id")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    Stream<HistoryEntryDto> streamEntriesChronologically(@Param("wheel") Wheel wheel);
+    
     @Query("SELECT COUNT(sh) FROM SelectionHistory sh WHERE sh.participant = :participant")
     long countByParticipant(@Param("participant") Participant participant);
-} 
\ No newline at end of file
+    
+    @Query("SELECT COUNT(sh) FROM SelectionHistory sh WHERE sh.wheel = :wheel")
+    long countByWheel(@Param("wheel") Wheel wheel);
+    
+    // Retención: archivado por trozos, del más antiguo al más reciente
+    
+    @Query("SELECT sh.id FROM SelectionHistory sh WHERE sh.selectedAt < :before ORDER BY sh.selectedAt, sh.id")
+    List<Long> findIdsSelectedBefore(@Param("before") LocalDateTime before, Limit limit);
+    
+    @Modifying
+    @Query(value = "INSERT INTO selection_history_archive "
+            + "(id, wheel_id, participant_id, selected_at, total_participants, probability_at_selection) "
+            + "SELECT id, wheel_id, participant_id, selected_at, total_participants, probability_at_selection "
+            + "FROM selection_history WHERE id IN (:ids)",
+            nativeQuery = true)
+    int copyToArchive(@Param("ids") List<Long> ids);
+    
+    @Modifying
+    @Query("DELETE FROM SelectionHistory sh WHERE sh.id IN :ids")
+    int deleteEntries(@Param("ids") List<Long> ids);
+    
+    @Modifying
+    @Query(value = "UPDATE selection_history sh SET wheel_id = "
+            + "(SELECT p.wheel_id FROM participants p WHERE p.id = sh.participant_id) WHERE sh.wheel_id IS NULL",
+            nativeQuery = true)
+    int assignWheelFromParticipantWhereMissing();
+}
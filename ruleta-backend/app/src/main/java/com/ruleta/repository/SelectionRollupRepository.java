@@ -0,0 +1,38 @@
+package com.ruleta.repository;
+
+import com.ruleta.dto.ParticipantStatsDto;
+import com.ruleta.dto.StatsBucketDto;
+import com.ruleta.entity.RollupGranularity;
+import com.ruleta.entity.SelectionRollup;
+import com.ruleta.entity.Wheel;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface SelectionRollupRepository extends JpaRepository<SelectionRollup, Long> {
+    
+    @Query("SELECT r FROM SelectionRollup r WHERE r.participant.id IN :participantIds AND r.bucketStart IN :bucketStarts")
+    List<SelectionRollup> findBuckets(@Param("participantIds") Collection<Long> participantIds,
+                                      @Param("bucketStarts") Collection<LocalDateTime> bucketStarts);
+    
+    @Query("SELECT new com.ruleta.dto.ParticipantStatsDto(p.name, SUM(r.winCount), SUM(r.probabilitySum), SUM(r.participantsSum)) " +
+           "FROM SelectionRollup r JOIN r.participant p " +
+           "WHERE r.wheel = :wheel AND r.granularity = :granularity AND r.bucketStart >= :since " +
+           "GROUP BY p.id, p.name ORDER BY SUM(r.winCount) DESC, p.name")
+    List<ParticipantStatsDto> summarizeByParticipant(@Param("wheel") Wheel wheel,
+                                                     @Param("granularity") RollupGranularity granularity,
+                                                     @Param("since") LocalDateTime since);
+    
+    @Query("SELECT new com.ruleta.dto.StatsBucketDto(r.bucketStart, SUM(r.winCount), SUM(r.probabilitySum)) " +
+           "FROM SelectionRollup r " +
+           "WHERE r.wheel = :wheel AND r.granularity = :granularity AND r.bucketStart >= :since " +
+           "GROUP BY r.bucketStart ORDER BY r.bucketStart")
+    List<StatsBucketDto> summarizeByBucket(@Param("wheel") Wheel wheel,
+                                           @Param("granularity") RollupGranularity granularity,
+                                           @Param("since") LocalDateTime since);
+}
@@ -0,0 +1,17 @@
+package com.ruleta.repository;
+
+import com.ruleta.entity.Wheel;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import java.util.Optional;
+
+@Repository
+public interface WheelRepository extends JpaRepository<Wheel, Long> {
+    
+    Optional<Wheel> findByName(String name);
+    
+    @Query("SELECT w.version FROM Wheel w WHERE w.name = :name")
+    Optional<Long> findVersionByName(@Param("name") String name);
+}
@@ -0,0 +1,39 @@
+package com.ruleta.service;
+
+import com.ruleta.entity.Wheel;
+import com.ruleta.repository.ParticipantRepository;
+import com.ruleta.repository.SelectionHistoryRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Crea la ruleta por defecto y le asigna los datos anteriores a las ruletas múltiples
+ */
+@Component
+@Order(1)
+@RequiredArgsConstructor
+@Slf4j
+public class DefaultWheelInitializer implements ApplicationRunner {
+
+    private final WheelRegistry wheelRegistry;
+    private final ParticipantRepository participantRepository;
+    private final SelectionHistoryRepository selectionHistoryRepository;
+
+    @Override
+    @Transactional
+    public void run(ApplicationArguments args) {
+        Wheel defaultWheel = wheelRegistry.getOrCreate(Wheel.DEFAULT_NAME);
+
+        int participants = participantRepository.assignWheelWhereMissing(defaultWheel);
+        int history = selectionHistoryRepository.assignWheelFromParticipantWhereMissing();
+        if (participants > 0 || history > 0) {
+            log.info("Asignados a la ruleta por defecto: {} participantes y {} registros de historial",
+                    participants, history);
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.ruleta.service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Posición dentro del historial para la paginación por clave: la última fila entregada.
+ * Se serializa como base64 URL-safe de {@code selectedAt|id} para que el cliente la trate como opaca.
+ */
+record HistoryCursor(LocalDateTime selectedAt, Long id) {
+
+    static String encode(LocalDateTime selectedAt, Long id) {
+        String raw = selectedAt + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static HistoryCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf('|');
+            if (separator < 0) {
+                throw new IllegalArgumentException("Cursor de historial inválido");
+            }
+            return new HistoryCursor(LocalDateTime.parse(raw.substring(0, separator)),
+                    Long.parseLong(raw.substring(separator + 1)));
+        } catch (DateTimeParseException | NumberFormatException e) {
+            throw new IllegalArgumentException("Cursor de historial inválido", e);
+        }
+    }
+}
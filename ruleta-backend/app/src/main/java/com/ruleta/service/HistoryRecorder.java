@@ -0,0 +1,227 @@
+package com.ruleta.service;
+
+import com.ruleta.entity.SelectionHistory;
+import com.ruleta.repository.SelectionHistoryRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Punto único de escritura del historial de selecciones.
+ * <p>
+ * En modo {@link HistoryWriteMode#ASYNC} los registros pasan, tras el commit del spin, a un buffer
+ * acotado que un hilo vuelca por lotes cuando se alcanza {@code batch-size} o pasa {@code flush-interval}.
+ * Si el buffer está lleno, el productor espera hasta {@code offer-timeout} (contrapresión sobre el
+ * escritor de spins) y después escribe él mismo el registro. Al detener la aplicación se vacía el buffer.
+ */
+@Component
+@Slf4j
+public class HistoryRecorder {
+
+    private final SelectionHistoryRepository selectionHistoryRepository;
+    private final SelectionRollupUpdater selectionRollupUpdater;
+    private final TransactionTemplate writeTransaction;
+    private final HistoryWriteMode mode;
+    private final BlockingQueue<SelectionHistory> buffer;
+    private final int batchSize;
+    private final Duration flushInterval;
+    private final Duration offerTimeout;
+    private final Thread flusher;
+    private volatile boolean running = true;
+
+    @Value("${ruleta.cluster.enabled:false}")
+    private boolean clustered;
+
+    public HistoryRecorder(SelectionHistoryRepository selectionHistoryRepository,
+                           SelectionRollupUpdater selectionRollupUpdater,
+                           PlatformTransactionManager transactionManager,
+                           @Value("${ruleta.history.write-mode:sync}") HistoryWriteMode mode,
+                           @Value("${ruleta.history.buffer-capacity:10000}") int bufferCapacity,
+                           @Value("${ruleta.history.batch-size:500}") int batchSize,
+                           @Value("${ruleta.history.flush-interval:200ms}") Duration flushInterval,
+                           @Value("${ruleta.history.offer-timeout:1s}") Duration offerTimeout) {
+        this.selectionHistoryRepository = selectionHistoryRepository;
+        this.selectionRollupUpdater = selectionRollupUpdater;
+        this.writeTransaction = new TransactionTemplate(transactionManager);
+        this.writeTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.mode = mode;
+        this.buffer = new ArrayBlockingQueue<>(bufferCapacity);
+        this.batchSize = Math.max(1, batchSize);
+        this.flushInterval = flushInterval;
+        this.offerTimeout = offerTimeout;
+        this.flusher = new Thread(this::flushLoop, "history-flusher");
+        this.flusher.setDaemon(true);
+    }
+
+    @PostConstruct
+    void start() {
+        if (clustered && mode == HistoryWriteMode.ASYNC) {
+            // Los acumulados se escribirían fuera de la transacción que protege la versión de la ruleta
+            throw new IllegalStateException("El modo multinodo no admite ruleta.history.write-mode: async");
+        }
+        if (mode == HistoryWriteMode.ASYNC) {
+            flusher.start();
+        }
+        log.info("Escritura del historial en modo {}", mode);
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        running = false;
+        if (mode == HistoryWriteMode.ASYNC) {
+            flusher.join(TimeUnit.SECONDS.toMillis(30));
+            // Lo que no llegó a recoger el hilo se escribe aquí
+            drain();
+        }
+    }
+
+    /**
+     * Registra entradas de historial según el modo configurado.
+     * Debe llamarse dentro de la transacción del spin.
+     */
+    public void record(List<SelectionHistory> entries) {
+        if (entries.isEmpty()) {
+            return;
+        }
+        if (mode == HistoryWriteMode.SYNC || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            persist(entries);
+            return;
+        }
+        if (mode == HistoryWriteMode.FLUSH_ON_COMMIT) {
+            bufferUntilCommit(entries);
+        } else {
+            // Solo se encola lo confirmado: un rollback del spin no debe dejar historial
+            List<SelectionHistory> committed = List.copyOf(entries);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    enqueue(committed);
+                }
+            });
+        }
+    }
+
+    public void record(SelectionHistory entry) {
+        record(List.of(entry));
+    }
+
+    /**
+     * Registros en espera de volcado (solo modo asíncrono)
+     */
+    public int pending() {
+        return buffer.size();
+    }
+
+    /**
+     * Vuelca de inmediato todo lo pendiente en el hilo llamador
+     */
+    public void drain() {
+        List<SelectionHistory> batch = new ArrayList<>(batchSize);
+        while (buffer.drainTo(batch, batchSize) > 0) {
+            write(batch);
+            batch.clear();
+        }
+    }
+
+    private void bufferUntilCommit(List<SelectionHistory> entries) {
+        @SuppressWarnings("unchecked")
+        List<SelectionHistory> pending = (List<SelectionHistory>) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            List<SelectionHistory> bound = new ArrayList<>();
+            TransactionSynchronizationManager.bindResource(this, bound);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    // Un único saveAll por transacción: los INSERT salen en lotes JDBC con el flush del commit
+                    persist(bound);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(HistoryRecorder.this);
+                }
+            });
+            pending = bound;
+        }
+        pending.addAll(entries);
+    }
+
+    private void enqueue(List<SelectionHistory> entries) {
+        for (SelectionHistory entry : entries) {
+            boolean accepted = false;
+            if (running) {
+                try {
+                    accepted = buffer.offer(entry, offerTimeout.toMillis(), TimeUnit.MILLISECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            if (!accepted) {
+                log.warn("Buffer de historial lleno o detenido: escritura directa");
+                write(List.of(entry));
+            }
+        }
+    }
+
+    private void flushLoop() {
+        List<SelectionHistory> batch = new ArrayList<>(batchSize);
+        while (running) {
+            try {
+                SelectionHistory first = buffer.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+
+                // Acumular hasta completar el lote o agotar el intervalo desde el primer registro
+                long deadline = System.nanoTime() + flushInterval.toNanos();
+                while (batch.size() < batchSize) {
+                    buffer.drainTo(batch, batchSize - batch.size());
+                    long remaining = deadline - System.nanoTime();
+                    if (batch.size() >= batchSize || remaining <= 0) {
+                        break;
+                    }
+                    SelectionHistory next = buffer.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                write(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.error("Error volcando {} registros de historial", batch.size(), e);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    // Serializado: el volcado en segundo plano y la escritura directa con el buffer lleno
+    // podrían sumar a la vez sobre los mismos acumulados
+    private synchronized void write(List<SelectionHistory> batch) {
+        writeTransaction.executeWithoutResult(status -> persist(batch));
+    }
+
+    // Historial y acumulados siempre en la misma transacción
+    private void persist(List<SelectionHistory> entries) {
+        selectionHistoryRepository.saveAll(entries);
+        selectionRollupUpdater.apply(entries);
+    }
+}
@@ -0,0 +1,16 @@
+package com.ruleta.service;
+
+/**
+ * Modo de escritura del historial (propiedad {@code ruleta.history.write-mode})
+ */
+public enum HistoryWriteMode {
+
+    /** INSERT dentro de la transacción del spin (comportamiento original) */
+    SYNC,
+
+    /** Buffer por transacción, volcado en un solo lote justo antes del commit: misma durabilidad que SYNC */
+    FLUSH_ON_COMMIT,
+
+    /** Buffer acotado en memoria volcado en segundo plano por tamaño o tiempo; un crash puede perder registros */
+    ASYNC
+}
@@ -0,0 +1,166 @@
+package com.ruleta.service;
+
+import com.ruleta.entity.Participant;
+import com.ruleta.entity.SelectionHistory;
+import com.ruleta.entity.Wheel;
+import com.ruleta.repository.ParticipantRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.stream.Stream;
+
+/**
+ * Motor por defecto: filas JPA gestionadas en la transacción del llamador. Los cambios en participantes
+ * y ruleta los emite el flush del commit (solo las filas modificadas) y el historial pasa por
+ * {@link HistoryRecorder} según su modo de escritura.
+ * <p>
+ * En modo multinodo ({@code ruleta.cluster.enabled}) varios procesos escriben en la misma base de datos.
+ * Cada escritura carga la ruleta antes que sus participantes y le incrementa la versión al confirmar: si
+ * otro nodo confirmó antes un cambio en la misma ruleta, el commit falla con un conflicto de versión y
+ * {@link SpinExecutor} repite la operación sobre el estado nuevo.
+ */
+@Component
+@ConditionalOnProperty(name = "ruleta.storage.engine", havingValue = "jpa", matchIfMissing = true)
+@RequiredArgsConstructor
+public class JpaWheelStore implements WheelStore {
+
+    private final WheelRegistry wheelRegistry;
+    private final ParticipantRepository participantRepository;
+    private final ParticipantIdCache participantIdCache;
+    private final HistoryRecorder historyRecorder;
+    private final EntityManager entityManager;
+    
+    @Value("${ruleta.cluster.enabled:false}")
+    private boolean clustered;
+
+    @Override
+    public Optional<View> view(String wheelName) {
+        return wheelRegistry.find(wheelName)
+                .map(wheel -> new View(wheel, participantRepository.findByWheelAndIsActiveTrue(wheel)));
+    }
+
+    /**
+     * Cursor JDBC en la transacción del llamador; cada fila se desvincula tras entregarla para que la
+     * sesión no acumule todas las entidades
+     */
+    @Override
+    public boolean forEachParticipant(String wheelName, BiConsumer<Wheel, Participant> consumer) {
+        Optional<Wheel> wheel = wheelRegistry.find(wheelName);
+        if (wheel.isEmpty()) {
+            return false;
+        }
+        try (Stream<Participant> participants = participantRepository.streamByWheel(wheel.get())) {
+            participants.forEach(participant -> {
+                consumer.accept(wheel.get(), participant);
+                entityManager.detach(participant);
+            });
+        }
+        return true;
+    }
+
+    @Override
+    public Wheel getOrCreateWheel(String name) {
+        if (!clustered) {
+            return wheelRegistry.getOrCreate(name);
+        }
+        // Una ruleta nueva no necesita versión: la restricción única del nombre ya detecta el alta concurrente
+        return findWheel(name).orElseGet(() -> wheelRegistry.getOrCreate(name));
+    }
+
+    @Override
+    public Optional<Wheel> findWheel(String name) {
+        Optional<Wheel> wheel = wheelRegistry.find(name);
+        if (clustered) {
+            // Carga la fila ya (lo que se lea después es al menos igual de reciente) y la versión sube al confirmar
+            wheel.ifPresent(w -> entityManager.lock(w, LockModeType.OPTIMISTIC_FORCE_INCREMENT));
+        }
+        return wheel;
+    }
+
+    @Override
+    public List<Participant> findActive(Wheel wheel) {
+        return participantRepository.findByWheelAndIsActiveTrue(wheel);
+    }
+
+    @Override
+    public long countActive(Wheel wheel) {
+        return participantRepository.countByWheelAndIsActiveTrue(wheel);
+    }
+
+    @Override
+    public Optional<Participant> findByName(Wheel wheel, String name) {
+        return participantRepository.findByWheelAndName(wheel, name);
+    }
+
+    /**
+     * Con un número constante de consultas: una por id para los nombres cacheados y una {@code IN} para el resto
+     */
+    @Override
+    public List<Participant> findByNames(Wheel wheel, Collection<String> names) {
+        Long wheelId = wheel.getId();
+        List<Participant> found = new ArrayList<>(names.size());
+
+        // Nombres con id cacheado: una sola consulta por clave primaria
+        Map<Long, String> cachedIds = new HashMap<>();
+        for (String name : names) {
+            Long id = participantIdCache.get(wheelId, name);
+            if (id != null) {
+                cachedIds.put(id, name);
+            }
+        }
+        Set<String> pending = new LinkedHashSet<>(names);
+        if (!cachedIds.isEmpty()) {
+            for (Participant participant : participantRepository.findAllById(cachedIds.keySet())) {
+                if (participant.getIsActive() && participant.getName().equals(cachedIds.get(participant.getId()))) {
+                    found.add(participant);
+                    pending.remove(participant.getName());
+                } else {
+                    participantIdCache.evict(wheelId, cachedIds.get(participant.getId()));
+                }
+            }
+        }
+
+        // Resto de nombres: una consulta IN
+        if (!pending.isEmpty()) {
+            for (Participant participant : participantRepository.findByWheelAndNameIn(wheel, pending)) {
+                participantIdCache.put(wheelId, participant.getName(), participant.getId());
+                found.add(participant);
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Inserción en lote
+     */
+    @Override
+    public List<Participant> insert(Wheel wheel, List<Participant> participants) {
+        List<Participant> saved = participantRepository.saveAll(participants);
+        saved.forEach(participant -> participantIdCache.put(wheel.getId(), participant.getName(), participant.getId()));
+        return saved;
+    }
+
+    @Override
+    public void commit(Wheel wheel, List<SelectionHistory> selections) {
+        // Ruleta y participantes están gestionados: el flush solo actualiza las filas modificadas
+        historyRecorder.record(selections);
+    }
+
+    @Override
+    public boolean supportsRollback() {
+        return true;
+    }
+}
@@ -0,0 +1,61 @@
+package com.ruleta.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Caché LRU acotada nombre → id de participante, independiente por ruleta.
+ * Solo es una pista: quien la usa debe comprobar que la entidad cargada sigue activa.
+ */
+@Component
+public class ParticipantIdCache {
+
+    private final int maxSizePerWheel;
+    private final Map<Long, Map<String, Long>> idsByWheel = new ConcurrentHashMap<>();
+
+    public ParticipantIdCache(@Value("${ruleta.participant-cache.max-size:10000}") int maxSizePerWheel) {
+        this.maxSizePerWheel = maxSizePerWheel;
+    }
+
+    public Long get(Long wheelId, String name) {
+        Map<String, Long> ids = idsByWheel.get(wheelId);
+        if (ids == null) {
+            return null;
+        }
+        synchronized (ids) {
+            return ids.get(name);
+        }
+    }
+
+    public void put(Long wheelId, String name, Long id) {
+        if (id == null) {
+            return;
+        }
+        Map<String, Long> ids = idsByWheel.computeIfAbsent(wheelId, key -> newLruMap());
+        synchronized (ids) {
+            ids.put(name, id);
+        }
+    }
+
+    public void evict(Long wheelId, String name) {
+        Map<String, Long> ids = idsByWheel.get(wheelId);
+        if (ids != null) {
+            synchronized (ids) {
+                ids.remove(name);
+            }
+        }
+    }
+
+    private Map<String, Long> newLruMap() {
+        return new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Long> eldest) {
+                return size() > maxSizePerWheel;
+            }
+        };
+    }
+}
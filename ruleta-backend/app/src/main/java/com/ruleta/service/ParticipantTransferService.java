@@ -0,0 +1,276 @@
+package com.ruleta.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ruleta.dto.ParticipantDto;
+import com.ruleta.dto.ParticipantImportResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Importación y exportación masiva de participantes en CSV o NDJSON, sin cargar el contenido entero en memoria.
+ * <p>
+ * La importación lee línea a línea y confirma bloques de {@code ruleta.import.chunk-size} filas, cada uno en una
+ * operación del escritor de la ruleta ({@link SpinExecutor}) con una búsqueda y una inserción en lote. Un error
+ * en una línea detiene la importación; los bloques anteriores ya quedan confirmados y volver a importar el
+ * fichero es idempotente. La exportación recorre los participantes con un cursor y escribe cada uno al leerlo.
+ * <p>
+ * Ambos formatos usan los campos de {@link ParticipantDto}. En CSV la primera línea puede ser una cabecera
+ * con esos nombres (en cualquier orden; las columnas desconocidas se ignoran); sin cabecera, las columnas son
+ * {@code name,probabilityWeight,timesSelected,lastSelectedAt}. Solo {@code name} es obligatorio.
+ */
+@Service
+@Slf4j
+public class ParticipantTransferService {
+
+    static final int MAX_NAME_LENGTH = 255;
+    private static final List<String> DEFAULT_COLUMNS = List.of("name", "probabilityWeight", "timesSelected", "lastSelectedAt");
+    private static final List<String> EXPORT_COLUMNS = List.of("name", "probabilityWeight", "timesSelected",
+            "lastSelectedAt", "isActive", "createdAt");
+
+    public enum Format {
+        CSV("text/csv"),
+        NDJSON("application/x-ndjson");
+
+        private final String mediaType;
+
+        Format(String mediaType) {
+            this.mediaType = mediaType;
+        }
+
+        public String mediaType() {
+            return mediaType;
+        }
+
+        public static Format parse(String value) {
+            try {
+                return valueOf(value.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Formato no soportado: " + value);
+            }
+        }
+    }
+
+    private final RouletteService rouletteService;
+    private final SpinExecutor spinExecutor;
+    private final ObjectMapper objectMapper;
+    private final int chunkSize;
+
+    public ParticipantTransferService(RouletteService rouletteService,
+                                      SpinExecutor spinExecutor,
+                                      ObjectMapper objectMapper,
+                                      @Value("${ruleta.import.chunk-size:1000}") int chunkSize) {
+        this.rouletteService = rouletteService;
+        this.spinExecutor = spinExecutor;
+        this.objectMapper = objectMapper;
+        this.chunkSize = Math.max(1, chunkSize);
+    }
+
+    /**
+     * Importa los participantes del flujo en bloques. Dentro de un bloque, un nombre repetido se queda con
+     * su última fila
+     *
+     * @throws IllegalArgumentException si una línea no es válida; lo anterior a su bloque ya está importado
+     */
+    public ParticipantImportResponse importParticipants(String wheelName, InputStream in, Format format) throws IOException {
+        ParticipantImportResponse total = new ParticipantImportResponse();
+        Map<String, ParticipantDto> chunk = new LinkedHashMap<>();
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        List<String> columns = DEFAULT_COLUMNS;
+        long lineNumber = 0;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            ParticipantDto row;
+            try {
+                if (format == Format.NDJSON) {
+                    row = objectMapper.readValue(line, ParticipantDto.class);
+                } else {
+                    List<String> fields = parseCsvLine(line);
+                    if (lineNumber == 1 && isHeader(fields)) {
+                        columns = fields.stream().map(String::trim).toList();
+                        continue;
+                    }
+                    row = csvRow(columns, fields);
+                }
+                validate(row);
+            } catch (JsonProcessingException | IllegalArgumentException e) {
+                throw new IllegalArgumentException("Línea " + lineNumber + ": " + e.getMessage(), e);
+            }
+
+            chunk.put(row.getName(), row);
+            if (chunk.size() >= chunkSize) {
+                total.add(importChunk(wheelName, chunk));
+                chunk = new LinkedHashMap<>();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            total.add(importChunk(wheelName, chunk));
+        }
+        log.info("Importación en '{}' terminada: {} líneas, {} nuevos, {} reactivados, {} actualizados",
+                wheelName, lineNumber, total.getCreated(), total.getReactivated(), total.getUpdated());
+        return total;
+    }
+
+    /**
+     * Escribe todos los participantes de la ruleta, activos o no, a medida que se leen
+     */
+    public void exportParticipants(String wheelName, Format format, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        if (format == Format.CSV) {
+            writer.write(String.join(",", EXPORT_COLUMNS));
+            writer.write('\n');
+        }
+        try {
+            rouletteService.streamParticipants(wheelName, participant -> {
+                try {
+                    if (format == Format.NDJSON) {
+                        writer.write(objectMapper.writeValueAsString(participant));
+                    } else {
+                        writeCsvRow(writer, participant);
+                    }
+                    writer.write('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        writer.flush();
+    }
+
+    private ParticipantImportResponse importChunk(String wheelName, Map<String, ParticipantDto> chunk) {
+        List<ParticipantDto> rows = new ArrayList<>(chunk.values());
+        return spinExecutor.execute(wheelName, () -> rouletteService.importParticipants(wheelName, rows));
+    }
+
+    private static void validate(ParticipantDto row) {
+        if (row.getName() == null || row.getName().isBlank()) {
+            throw new IllegalArgumentException("falta el nombre");
+        }
+        row.setName(row.getName().trim());
+        if (row.getName().length() > MAX_NAME_LENGTH) {
+            throw new IllegalArgumentException("nombre de más de " + MAX_NAME_LENGTH + " caracteres");
+        }
+        Double weight = row.getProbabilityWeight();
+        if (weight != null && !(weight > 0 && Double.isFinite(weight))) {
+            throw new IllegalArgumentException("el peso debe ser un número positivo: " + weight);
+        }
+        if (row.getTimesSelected() != null && row.getTimesSelected() < 0) {
+            throw new IllegalArgumentException("timesSelected no puede ser negativo: " + row.getTimesSelected());
+        }
+    }
+
+    private static boolean isHeader(List<String> fields) {
+        return fields.stream().anyMatch(field -> field.trim().equals("name"));
+    }
+
+    private static ParticipantDto csvRow(List<String> columns, List<String> fields) {
+        ParticipantDto row = new ParticipantDto();
+        for (int i = 0; i < Math.min(columns.size(), fields.size()); i++) {
+            String value = fields.get(i).trim();
+            if (value.isEmpty()) {
+                continue;
+            }
+            try {
+                switch (columns.get(i)) {
+                    case "name" -> row.setName(value);
+                    case "probabilityWeight" -> row.setProbabilityWeight(Double.parseDouble(value));
+                    case "timesSelected" -> row.setTimesSelected(Integer.parseInt(value));
+                    case "lastSelectedAt" -> row.setLastSelectedAt(LocalDateTime.parse(value));
+                    case "isActive" -> row.setIsActive(Boolean.parseBoolean(value));
+                    default -> {
+                        // Columnas de la exportación que no se importan (id, createdAt) u otras desconocidas
+                    }
+                }
+            } catch (NumberFormatException | DateTimeParseException e) {
+                throw new IllegalArgumentException("valor no válido en " + columns.get(i) + ": " + value);
+            }
+        }
+        return row;
+    }
+
+    /**
+     * Campos de una línea CSV: separados por comas, entre comillas dobles si contienen comas o comillas
+     * ({@code ""} dentro de un campo entrecomillado). Los campos no ocupan varias líneas
+     */
+    static List<String> parseCsvLine(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c != '\r') {
+                field.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("comillas sin cerrar");
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    private static void writeCsvRow(Writer writer, ParticipantDto participant) throws IOException {
+        writeCsvField(writer, participant.getName());
+        writer.write(',');
+        writer.write(String.valueOf(participant.getProbabilityWeight()));
+        writer.write(',');
+        writer.write(String.valueOf(participant.getTimesSelected()));
+        writer.write(',');
+        if (participant.getLastSelectedAt() != null) {
+            writer.write(participant.getLastSelectedAt().toString());
+        }
+        writer.write(',');
+        writer.write(String.valueOf(participant.getIsActive()));
+        writer.write(',');
+        writer.write(participant.getCreatedAt().toString());
+    }
+
+    private static void writeCsvField(Writer writer, String value) throws IOException {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+}
@@ -0,0 +1,135 @@
+package com.ruleta.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ruleta.dto.ParticipantDto;
+import com.ruleta.repository.WheelRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Participantes activos de cada ruleta ya serializados, indexados por una versión del estado.
+ * <p>
+ * Cada escritura que cambia los participantes de una ruleta incrementa su versión al confirmarse la
+ * transacción. Una lectura toma la versión antes de cargar los datos, así que lo que guarda es al menos
+ * tan reciente como esa versión; mientras no cambie, se sirven los mismos bytes (y su versión gzip)
+ * sin pasar por JPA ni por Jackson. La versión empieza en cero en cada arranque, por eso el ETag
+ * incluye también el instante de arranque.
+ * <p>
+ * En modo multinodo las escrituras de otros nodos no pasan por aquí: la versión es la de la fila de la
+ * ruleta, que sube con cada escritura en cualquier nodo, y el ETag es el mismo en todos ellos.
+ */
+@Component
+public class ParticipantsSnapshotCache {
+
+    public record Snapshot(long version, byte[] json, byte[] gzip) {
+
+        /**
+         * Cuerpo para el cliente: el comprimido solo si lo acepta y existe
+         */
+        public byte[] body(boolean acceptsGzip) {
+            return acceptsGzip && gzip != null ? gzip : json;
+        }
+    }
+
+    private final ObjectMapper objectMapper;
+    private final WheelRepository wheelRepository;
+    private final int gzipMinBytes;
+    private final boolean clustered;
+    private final String epoch;
+    private final Map<String, AtomicLong> versions = new ConcurrentHashMap<>();
+    private final Map<String, Snapshot> snapshots = new ConcurrentHashMap<>();
+
+    public ParticipantsSnapshotCache(ObjectMapper objectMapper,
+                                     WheelRepository wheelRepository,
+                                     @Value("${ruleta.participants-cache.gzip-min-bytes:1024}") int gzipMinBytes,
+                                     @Value("${ruleta.cluster.enabled:false}") boolean clustered) {
+        this.objectMapper = objectMapper;
+        this.wheelRepository = wheelRepository;
+        this.gzipMinBytes = gzipMinBytes;
+        this.clustered = clustered;
+        this.epoch = clustered ? "db" : Long.toString(System.currentTimeMillis(), 36);
+    }
+
+    public long version(String wheelName) {
+        if (clustered) {
+            // Una ruleta que aún no existe queda por debajo de cualquier versión real
+            return wheelRepository.findVersionByName(wheelName).orElse(-1L);
+        }
+        AtomicLong version = versions.get(wheelName);
+        return version != null ? version.get() : 0;
+    }
+
+    /**
+     * ETag fuerte de la representación de esa versión; la comprimida es otra representación y lleva otro
+     */
+    public String etag(long version, boolean gzip) {
+        return "\"" + epoch + "-" + version + (gzip ? "-gzip" : "") + "\"";
+    }
+
+    /**
+     * Devuelve la instantánea de {@code version}, cargándola con {@code loader} solo si no está en caché
+     */
+    public Snapshot get(String wheelName, long version, Supplier<List<ParticipantDto>> loader) {
+        Snapshot cached = snapshots.get(wheelName);
+        if (cached != null && cached.version() >= version) {
+            return cached;
+        }
+        Snapshot snapshot = build(version, loader.get());
+        // Con lecturas concurrentes se queda la más reciente
+        return snapshots.merge(wheelName, snapshot,
+                (current, candidate) -> candidate.version() > current.version() ? candidate : current);
+    }
+
+    /**
+     * Marca como cambiados los participantes de la ruleta. Dentro de una transacción la versión se
+     * incrementa tras el commit: antes, una lectura podría guardar el estado anterior con la versión nueva
+     */
+    public void invalidate(String wheelName) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    bump(wheelName);
+                }
+            });
+        } else {
+            bump(wheelName);
+        }
+    }
+
+    private void bump(String wheelName) {
+        versions.computeIfAbsent(wheelName, key -> new AtomicLong()).incrementAndGet();
+    }
+
+    private Snapshot build(long version, List<ParticipantDto> participants) {
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(participants);
+            return new Snapshot(version, json, json.length >= gzipMinBytes ? gzip(json) : null);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("No se pudieron serializar los participantes", e);
+        }
+    }
+
+    private static byte[] gzip(byte[] json) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(json.length / 4);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(json);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+}
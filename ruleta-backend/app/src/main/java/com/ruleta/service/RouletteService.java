@@ -1,304 +1,683 @@
 package com.ruleta.service;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ruleta.dto.DrawHistoryDto;
+import com.ruleta.dto.HistoryEntryDto;
+import com.ruleta.dto.HistoryPageResponse;
 import com.ruleta.dto.ParticipantDto;
+import com.ruleta.dto.ParticipantImportResponse;
+import com.ruleta.dto.RouletteBatchSpinResponse;
+import com.ruleta.dto.RouletteDrawResponse;
 import com.ruleta.dto.RouletteSpinResponse;
+import com.ruleta.entity.DrawHistory;
 import com.ruleta.entity.Participant;
 import com.ruleta.entity.SelectionHistory;
-import com.ruleta.repository.ParticipantRepository;
+import com.ruleta.entity.Wheel;
+import com.ruleta.repository.DrawHistoryRepository;
 import com.ruleta.repository.SelectionHistoryRepository;
+import com.ruleta.service.SpinMetrics.Operation;
+import com.ruleta.service.SpinMetrics.Phase;
+import com.ruleta.service.fairness.FairnessTracker;
+import com.ruleta.service.sampling.CumulativeSampler;
+import com.ruleta.service.sampling.SamplerCache;
+import com.ruleta.service.sampling.WeightedDraw;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class RouletteService {
     
-    private final ParticipantRepository participantRepository;
+    private final WheelStore wheelStore;
     private final SelectionHistoryRepository selectionHistoryRepository;
+    private final SamplerCache samplerCache;
+    private final WheelRegistry wheelRegistry;
+    private final WheelWeights wheelWeights;
+    private final SpinMetrics spinMetrics;
+    private final WheelEventBroadcaster wheelEvents;
+    private final ParticipantsSnapshotCache participantsCache;
+    private final FairnessTracker fairnessTracker;
+    private final DrawHistoryRepository drawHistoryRepository;
+    private final ObjectMapper objectMapper;
     private final Random random = new Random();
     
+    @Value("${ruleta.batch.max-spins:1000}")
+    private int maxBatchSpins;
+    
+    @Value("${ruleta.history.max-page-size:500}")
+    private int maxHistoryPageSize;
+    
     /**
-     * Realiza el spin de la ruleta con probabilidades ponderadas
+     * Realiza el spin de una ruleta con probabilidades ponderadas
      */
     @Transactional
-    public RouletteSpinResponse spinRoulette(List<String> participantNames) {
-        log.info("Iniciando spin con participantes: {}", participantNames);
+    public RouletteSpinResponse spinRoulette(String wheelName, List<String> participantNames) {
+        long phaseStart = System.nanoTime();
+        long statementsBefore = SqlStatementCounter.current();
+        log.info("Iniciando spin en '{}' con {} participantes", wheelName, participantNames.size());
         
-        // Obtener o crear participantes
-        List<Participant> participants = getOrCreateParticipants(participantNames);
+        // Obtener o crear ruleta y participantes
+        Wheel wheel = wheelStore.getOrCreateWheel(wheelName);
+        List<Participant> participants = getOrCreateParticipants(wheel, participantNames);
+        List<Participant> outsiders = wheelWeights.prepare(wheel, participants);
+        phaseStart = spinMetrics.phase(Operation.SPIN, Phase.RESOLVE, phaseStart);
         
-        // Calcular probabilidades ponderadas
-        Map<Participant, Double> probabilities = calculateWeightedProbabilities(participants);
+        // Calcular probabilidades ponderadas, por posición en la lista de participantes
+        double[] probabilities = calculateWeightedProbabilities(
+                participants, wheelWeights.weightsOf(wheel, participants));
+        phaseStart = spinMetrics.phase(Operation.SPIN, Phase.PROBABILITIES, phaseStart);
         
         // Seleccionar ganador usando probabilidades ponderadas
-        Participant winner = selectWinnerByProbability(probabilities);
+        int winner = selectWinnerByProbability(wheel, participants, probabilities);
+        phaseStart = spinMetrics.phase(Operation.SPIN, Phase.SELECT, phaseStart);
         
-        // Actualizar estadísticas del ganador
-        updateWinnerStats(winner);
+        // Actualizar estadísticas, historial y pesos en memoria
+        SelectionHistory history = applySelection(wheel, participants, outsiders, winner, probabilities);
+        phaseStart = spinMetrics.phase(Operation.SPIN, Phase.UPDATE, phaseStart);
         
-        // Registrar en historial
-        Double winnerProbability = probabilities.get(winner);
-        if (winnerProbability == null) {
-            winnerProbability = 1.0 / participants.size(); // Fallback probability
+        // Persistir: el almacén escribe solo lo modificado y la entrada de historial
+        wheelStore.commit(wheel, List.of(history));
+        samplerCache.invalidate(wheel.getId());
+        phaseStart = spinMetrics.phase(Operation.SPIN, Phase.HISTORY, phaseStart);
+        
+        // Construir respuesta
+        RouletteSpinResponse response = buildSpinResponse(winner, participants, probabilities);
+        spinMetrics.phase(Operation.SPIN, Phase.RESPONSE, phaseStart);
+        spinMetrics.statements(Operation.SPIN, SqlStatementCounter.current() - statementsBefore);
+        participantsCache.invalidate(wheelName);
+        wheelEvents.spinCompleted(wheelName, response);
+        return response;
+    }
+    
+    /**
+     * Realiza varios spins seguidos en memoria y persiste el estado final y el historial en lote
+     */
+    @Transactional
+    public RouletteBatchSpinResponse spinRouletteBatch(String wheelName, List<String> participantNames, int count) {
+        if (count < 1 || count > maxBatchSpins) {
+            throw new IllegalArgumentException("El número de spins debe estar entre 1 y " + maxBatchSpins);
         }
+        log.info("Iniciando {} spins en lote en '{}' con {} participantes", count, wheelName, participantNames.size());
         
-        SelectionHistory history = new SelectionHistory();
-        history.setParticipant(winner);
-        history.setTotalParticipants(participants.size());
-        history.setProbabilityAtSelection(winnerProbability);
-        history.setSelectedAt(LocalDateTime.now());
+        Wheel wheel = wheelStore.getOrCreateWheel(wheelName);
+        List<Participant> participants = getOrCreateParticipants(wheel, participantNames);
+        List<Participant> outsiders = wheelWeights.prepare(wheel, participants);
+        List<SelectionHistory> histories = new ArrayList<>(count);
+        List<RouletteBatchSpinResponse.SpinResult> results = new ArrayList<>(count);
+        double[] probabilities = new double[participants.size()];
         
-        selectionHistoryRepository.save(history);
+        for (int i = 0; i < count; i++) {
+            // Los pesos cambian tras cada spin: se extrae sin pasar por la caché, reutilizando el array
+            calculateWeightedProbabilities(participants, wheelWeights.weightsOf(wheel, participants, probabilities));
+            int winner = CumulativeSampler.draw(probabilities, random);
+            SelectionHistory history = applySelection(wheel, participants, outsiders, winner, probabilities);
+            
+            histories.add(history);
+            results.add(new RouletteBatchSpinResponse.SpinResult(
+                    participants.get(winner).getName(), history.getProbabilityAtSelection()));
+        }
         
-        // Recalcular pesos para futuros spins
-        recalculateWeights(participants, winner);
+        // Un único volcado: en JPA, UPDATE de los participantes modificados e INSERT del historial por lotes JDBC
+        wheelStore.commit(wheel, histories);
+        samplerCache.invalidate(wheel.getId());
         
-        // Construir respuesta
-        return buildSpinResponse(winner, participants, probabilities);
+        RouletteBatchSpinResponse response = new RouletteBatchSpinResponse(results, participants.size(), LocalDateTime.now());
+        participantsCache.invalidate(wheelName);
+        wheelEvents.batchCompleted(wheelName, response);
+        return response;
     }
     
     /**
-     * Obtiene todos los participantes activos
+     * Extrae {@code count} participantes activos distintos según sus pesos actuales, o todos en orden ponderado
+     * si {@code count} es null, y lo registra como una sola entrada del historial de extracciones.
+     * No es un spin: no cambia pesos ni estadísticas, así que lee el estado confirmado sin pasar por el
+     * hilo escritor de la ruleta.
+     *
+     * @param participantNames si no es null ni vacía, limita la extracción a esos participantes, que deben estar activos
      */
-    public List<ParticipantDto> getAllActiveParticipants() {
-        return participantRepository.findByIsActiveTrue()
-                .stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
+    @Transactional
+    public RouletteDrawResponse drawParticipants(String wheelName, List<String> participantNames, Integer count) {
+        long phaseStart = System.nanoTime();
+        long statementsBefore = SqlStatementCounter.current();
+        WheelStore.View view = wheelStore.view(wheelName)
+                .orElseThrow(() -> new IllegalArgumentException("Ruleta no encontrada: " + wheelName));
+        List<Participant> participants = view.active();
+        if (participantNames != null && !participantNames.isEmpty()) {
+            Set<String> names = new HashSet<>(participantNames);
+            participants = participants.stream()
+                    .filter(participant -> names.contains(participant.getName()))
+                    .collect(Collectors.toList());
+            if (participants.size() < names.size()) {
+                throw new IllegalArgumentException(
+                        (names.size() - participants.size()) + " participantes no existen o no están activos");
+            }
+        }
+        int drawCount = count != null ? count : participants.size();
+        if (drawCount < 1 || drawCount > participants.size()) {
+            throw new IllegalArgumentException("El número de extracciones debe estar entre 1 y " + participants.size());
+        }
+        log.info("Extrayendo {} de {} participantes en '{}'", drawCount, participants.size(), wheelName);
+        phaseStart = spinMetrics.phase(Operation.DRAW, Phase.RESOLVE, phaseStart);
+        
+        double[] weights = wheelWeights.weightsOf(view.wheel(), participants);
+        phaseStart = spinMetrics.phase(Operation.DRAW, Phase.PROBABILITIES, phaseStart);
+        
+        int[] drawn = WeightedDraw.draw(weights, drawCount, random);
+        phaseStart = spinMetrics.phase(Operation.DRAW, Phase.SELECT, phaseStart);
+        
+        // Probabilidad de cada extraído en su turno: su peso entre el de los que aún quedaban
+        double remaining = 0;
+        for (double weight : weights) {
+            remaining += weight;
+        }
+        List<RouletteDrawResponse.DrawResult> results = new ArrayList<>(drawCount);
+        List<String> winners = new ArrayList<>(drawCount);
+        for (int position : drawn) {
+            String name = participants.get(position).getName();
+            double weight = weights[position];
+            results.add(new RouletteDrawResponse.DrawResult(name, remaining > 0 ? Math.min(1.0, weight / remaining) : 0.0));
+            winners.add(name);
+            remaining -= weight;
+        }
+        
+        DrawHistory history = drawHistoryRepository.save(
+                new DrawHistory(view.wheel(), participants.size(), drawCount, writeWinners(winners)));
+        phaseStart = spinMetrics.phase(Operation.DRAW, Phase.HISTORY, phaseStart);
+        
+        RouletteDrawResponse response = new RouletteDrawResponse(
+                history.getId(), results, participants.size(), history.getDrawnAt());
+        spinMetrics.phase(Operation.DRAW, Phase.RESPONSE, phaseStart);
+        spinMetrics.statements(Operation.DRAW, SqlStatementCounter.current() - statementsBefore);
+        return response;
+    }
+    
+    /**
+     * Extracciones recientes de una ruleta, de más reciente a más antigua
+     */
+    @Transactional(readOnly = true)
+    public List<DrawHistoryDto> getRecentDraws(String wheelName, int days, int limit) {
+        if (limit < 1 || limit > maxHistoryPageSize) {
+            throw new IllegalArgumentException("El número de extracciones debe estar entre 1 y " + maxHistoryPageSize);
+        }
+        LocalDateTime since = LocalDateTime.now().minusDays(days);
+        return wheelRegistry.find(wheelName)
+                .map(wheel -> drawHistoryRepository.findRecent(wheel, since, Limit.of(limit)).stream()
+                        .map(draw -> new DrawHistoryDto(draw.getId(), draw.getDrawnAt(),
+                                draw.getTotalParticipants(), readWinners(draw.getWinners())))
+                        .collect(Collectors.toList()))
+                .orElse(List.of());
+    }
+    
+    /**
+     * Obtiene todos los participantes activos de una ruleta
+     */
+    @Transactional(readOnly = true)
+    public List<ParticipantDto> getAllActiveParticipants(String wheelName) {
+        return wheelStore.view(wheelName)
+                .map(view -> view.active().stream()
+                        .map(participant -> convertToDto(view.wheel(), participant))
+                        .collect(Collectors.toList()))
+                .orElse(List.of());
     }
     
     /**
      * Añade un nuevo participante o reactiva uno existente
      */
     @Transactional
-    public ParticipantDto addParticipant(String name) {
-        // Verificar si ya existe un participante activo
-        if (participantRepository.existsByNameAndIsActiveTrue(name)) {
+    public ParticipantDto addParticipant(String wheelName, String name) {
+        Wheel wheel = wheelStore.getOrCreateWheel(wheelName);
+        
+        // Buscar si existe un participante con ese nombre, activo o no
+        Optional<Participant> existingParticipant = wheelStore.findByName(wheel, name);
+        if (existingParticipant.isPresent() && existingParticipant.get().getIsActive()) {
             throw new IllegalArgumentException("El participante ya existe: " + name);
         }
         
-        // Buscar si existe un participante inactivo con ese nombre
-        Optional<Participant> existingParticipant = participantRepository.findByName(name);
-        
         if (existingParticipant.isPresent()) {
             // Reactivar participante existente
             Participant participant = existingParticipant.get();
             participant.setIsActive(true);
-            participant = participantRepository.save(participant);
-            log.info("Participante reactivado: {}", name);
-            return convertToDto(participant);
+            wheelWeights.resume(wheel, participant);
+            wheelStore.commit(wheel, List.of());
+            samplerCache.invalidate(wheel.getId());
+            log.info("Participante reactivado en '{}': {}", wheelName, name);
+            ParticipantDto dto = convertToDto(wheel, participant);
+            participantsCache.invalidate(wheelName);
+            wheelEvents.participantAdded(wheelName, dto);
+            return dto;
         } else {
             // Crear nuevo participante
-            Participant participant = new Participant(name);
-            participant = participantRepository.save(participant);
-            log.info("Nuevo participante añadido: {}", name);
-            return convertToDto(participant);
+            Participant participant = new Participant(wheel, name);
+            wheelWeights.set(wheel, participant, participant.getProbabilityWeight());
+            participant = wheelStore.insert(wheel, List.of(participant)).get(0);
+            wheelStore.commit(wheel, List.of());
+            samplerCache.invalidate(wheel.getId());
+            log.info("Nuevo participante añadido en '{}': {}", wheelName, name);
+            ParticipantDto dto = convertToDto(wheel, participant);
+            participantsCache.invalidate(wheelName);
+            wheelEvents.participantAdded(wheelName, dto);
+            return dto;
+        }
+    }
+    
+    /**
+     * Da de alta o actualiza un bloque de participantes con la semántica de {@link #addParticipant}: los
+     * desactivados se reactivan y los nuevos se insertan en lote. A diferencia del alta individual, un
+     * participante ya activo no es un error. El peso y las estadísticas solo se aplican si vienen en la fila.
+     *
+     * @param rows filas ya validadas, con nombres normalizados y sin repetir
+     */
+    @Transactional
+    public ParticipantImportResponse importParticipants(String wheelName, Collection<ParticipantDto> rows) {
+        Wheel wheel = wheelStore.getOrCreateWheel(wheelName);
+        Map<String, Participant> existing = new HashMap<>();
+        List<String> names = rows.stream().map(ParticipantDto::getName).collect(Collectors.toList());
+        for (Participant participant : wheelStore.findByNames(wheel, names)) {
+            existing.put(participant.getName(), participant);
+        }
+        
+        ParticipantImportResponse result = new ParticipantImportResponse();
+        List<Participant> created = new ArrayList<>();
+        for (ParticipantDto row : rows) {
+            if (Boolean.FALSE.equals(row.getIsActive())) {
+                result.setSkipped(result.getSkipped() + 1);
+                continue;
+            }
+            Participant participant = existing.get(row.getName());
+            if (participant == null) {
+                participant = new Participant(wheel, row.getName());
+                wheelWeights.set(wheel, participant, participant.getProbabilityWeight());
+                applyImported(wheel, participant, row);
+                created.add(participant);
+            } else if (!participant.getIsActive()) {
+                participant.setIsActive(true);
+                wheelWeights.resume(wheel, participant);
+                applyImported(wheel, participant, row);
+                result.setReactivated(result.getReactivated() + 1);
+            } else if (applyImported(wheel, participant, row)) {
+                result.setUpdated(result.getUpdated() + 1);
+            } else {
+                result.setUnchanged(result.getUnchanged() + 1);
+            }
+        }
+        
+        if (!created.isEmpty()) {
+            wheelStore.insert(wheel, created);
+            spinMetrics.participantsCreated(created.size());
         }
+        result.setCreated(created.size());
+        wheelStore.commit(wheel, List.of());
+        samplerCache.invalidate(wheel.getId());
+        log.info("Importados en '{}': {} nuevos, {} reactivados, {} actualizados",
+                wheelName, result.getCreated(), result.getReactivated(), result.getUpdated());
+        participantsCache.invalidate(wheelName);
+        wheelEvents.participantsImported(wheelName, result);
+        return result;
+    }
+    
+    /**
+     * Recorre todos los participantes de una ruleta, activos o no, sin materializarlos en memoria
+     */
+    @Transactional(readOnly = true)
+    public void streamParticipants(String wheelName, Consumer<ParticipantDto> consumer) {
+        wheelStore.forEachParticipant(wheelName,
+                (wheel, participant) -> consumer.accept(convertToDto(wheel, participant)));
     }
     
     /**
      * Elimina un participante (soft delete)
      */
     @Transactional
-    public void removeParticipant(String name) {
-        Participant participant = participantRepository.findByNameAndIsActiveTrue(name)
+    public void removeParticipant(String wheelName, String name) {
+        Wheel wheel = wheelStore.findWheel(wheelName)
+                .orElseThrow(() -> new IllegalArgumentException("Participante no encontrado: " + name));
+        Participant participant = wheelStore.findByName(wheel, name)
+                .filter(Participant::getIsActive)
                 .orElseThrow(() -> new IllegalArgumentException("Participante no encontrado: " + name));
         
+        wheelWeights.freeze(wheel, participant);
         participant.setIsActive(false);
-        participantRepository.save(participant);
-        log.info("Participante desactivado: {}", name);
+        wheelStore.commit(wheel, List.of());
+        samplerCache.invalidate(wheel.getId());
+        log.info("Participante desactivado en '{}': {}", wheelName, name);
+        participantsCache.invalidate(wheelName);
+        wheelEvents.participantRemoved(wheelName, name);
+    }
+    
+    /**
+     * Obtiene el historial de selecciones recientes de una ruleta
+     */
+    public List<HistoryEntryDto> getRecentHistory(String wheelName, int days) {
+        LocalDateTime since = LocalDateTime.now().minusDays(days);
+        return wheelRegistry.find(wheelName)
+                .map(wheel -> selectionHistoryRepository.findEntries(wheel, since, Limit.unlimited()))
+                .orElse(List.of());
+    }
+    
+    /**
+     * Obtiene una página del historial, de más reciente a más antigua, paginando por clave (selected_at, id).
+     * El coste de cada página no depende de cuántas se hayan leído antes.
+     *
+     * @param cursor cursor devuelto por la página anterior, o null para la primera
+     */
+    public HistoryPageResponse getHistoryPage(String wheelName, int days, String cursor, int limit) {
+        if (limit < 1 || limit > maxHistoryPageSize) {
+            throw new IllegalArgumentException("El tamaño de página debe estar entre 1 y " + maxHistoryPageSize);
+        }
+        Optional<Wheel> wheel = wheelRegistry.find(wheelName);
+        if (wheel.isEmpty()) {
+            return new HistoryPageResponse(List.of(), null);
+        }
+        
+        LocalDateTime since = LocalDateTime.now().minusDays(days);
+        // Se pide una fila de más para saber si existe una página siguiente
+        Limit fetch = Limit.of(limit + 1);
+        List<HistoryEntryDto> entries;
+        if (cursor == null || cursor.isBlank()) {
+            entries = selectionHistoryRepository.findEntries(wheel.get(), since, fetch);
+        } else {
+            HistoryCursor position = HistoryCursor.decode(cursor);
+            entries = selectionHistoryRepository.findEntriesBefore(
+                    wheel.get(), since, position.selectedAt(), position.id(), fetch);
+        }
+        
+        if (entries.size() <= limit) {
+            return new HistoryPageResponse(entries, null);
+        }
+        List<HistoryEntryDto> page = entries.subList(0, limit);
+        HistoryEntryDto last = page.get(limit - 1);
+        return new HistoryPageResponse(new ArrayList<>(page),
+                HistoryCursor.encode(last.getSelectedAt(), last.getId()));
     }
     
     /**
-     * Obtiene el historial de selecciones recientes
+     * Recorre el historial completo de una ruleta sin materializarlo en memoria.
+     * Las filas se leen con un cursor JDBC y se entregan una a una al consumidor.
      */
-    public List<SelectionHistory> getRecentHistory(int days) {
+    @Transactional(readOnly = true)
+    public void streamHistory(String wheelName, int days, Consumer<HistoryEntryDto> consumer) {
+        Optional<Wheel> wheel = wheelRegistry.find(wheelName);
+        if (wheel.isEmpty()) {
+            return;
+        }
         LocalDateTime since = LocalDateTime.now().minusDays(days);
-        return selectionHistoryRepository.findRecentSelections(since);
+        try (Stream<HistoryEntryDto> entries = selectionHistoryRepository.streamEntries(wheel.get(), since)) {
+            entries.forEach(consumer);
+        }
     }
     
     /**
      * Registra un ganador específico (cuando la ruleta frontend ya seleccionó)
      */
     @Transactional
-    public RouletteSpinResponse recordSpecificWinner(String winnerName, List<String> participantNames) {
-        log.info("Registrando ganador específico: {} de {}", winnerName, participantNames);
+    public RouletteSpinResponse recordSpecificWinner(String wheelName, String winnerName, List<String> participantNames) {
+        long phaseStart = System.nanoTime();
+        long statementsBefore = SqlStatementCounter.current();
+        log.info("Registrando ganador específico en '{}': {} de {}", wheelName, winnerName, participantNames);
+        
+        // Validar antes de modificar nada: no todos los almacenes deshacen los cambios de una operación fallida
+        if (!participantNames.contains(winnerName)) {
+            throw new IllegalArgumentException("Ganador no encontrado: " + winnerName);
+        }
         
-        // Obtener o crear participantes
-        List<Participant> participants = getOrCreateParticipants(participantNames);
+        // Obtener o crear ruleta y participantes
+        Wheel wheel = wheelStore.getOrCreateWheel(wheelName);
+        List<Participant> participants = getOrCreateParticipants(wheel, participantNames);
+        List<Participant> outsiders = wheelWeights.prepare(wheel, participants);
         
         // Buscar el ganador específico
-        Participant winner = participants.stream()
-                .filter(p -> p.getName().equals(winnerName))
-                .findFirst()
-                .orElseThrow(() -> new IllegalArgumentException("Ganador no encontrado: " + winnerName));
+        int winner = indexOf(participants, winnerName);
+        phaseStart = spinMetrics.phase(Operation.RECORD_WINNER, Phase.RESOLVE, phaseStart);
         
         // Calcular probabilidades ANTES de actualizar (para el historial)
-        Map<Participant, Double> probabilities = calculateWeightedProbabilities(participants);
+        double[] probabilities = calculateWeightedProbabilities(
+                participants, wheelWeights.weightsOf(wheel, participants));
+        phaseStart = spinMetrics.phase(Operation.RECORD_WINNER, Phase.PROBABILITIES, phaseStart);
         
-        // Actualizar estadísticas del ganador
-        updateWinnerStats(winner);
-        
-        // Registrar en historial
-        Double winnerProbability = probabilities.get(winner);
-        if (winnerProbability == null) {
-            winnerProbability = 1.0 / participants.size();
-        }
-        
-        SelectionHistory history = new SelectionHistory();
-        history.setParticipant(winner);
-        history.setTotalParticipants(participants.size());
-        history.setProbabilityAtSelection(winnerProbability);
-        history.setSelectedAt(LocalDateTime.now());
-        selectionHistoryRepository.save(history);
+        // Actualizar estadísticas, historial y pesos en memoria
+        SelectionHistory history = applySelection(wheel, participants, outsiders, winner, probabilities);
+        phaseStart = spinMetrics.phase(Operation.RECORD_WINNER, Phase.UPDATE, phaseStart);
         
-        // Recalcular pesos para futuros spins
-        recalculateWeights(participants, winner);
+        // Persistir
+        wheelStore.commit(wheel, List.of(history));
+        samplerCache.invalidate(wheel.getId());
+        phaseStart = spinMetrics.phase(Operation.RECORD_WINNER, Phase.HISTORY, phaseStart);
         
         // Construir respuesta
-        return buildSpinResponse(winner, participants, probabilities);
+        RouletteSpinResponse response = buildSpinResponse(winner, participants, probabilities);
+        spinMetrics.phase(Operation.RECORD_WINNER, Phase.RESPONSE, phaseStart);
+        spinMetrics.statements(Operation.RECORD_WINNER, SqlStatementCounter.current() - statementsBefore);
+        participantsCache.invalidate(wheelName);
+        wheelEvents.spinCompleted(wheelName, response);
+        return response;
     }
 
     /**
      * Resetea las estadísticas de todos los participantes
      */
     @Transactional
-    public void resetAllStats() {
-        List<Participant> participants = participantRepository.findByIsActiveTrue();
+    public void resetAllStats(String wheelName) {
+        Optional<Wheel> wheel = wheelStore.findWheel(wheelName);
+        if (wheel.isEmpty()) {
+            return;
+        }
+        List<Participant> participants = wheelStore.findActive(wheel.get());
         participants.forEach(p -> {
             p.setTimesSelected(0);
-            p.setProbabilityWeight(1.0);
+            wheelWeights.set(wheel.get(), p, 1.0);
             p.setLastSelectedAt(null);
         });
-        participantRepository.saveAll(participants);
-        log.info("Estadísticas reseteadas para {} participantes", participants.size());
+        wheelStore.commit(wheel.get(), List.of());
+        samplerCache.invalidate(wheel.get().getId());
+        fairnessTracker.reset(wheelName);
+        log.info("Estadísticas reseteadas en '{}' para {} participantes", wheelName, participants.size());
+        participantsCache.invalidate(wheelName);
+        wheelEvents.statsReset(wheelName);
     }
     
-    // Métodos privados de lógica interna
+    // Métodos privados de lógica interna (los de cálculo son de paquete para los benchmarks JMH)
     
-    private List<Participant> getOrCreateParticipants(List<String> names) {
-        List<Participant> participants = new ArrayList<>();
+    /**
+     * Resuelve los participantes con una búsqueda en el almacén para los existentes, reactivando los
+     * desactivados, y una inserción en lote para los nuevos.
+     * Los nombres repetidos se resuelven una sola vez y se conserva el orden de la petición.
+     */
+    private List<Participant> getOrCreateParticipants(Wheel wheel, List<String> names) {
+        Set<String> distinctNames = new LinkedHashSet<>(names);
+        Map<String, Participant> resolved = new HashMap<>();
         
-        for (String name : names) {
-            Optional<Participant> existing = participantRepository.findByNameAndIsActiveTrue(name);
-            if (existing.isPresent()) {
-                participants.add(existing.get());
-            } else {
-                Participant newParticipant = new Participant(name);
-                participants.add(participantRepository.save(newParticipant));
-                log.info("Nuevo participante creado automáticamente: {}", name);
+        for (Participant participant : wheelStore.findByNames(wheel, distinctNames)) {
+            if (!participant.getIsActive()) {
+                participant.setIsActive(true);
+                wheelWeights.resume(wheel, participant);
+                log.info("Participante reactivado automáticamente: {}", participant.getName());
             }
+            resolved.put(participant.getName(), participant);
         }
         
+        // Nombres desconocidos: inserción en lote
+        List<Participant> created = distinctNames.stream()
+                .filter(name -> !resolved.containsKey(name))
+                .map(name -> new Participant(wheel, name))
+                .collect(Collectors.toList());
+        created.forEach(participant -> wheelWeights.set(wheel, participant, participant.getProbabilityWeight()));
+        if (!created.isEmpty()) {
+            for (Participant participant : wheelStore.insert(wheel, created)) {
+                resolved.put(participant.getName(), participant);
+            }
+            samplerCache.invalidate(wheel.getId());
+            spinMetrics.participantsCreated(created.size());
+            log.info("Nuevos participantes creados automáticamente: {}", created.size());
+        }
+        
+        List<Participant> participants = new ArrayList<>(distinctNames.size());
+        for (String name : distinctNames) {
+            participants.add(resolved.get(name));
+        }
         return participants;
     }
     
-    private Map<Participant, Double> calculateWeightedProbabilities(List<Participant> participants) {
-        Map<Participant, Double> probabilities = new HashMap<>();
-        
+    /**
+     * Normaliza los pesos a probabilidades sobre el mismo array, sin reservar memoria.
+     * La posición i corresponde al participante i de la lista.
+     */
+    double[] calculateWeightedProbabilities(List<Participant> participants, double[] weights) {
         // Calcular peso total
-        double totalWeight = participants.stream()
-                .mapToDouble(Participant::getProbabilityWeight)
-                .sum();
+        double totalWeight = 0;
+        for (double weight : weights) {
+            totalWeight += weight;
+        }
         
         // Calcular probabilidad individual
-        for (Participant participant : participants) {
-            double probability = participant.getProbabilityWeight() / totalWeight;
-            probabilities.put(participant, probability);
+        for (int i = 0; i < weights.length; i++) {
+            weights[i] /= totalWeight;
         }
         
-        log.info("Probabilidades calculadas: {}", 
-                probabilities.entrySet().stream()
-                        .collect(Collectors.toMap(
-                                e -> e.getKey().getName(),
-                                e -> String.format("%.2f%%", e.getValue() * 100)
-                        )));
-        
-        return probabilities;
+        if (log.isDebugEnabled()) {
+            log.debug("Probabilidades calculadas: {}", describeProbabilities(participants, weights));
+        }
+        return weights;
     }
     
-    private Participant selectWinnerByProbability(Map<Participant, Double> probabilities) {
-        double randomValue = random.nextDouble();
-        double cumulativeProbability = 0.0;
-        
-        for (Map.Entry<Participant, Double> entry : probabilities.entrySet()) {
-            cumulativeProbability += entry.getValue();
-            if (randomValue <= cumulativeProbability) {
-                log.info("Ganador seleccionado: {} (random: {:.4f}, cumulative: {:.4f})", 
-                        entry.getKey().getName(), randomValue, cumulativeProbability);
-                return entry.getKey();
-            }
+    /**
+     * Devuelve la posición del ganador en la lista de participantes
+     */
+    int selectWinnerByProbability(Wheel wheel, List<Participant> participants, double[] probabilities) {
+        // El muestreador respeta el orden de la lista de participantes
+        int winner = samplerCache.sample(wheel.getId(), participants, probabilities, random);
+        if (log.isDebugEnabled()) {
+            log.debug("Ganador seleccionado: {} (posición {} de {})",
+                    participants.get(winner).getName(), winner, participants.size());
         }
+        return winner;
+    }
+    
+    /**
+     * Aplica una selección sobre el estado en memoria: estadísticas del ganador, entrada de historial
+     * y recálculo de pesos. No persiste nada; el llamador decide cuándo volcar.
+     */
+    private SelectionHistory applySelection(Wheel wheel,
+                                            List<Participant> participants,
+                                            List<Participant> outsiders,
+                                            int winnerIndex, 
+                                            double[] probabilities) {
+        // Actualizar estadísticas del ganador
+        Participant winner = participants.get(winnerIndex);
+        updateWinnerStats(winner);
+        wheelStore.markChanged(wheel, winner);
         
-        // Fallback (no debería llegar aquí)
-        List<Participant> participantList = new ArrayList<>(probabilities.keySet());
-        return participantList.get(participantList.size() - 1);
+        // Registrar en historial
+        SelectionHistory history = new SelectionHistory(winner, participants.size(), probabilities[winnerIndex]);
+        fairnessTracker.record(wheel.getName(), participants, winnerIndex, probabilities);
+        
+        // Recalcular pesos para futuros spins: reducir el del ganador y aumentar el de los demás
+        wheelWeights.recalculate(wheel, participants, outsiders, winner);
+        
+        return history;
+    }
+    
+    /**
+     * Aplica el peso y las estadísticas de una fila importada. Devuelve si cambió algo
+     */
+    private boolean applyImported(Wheel wheel, Participant participant, ParticipantDto row) {
+        boolean changed = false;
+        Double weight = row.getProbabilityWeight();
+        if (weight != null && weight != wheelWeights.weightOf(wheel, participant)) {
+            wheelWeights.set(wheel, participant, weight);
+            changed = true;
+        }
+        if (row.getTimesSelected() != null && !row.getTimesSelected().equals(participant.getTimesSelected())) {
+            participant.setTimesSelected(row.getTimesSelected());
+            changed = true;
+        }
+        if (row.getLastSelectedAt() != null && !row.getLastSelectedAt().equals(participant.getLastSelectedAt())) {
+            participant.setLastSelectedAt(row.getLastSelectedAt());
+            changed = true;
+        }
+        if (changed) {
+            wheelStore.markChanged(wheel, participant);
+        }
+        return changed;
+    }
+    
+    private String writeWinners(List<String> winners) {
+        try {
+            return objectMapper.writeValueAsString(winners);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("No se pudieron serializar los extraídos", e);
+        }
+    }
+    
+    private List<String> readWinners(String winners) {
+        try {
+            return Arrays.asList(objectMapper.readValue(winners, String[].class));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Extracción con la lista de extraídos corrupta", e);
+        }
     }
     
     private void updateWinnerStats(Participant winner) {
         winner.setTimesSelected(winner.getTimesSelected() + 1);
         winner.setLastSelectedAt(LocalDateTime.now());
-        participantRepository.save(winner);
     }
     
-    private void recalculateWeights(List<Participant> participants, Participant winner) {
-        // Estrategia: Reducir el peso del ganador y aumentar el de los demás
-        final double WINNER_REDUCTION_FACTOR = 0.5; // El ganador reduce su peso a la mitad
-        final double OTHERS_BOOST_FACTOR = 1.1; // Los demás aumentan su peso 10%
-        final double MIN_WEIGHT = 0.1; // Peso mínimo para evitar que alguien nunca salga
-        final double MAX_WEIGHT = 3.0; // Peso máximo para evitar dominancia extrema
-        
-        for (Participant participant : participants) {
-            if (participant.equals(winner)) {
-                // Reducir peso del ganador
-                double newWeight = Math.max(MIN_WEIGHT, 
-                        participant.getProbabilityWeight() * WINNER_REDUCTION_FACTOR);
-                participant.setProbabilityWeight(newWeight);
-                log.info("Peso reducido para {}: {:.2f}", participant.getName(), newWeight);
-            } else {
-                // Aumentar peso de los demás
-                double newWeight = Math.min(MAX_WEIGHT, 
-                        participant.getProbabilityWeight() * OTHERS_BOOST_FACTOR);
-                participant.setProbabilityWeight(newWeight);
-            }
+    RouletteSpinResponse buildSpinResponse(int winner, 
+                                           List<Participant> participants, 
+                                           double[] probabilities) {
+        List<RouletteSpinResponse.ParticipantWithProbability> participantData = new ArrayList<>(participants.size());
+        for (int i = 0; i < participants.size(); i++) {
+            Participant participant = participants.get(i);
+            participantData.add(new RouletteSpinResponse.ParticipantWithProbability(
+                    participant.getName(),
+                    probabilities[i],
+                    participant.getTimesSelected()
+            ));
         }
         
-        participantRepository.saveAll(participants);
-    }
-    
-    private RouletteSpinResponse buildSpinResponse(Participant winner, 
-                                                   List<Participant> participants, 
-                                                   Map<Participant, Double> probabilities) {
-        List<RouletteSpinResponse.ParticipantWithProbability> participantData = 
-                participants.stream()
-                        .map(p -> new RouletteSpinResponse.ParticipantWithProbability(
-                                p.getName(),
-                                probabilities.get(p),
-                                p.getTimesSelected()
-                        ))
-                        .collect(Collectors.toList());
-        
         return new RouletteSpinResponse(
-                winner.getName(),
+                participants.get(winner).getName(),
                 participantData,
-                probabilities.get(winner),
+                probabilities[winner],
                 LocalDateTime.now()
         );
     }
     
-    private ParticipantDto convertToDto(Participant participant) {
+    private static int indexOf(List<Participant> participants, String name) {
+        for (int i = 0; i < participants.size(); i++) {
+            if (participants.get(i).getName().equals(name)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+    
+    // Solo para el log de depuración
+    private static String describeProbabilities(List<Participant> participants, double[] probabilities) {
+        StringJoiner joiner = new StringJoiner(", ", "{", "}");
+        for (int i = 0; i < probabilities.length; i++) {
+            joiner.add(participants.get(i).getName() + "=" + String.format("%.2f%%", probabilities[i] * 100));
+        }
+        return joiner.toString();
+    }
+    
+    private ParticipantDto convertToDto(Wheel wheel, Participant participant) {
         return new ParticipantDto(
                 participant.getId(),
                 participant.getName(),
                 participant.getTimesSelected(),
-                participant.getProbabilityWeight(),
+                wheelWeights.weightOf(wheel, participant),
                 participant.getCreatedAt(),
                 participant.getLastSelectedAt(),
                 participant.getIsActive()
@@ -0,0 +1,132 @@
+package com.ruleta.service;
+
+import com.ruleta.repository.SelectionHistoryRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Retención del historial de selecciones: los registros anteriores a {@code horizon} pasan a
+ * {@code selection_history_archive}, así la tabla consultada por los endpoints de historial no crece sin fin.
+ * <p>
+ * Un hilo en segundo plano archiva cada {@code interval}, del registro más antiguo al más reciente, en trozos
+ * de {@code chunk-size}: cada trozo copia y borra sus filas en una transacción corta y se hace una pausa
+ * antes del siguiente, para no retener bloqueos frente a los escritores de spins. Los acumulados de
+ * estadísticas no se tocan, y el total de victorias sigue en cada participante.
+ * <p>
+ * Desactivada por defecto: los endpoints de historial y la exportación solo leen {@code selection_history},
+ * así que con ella activada dejan de ver lo archivado.
+ */
+@Component
+@Slf4j
+public class SelectionHistoryRetention {
+
+    private final SelectionHistoryRepository selectionHistoryRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Counter archived;
+    private final boolean enabled;
+    private final Duration horizon;
+    private final Duration interval;
+    private final Duration initialDelay;
+    private final int chunkSize;
+    private final Duration chunkPause;
+    private final Thread thread;
+    private volatile boolean running = true;
+
+    public SelectionHistoryRetention(SelectionHistoryRepository selectionHistoryRepository,
+                                     PlatformTransactionManager transactionManager,
+                                     MeterRegistry meterRegistry,
+                                     @Value("${ruleta.history.retention.enabled:false}") boolean enabled,
+                                     @Value("${ruleta.history.retention.horizon:90d}") Duration horizon,
+                                     @Value("${ruleta.history.retention.interval:1h}") Duration interval,
+                                     @Value("${ruleta.history.retention.initial-delay:1m}") Duration initialDelay,
+                                     @Value("${ruleta.history.retention.chunk-size:1000}") int chunkSize,
+                                     @Value("${ruleta.history.retention.chunk-pause:50ms}") Duration chunkPause) {
+        this.selectionHistoryRepository = selectionHistoryRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.horizon = horizon;
+        this.interval = interval;
+        this.initialDelay = initialDelay;
+        this.chunkSize = Math.max(1, chunkSize);
+        this.chunkPause = chunkPause;
+        this.thread = new Thread(this::run, "history-retention");
+        this.thread.setDaemon(true);
+
+        this.archived = Counter.builder("ruleta.history.archived")
+                .description("Registros de historial movidos a selection_history_archive")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    void start() {
+        if (enabled) {
+            thread.start();
+            log.info("Retención del historial: se archivan los registros de más de {}", horizon);
+        }
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        running = false;
+        thread.interrupt();
+        thread.join(TimeUnit.SECONDS.toMillis(10));
+    }
+
+    /**
+     * Archiva todos los registros seleccionados antes de {@code before}
+     *
+     * @return registros archivados
+     */
+    public long archiveOlderThan(LocalDateTime before) throws InterruptedException {
+        long total = 0;
+        int moved;
+        do {
+            moved = transactionTemplate.execute(status -> {
+                List<Long> ids = selectionHistoryRepository.findIdsSelectedBefore(before, Limit.of(chunkSize));
+                if (ids.isEmpty()) {
+                    return 0;
+                }
+                selectionHistoryRepository.copyToArchive(ids);
+                return selectionHistoryRepository.deleteEntries(ids);
+            });
+            total += moved;
+            archived.increment(moved);
+            if (moved == chunkSize && !chunkPause.isZero()) {
+                Thread.sleep(chunkPause.toMillis());
+            }
+        } while (moved == chunkSize && running);
+        return total;
+    }
+
+    private void run() {
+        try {
+            Thread.sleep(initialDelay.toMillis());
+            while (running) {
+                try {
+                    long moved = archiveOlderThan(LocalDateTime.now().minus(horizon));
+                    if (moved > 0) {
+                        log.info("Historial archivado: {} registros de más de {}", moved, horizon);
+                    }
+                } catch (RuntimeException e) {
+                    log.error("Error archivando el historial", e);
+                }
+                Thread.sleep(interval.toMillis());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
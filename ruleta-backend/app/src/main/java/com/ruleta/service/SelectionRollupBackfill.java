@@ -0,0 +1,70 @@
+package com.ruleta.service;
+
+import com.ruleta.entity.SelectionHistory;
+import com.ruleta.repository.SelectionHistoryRepository;
+import com.ruleta.repository.SelectionRollupRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/**
+ * Genera los acumulados del historial existente cuando la tabla de acumulados está vacía.
+ * Recorre el historial por id en lotes, cada uno en su propia transacción.
+ * Se ejecuta después de {@link DefaultWheelInitializer}, que asigna ruleta a los datos antiguos.
+ */
+@Component
+@Order(2)
+@Slf4j
+public class SelectionRollupBackfill implements ApplicationRunner {
+
+    private final SelectionHistoryRepository selectionHistoryRepository;
+    private final SelectionRollupRepository selectionRollupRepository;
+    private final SelectionRollupUpdater selectionRollupUpdater;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+
+    public SelectionRollupBackfill(SelectionHistoryRepository selectionHistoryRepository,
+                                   SelectionRollupRepository selectionRollupRepository,
+                                   SelectionRollupUpdater selectionRollupUpdater,
+                                   PlatformTransactionManager transactionManager,
+                                   @Value("${ruleta.rollups.backfill-chunk-size:1000}") int chunkSize) {
+        this.selectionHistoryRepository = selectionHistoryRepository;
+        this.selectionRollupRepository = selectionRollupRepository;
+        this.selectionRollupUpdater = selectionRollupUpdater;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = Math.max(1, chunkSize);
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (selectionRollupRepository.count() > 0 || selectionHistoryRepository.count() == 0) {
+            return;
+        }
+
+        long processed = 0;
+        Long lastId = 0L;
+        List<SelectionHistory> chunk;
+        do {
+            Long after = lastId;
+            chunk = transactionTemplate.execute(status -> {
+                List<SelectionHistory> entries = selectionHistoryRepository.findByIdGreaterThanOrderByIdAsc(
+                        after, Limit.of(chunkSize));
+                selectionRollupUpdater.apply(entries);
+                return entries;
+            });
+            if (!chunk.isEmpty()) {
+                lastId = chunk.get(chunk.size() - 1).getId();
+                processed += chunk.size();
+            }
+        } while (chunk.size() == chunkSize);
+        log.info("Acumulados generados a partir de {} registros de historial", processed);
+    }
+}
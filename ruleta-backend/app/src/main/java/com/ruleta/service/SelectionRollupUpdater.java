@@ -0,0 +1,94 @@
+package com.ruleta.service;
+
+import com.ruleta.entity.Participant;
+import com.ruleta.entity.RollupGranularity;
+import com.ruleta.entity.SelectionHistory;
+import com.ruleta.entity.SelectionRollup;
+import com.ruleta.repository.SelectionRollupRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Mantiene los acumulados por hora y por día a partir de las entradas de historial que se escriben.
+ * Las entradas se agrupan por intervalo antes de tocar la base de datos: un lote cuesta una consulta
+ * y un UPDATE (o INSERT) por intervalo afectado, no uno por entrada.
+ */
+@Component
+@RequiredArgsConstructor
+public class SelectionRollupUpdater {
+
+    private final SelectionRollupRepository selectionRollupRepository;
+
+    /**
+     * Suma las entradas a sus acumulados. Debe llamarse en la misma transacción que las escribe.
+     */
+    public void apply(List<SelectionHistory> entries) {
+        if (entries.isEmpty()) {
+            return;
+        }
+
+        Map<BucketKey, Delta> deltas = new HashMap<>();
+        for (SelectionHistory entry : entries) {
+            Participant participant = entry.getParticipant();
+            for (RollupGranularity granularity : RollupGranularity.values()) {
+                BucketKey key = new BucketKey(participant.getId(), granularity,
+                        granularity.bucketStart(entry.getSelectedAt()));
+                deltas.computeIfAbsent(key, k -> new Delta(entry)).add(entry);
+            }
+        }
+
+        Set<Long> participantIds = new HashSet<>();
+        Set<LocalDateTime> bucketStarts = new HashSet<>();
+        deltas.keySet().forEach(key -> {
+            participantIds.add(key.participantId());
+            bucketStarts.add(key.bucketStart());
+        });
+
+        Map<BucketKey, SelectionRollup> existing = new HashMap<>();
+        for (SelectionRollup rollup : selectionRollupRepository.findBuckets(participantIds, bucketStarts)) {
+            existing.put(new BucketKey(rollup.getParticipant().getId(), rollup.getGranularity(), rollup.getBucketStart()), rollup);
+        }
+
+        // Los existentes son entidades gestionadas: basta con modificarlas y el flush emite los UPDATE
+        List<SelectionRollup> created = new ArrayList<>();
+        deltas.forEach((key, delta) -> {
+            SelectionRollup rollup = existing.get(key);
+            if (rollup == null) {
+                rollup = new SelectionRollup(delta.source.getWheel(), delta.source.getParticipant(),
+                        key.granularity(), key.bucketStart());
+                created.add(rollup);
+            }
+            rollup.add(delta.wins, delta.probabilitySum, delta.participantsSum);
+        });
+        selectionRollupRepository.saveAll(created);
+    }
+
+    private record BucketKey(Long participantId, RollupGranularity granularity, LocalDateTime bucketStart) {
+    }
+
+    private static final class Delta {
+
+        private final SelectionHistory source;
+        private long wins;
+        private double probabilitySum;
+        private long participantsSum;
+
+        private Delta(SelectionHistory source) {
+            this.source = source;
+        }
+
+        private void add(SelectionHistory entry) {
+            wins++;
+            probabilitySum += entry.getProbabilityAtSelection();
+            participantsSum += entry.getTotalParticipants();
+        }
+    }
+}
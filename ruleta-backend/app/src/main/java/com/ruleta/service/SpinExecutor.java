@@ -0,0 +1,318 @@
+package com.ruleta.service;
+
+import com.ruleta.service.admission.AdmissionController;
+import com.ruleta.service.admission.AdmissionRejectedException;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Ejecutor de escritura único por ruleta.
+ * <p>
+ * Cada ruleta se asigna por hash a un shard con una cola acotada y un solo hilo propietario,
+ * que es el único que modifica sus pesos: no hay lecturas concurrentes que se pisen al hacer commit.
+ * El propietario vacía la cola en grupos y los confirma en una sola transacción (group commit);
+ * dentro del grupo las operaciones comparten el contexto de persistencia, así que cada spin parte
+ * de los pesos en memoria que dejó el anterior. Si el grupo falla, se reintenta operación a operación
+ * para que un error no arrastre a las demás.
+ * <p>
+ * Si el almacén no deshace lo aplicado al fallar la transacción ({@link WheelStore#supportsRollback()}),
+ * repetir una operación la aplicaría dos veces: cada una va entonces en su propia transacción.
+ * <p>
+ * Antes de encolar, cada operación pasa por {@link AdmissionController}, que acota las escrituras en
+ * cola o en ejecución y rechaza el exceso en lugar de dejar crecer la cola.
+ * <p>
+ * En modo multinodo el hilo propietario solo lo es dentro de este proceso: una operación que choca con
+ * la escritura de otro nodo sobre la misma ruleta (versión de la ruleta, o alta simultánea del mismo nombre)
+ * se repite sola hasta {@code conflict-retries} veces, tras una espera aleatoria corta.
+ */
+@Component
+@Slf4j
+public class SpinExecutor {
+
+    private final TransactionTemplate transactionTemplate;
+    private final SpinMetrics spinMetrics;
+    private final AdmissionController admissionController;
+    private final boolean groupCommit;
+    private final Shard[] shards;
+    private final int maxBatch;
+    private final int conflictRetries;
+    private final Duration retryBackoff;
+    private volatile boolean running = true;
+
+    public SpinExecutor(PlatformTransactionManager transactionManager,
+                        SpinMetrics spinMetrics,
+                        AdmissionController admissionController,
+                        WheelStore wheelStore,
+                        @Value("${ruleta.executor.shards:0}") int shardCount,
+                        @Value("${ruleta.executor.queue-capacity:1024}") int queueCapacity,
+                        @Value("${ruleta.executor.max-batch:64}") int maxBatch,
+                        @Value("${ruleta.cluster.enabled:false}") boolean clustered,
+                        @Value("${ruleta.cluster.conflict-retries:5}") int conflictRetries,
+                        @Value("${ruleta.cluster.retry-backoff:2ms}") Duration retryBackoff) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.spinMetrics = spinMetrics;
+        this.admissionController = admissionController;
+        this.groupCommit = wheelStore.supportsRollback();
+        this.maxBatch = Math.max(1, maxBatch);
+        if (clustered && !groupCommit) {
+            throw new IllegalStateException("El modo multinodo necesita un almacén con rollback (ruleta.storage.engine: jpa)");
+        }
+        // En un solo nodo el propietario es el único escritor: no hay conflictos que repetir
+        this.conflictRetries = clustered ? Math.max(0, conflictRetries) : 0;
+        this.retryBackoff = retryBackoff;
+
+        int count = shardCount > 0 ? shardCount : Runtime.getRuntime().availableProcessors();
+        this.shards = new Shard[count];
+        for (int i = 0; i < count; i++) {
+            shards[i] = new Shard(i, queueCapacity);
+        }
+    }
+
+    @PostConstruct
+    void start() {
+        for (Shard shard : shards) {
+            shard.thread.start();
+        }
+        log.info("Ejecutor de spins iniciado con {} shards (lote máximo {})", shards.length, maxBatch);
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        running = false;
+        for (Shard shard : shards) {
+            shard.thread.join(TimeUnit.SECONDS.toMillis(10));
+            // Lo que llegó tras la última vuelta del propietario no se ejecutará
+            List<Task<?>> leftover = new ArrayList<>();
+            shard.queue.drainTo(leftover);
+            leftover.forEach(task -> task.fail(new RejectedExecutionException("El ejecutor de spins se ha detenido")));
+        }
+    }
+
+    /**
+     * Ejecuta una operación de escritura en el hilo propietario de la ruleta y espera su resultado.
+     *
+     * @throws AdmissionRejectedException si se alcanzó el límite de escrituras concurrentes
+     * @throws RejectedExecutionException  si la cola del shard está llena
+     */
+    public <T> T execute(String wheelName, Supplier<T> operation) {
+        Shard shard = shardFor(wheelName);
+        if (Thread.currentThread() == shard.thread) {
+            // Llamada reentrante desde el propio propietario: ya estamos dentro del grupo
+            return operation.get();
+        }
+        if (!running) {
+            throw new RejectedExecutionException("El ejecutor de spins se está deteniendo");
+        }
+
+        long admittedAt = admissionController.admit();
+        boolean queued = false;
+        try {
+            Task<T> task = new Task<>(operation);
+            if (!shard.queue.offer(task)) {
+                throw new RejectedExecutionException("Cola de escritura llena para la ruleta: " + wheelName);
+            }
+            queued = true;
+            return task.await();
+        } finally {
+            // La latencia de cola más commit es la señal con que se ajusta el límite
+            admissionController.release(admittedAt, queued);
+        }
+    }
+
+    public void execute(String wheelName, Runnable operation) {
+        execute(wheelName, () -> {
+            operation.run();
+            return null;
+        });
+    }
+
+    /**
+     * Operaciones pendientes en todas las colas
+     */
+    public int queuedOperations() {
+        int total = 0;
+        for (Shard shard : shards) {
+            total += shard.queue.size();
+        }
+        return total;
+    }
+
+    private Shard shardFor(String wheelName) {
+        int hash = wheelName.hashCode();
+        hash ^= (hash >>> 16);
+        return shards[Math.floorMod(hash, shards.length)];
+    }
+
+    private final class Shard implements Runnable {
+
+        private final BlockingQueue<Task<?>> queue;
+        private final Thread thread;
+
+        private Shard(int index, int queueCapacity) {
+            this.queue = new ArrayBlockingQueue<>(queueCapacity);
+            this.thread = new Thread(this, "spin-writer-" + index);
+            this.thread.setDaemon(true);
+        }
+
+        @Override
+        public void run() {
+            List<Task<?>> group = new ArrayList<>(maxBatch);
+            while (running || !queue.isEmpty()) {
+                try {
+                    Task<?> first = queue.poll(100, TimeUnit.MILLISECONDS);
+                    if (first == null) {
+                        continue;
+                    }
+                    group.add(first);
+                    queue.drainTo(group, maxBatch - 1);
+                    runGroup(group);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                } catch (Throwable t) {
+                    // Nunca dejar morir al propietario: fallar solo las tareas afectadas
+                    group.forEach(task -> task.fail(t));
+                    log.error("Error inesperado en el ejecutor de spins", t);
+                } finally {
+                    group.clear();
+                }
+            }
+        }
+
+        private void runGroup(List<Task<?>> group) {
+            if (group.size() > 1 && groupCommit) {
+                try {
+                    callInTransaction(group);
+                    group.forEach(Task::complete);
+                    return;
+                } catch (RuntimeException e) {
+                    log.warn("Commit agrupado de {} operaciones fallido, reintentando una a una: {}",
+                            group.size(), e.getMessage());
+                }
+            }
+
+            for (Task<?> task : group) {
+                runAlone(task);
+            }
+        }
+
+        private void runAlone(Task<?> task) {
+            for (int attempt = 0; ; attempt++) {
+                try {
+                    callInTransaction(List.of(task));
+                    task.complete();
+                    return;
+                } catch (Throwable t) {
+                    if (attempt >= conflictRetries || !isConflict(t)) {
+                        task.fail(t);
+                        return;
+                    }
+                    spinMetrics.conflict();
+                    if (!backOff(attempt)) {
+                        task.fail(t);
+                        return;
+                    }
+                }
+            }
+        }
+
+        /**
+         * Ejecuta las tareas en una transacción y mide aparte el flush y commit del final,
+         * donde salen los UPDATE de pesos y los INSERT de historial pendientes
+         */
+        private void callInTransaction(List<Task<?>> tasks) {
+            long[] commitStart = new long[2];
+            transactionTemplate.executeWithoutResult(status -> {
+                tasks.forEach(Task::call);
+                commitStart[0] = System.nanoTime();
+                commitStart[1] = SqlStatementCounter.current();
+            });
+            spinMetrics.commit(tasks.size(), System.nanoTime() - commitStart[0],
+                    SqlStatementCounter.current() - commitStart[1]);
+        }
+    }
+
+    private static boolean isConflict(Throwable error) {
+        return error instanceof ConcurrencyFailureException || error instanceof DataIntegrityViolationException;
+    }
+
+    /**
+     * Espera aleatoria que crece con cada intento, para que dos nodos en conflicto no vuelvan a coincidir
+     *
+     * @return false si se interrumpió al hilo
+     */
+    private boolean backOff(int attempt) {
+        long maxNanos = retryBackoff.toNanos() << Math.min(attempt, 10);
+        if (maxNanos <= 0) {
+            return true;
+        }
+        try {
+            TimeUnit.NANOSECONDS.sleep(ThreadLocalRandom.current().nextLong(maxNanos + 1));
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private static final class Task<T> {
+
+        private final Supplier<T> operation;
+        private final CompletableFuture<T> future = new CompletableFuture<>();
+        private T result;
+
+        private Task(Supplier<T> operation) {
+            this.operation = operation;
+        }
+
+        private void call() {
+            result = operation.get();
+        }
+
+        // El resultado solo se publica tras el commit del grupo
+        private void complete() {
+            future.complete(result);
+        }
+
+        private void fail(Throwable error) {
+            future.completeExceptionally(error);
+        }
+
+        private T await() {
+            try {
+                return future.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrumpido esperando el resultado del spin", e);
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof RuntimeException runtimeException) {
+                    throw runtimeException;
+                }
+                if (cause instanceof Error error) {
+                    throw error;
+                }
+                throw new IllegalStateException(cause);
+            }
+        }
+    }
+}
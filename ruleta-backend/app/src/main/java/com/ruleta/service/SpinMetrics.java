@@ -0,0 +1,126 @@
+package com.ruleta.service;
+
+import com.ruleta.repository.ParticipantRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Métricas del camino de escritura de las ruletas.
+ * <p>
+ * Los medidores se registran una vez al arrancar y se guardan en arrays indexados por operación y fase,
+ * así que medir una fase es un {@code System.nanoTime()} y un {@code record} sin búsquedas en el registro.
+ * Por defecto cada temporizador publica solo count/sum/max; los histogramas para percentiles se activan
+ * con {@code management.metrics.distribution.percentiles-histogram.ruleta.spin}.
+ */
+@Component
+public class SpinMetrics {
+
+    public enum Operation {
+        SPIN, RECORD_WINNER, DRAW
+    }
+
+    public enum Phase {
+        /** Ruleta y participantes: consultas, reactivaciones y altas */
+        RESOLVE,
+        /** Pesos efectivos y probabilidades */
+        PROBABILITIES,
+        /** Muestreador y extracción del ganador */
+        SELECT,
+        /** Estadísticas del ganador y recálculo de pesos en memoria */
+        UPDATE,
+        /** Entrega del registro de historial al {@link HistoryRecorder} */
+        HISTORY,
+        /** Construcción de la respuesta */
+        RESPONSE
+    }
+
+    private final Timer[][] phaseTimers;
+    private final DistributionSummary[] operationStatements;
+    private final Counter participantsCreated;
+    private final Timer commitTimer;
+    private final DistributionSummary commitStatements;
+    private final DistributionSummary commitOperations;
+    private final Counter conflicts;
+
+    public SpinMetrics(MeterRegistry registry, ParticipantRepository participantRepository) {
+        Operation[] operations = Operation.values();
+        Phase[] phases = Phase.values();
+        this.phaseTimers = new Timer[operations.length][phases.length];
+        this.operationStatements = new DistributionSummary[operations.length];
+        for (Operation operation : operations) {
+            for (Phase phase : phases) {
+                phaseTimers[operation.ordinal()][phase.ordinal()] = Timer.builder("ruleta.spin.phase")
+                        .description("Duración de cada fase de una operación de ruleta")
+                        .tag("operation", tagValue(operation))
+                        .tag("phase", tagValue(phase))
+                        .register(registry);
+            }
+            operationStatements[operation.ordinal()] = DistributionSummary.builder("ruleta.spin.sql.statements")
+                    .description("Sentencias SQL preparadas durante la operación, sin contar el commit")
+                    .baseUnit("statements")
+                    .tag("operation", tagValue(operation))
+                    .register(registry);
+        }
+
+        this.participantsCreated = Counter.builder("ruleta.participants.created")
+                .description("Participantes dados de alta automáticamente al girar")
+                .register(registry);
+        this.commitTimer = Timer.builder("ruleta.spin.commit")
+                .description("Flush y commit de un grupo de operaciones: UPDATE de pesos e INSERT de historial")
+                .register(registry);
+        this.commitStatements = DistributionSummary.builder("ruleta.spin.commit.sql.statements")
+                .description("Sentencias SQL preparadas en el flush y commit de un grupo")
+                .baseUnit("statements")
+                .register(registry);
+        this.commitOperations = DistributionSummary.builder("ruleta.spin.commit.operations")
+                .description("Operaciones confirmadas en un mismo commit")
+                .register(registry);
+        this.conflicts = Counter.builder("ruleta.spin.conflicts")
+                .description("Operaciones repetidas por chocar con la escritura de otro nodo (modo multinodo)")
+                .register(registry);
+
+        // Se consulta en cada lectura de métricas, no en cada spin
+        Gauge.builder("ruleta.participants.active", participantRepository, ParticipantRepository::countActiveParticipants)
+                .description("Participantes activos en todas las ruletas")
+                .register(registry);
+    }
+
+    /**
+     * Registra la fase que empezó en {@code startNanos} y devuelve el instante actual,
+     * que sirve de inicio para la siguiente
+     */
+    public long phase(Operation operation, Phase phase, long startNanos) {
+        long now = System.nanoTime();
+        phaseTimers[operation.ordinal()][phase.ordinal()].record(now - startNanos, TimeUnit.NANOSECONDS);
+        return now;
+    }
+
+    public void statements(Operation operation, long statements) {
+        operationStatements[operation.ordinal()].record(statements);
+    }
+
+    public void participantsCreated(int count) {
+        participantsCreated.increment(count);
+    }
+
+    public void commit(int operations, long nanos, long statements) {
+        commitTimer.record(nanos, TimeUnit.NANOSECONDS);
+        commitStatements.record(statements);
+        commitOperations.record(operations);
+    }
+
+    public void conflict() {
+        conflicts.increment();
+    }
+
+    private static String tagValue(Enum<?> value) {
+        return value.name().toLowerCase(Locale.ROOT).replace('_', '-');
+    }
+}
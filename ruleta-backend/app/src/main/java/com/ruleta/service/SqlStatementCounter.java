@@ -0,0 +1,29 @@
+package com.ruleta.service;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Cuenta las sentencias SQL que Hibernate prepara en cada hilo.
+ * <p>
+ * Es el mismo dato que {@code prepareStatementCount} de las estadísticas de Hibernate (un lote JDBC
+ * cuenta una vez), pero por hilo: las estadísticas globales mezclan las sentencias de todos los
+ * escritores y exigen {@code generate_statistics}, que añade contención en cada operación.
+ * Se registra con {@code hibernate.session_factory.statement_inspector}.
+ */
+public class SqlStatementCounter implements StatementInspector {
+
+    private static final ThreadLocal<long[]> COUNT = ThreadLocal.withInitial(() -> new long[1]);
+
+    @Override
+    public String inspect(String sql) {
+        COUNT.get()[0]++;
+        return sql;
+    }
+
+    /**
+     * Sentencias preparadas hasta ahora en el hilo actual; se usa por diferencia
+     */
+    public static long current() {
+        return COUNT.get()[0];
+    }
+}
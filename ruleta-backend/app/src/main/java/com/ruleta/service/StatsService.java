@@ -0,0 +1,64 @@
+package com.ruleta.service;
+
+import com.ruleta.dto.ParticipantStatsDto;
+import com.ruleta.dto.StatsBucketDto;
+import com.ruleta.entity.RollupGranularity;
+import com.ruleta.repository.SelectionRollupRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Estadísticas de selección leídas únicamente de los acumulados por intervalo.
+ * El coste depende del número de intervalos de la ventana, no del tamaño del historial.
+ */
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class StatsService {
+
+    private final SelectionRollupRepository selectionRollupRepository;
+    private final WheelRegistry wheelRegistry;
+
+    /**
+     * Victorias y probabilidad media al ganar de cada participante en los últimos días
+     */
+    public List<ParticipantStatsDto> getParticipantStats(String wheelName, int days, String granularity) {
+        RollupGranularity resolution = parseGranularity(granularity);
+        LocalDateTime since = windowStart(resolution, days);
+        return wheelRegistry.find(wheelName)
+                .map(wheel -> selectionRollupRepository.summarizeByParticipant(wheel, resolution, since))
+                .orElse(List.of());
+    }
+
+    /**
+     * Spins por intervalo en los últimos días, en orden cronológico
+     */
+    public List<StatsBucketDto> getTimeline(String wheelName, int days, String granularity) {
+        RollupGranularity resolution = parseGranularity(granularity);
+        LocalDateTime since = windowStart(resolution, days);
+        return wheelRegistry.find(wheelName)
+                .map(wheel -> selectionRollupRepository.summarizeByBucket(wheel, resolution, since))
+                .orElse(List.of());
+    }
+
+    private static LocalDateTime windowStart(RollupGranularity granularity, int days) {
+        if (days < 1) {
+            throw new IllegalArgumentException("La ventana debe ser de al menos un día");
+        }
+        // El intervalo más antiguo se incluye entero
+        return granularity.bucketStart(LocalDateTime.now().minusDays(days));
+    }
+
+    private static RollupGranularity parseGranularity(String granularity) {
+        try {
+            return RollupGranularity.valueOf(granularity.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Granularidad no soportada: " + granularity);
+        }
+    }
+}
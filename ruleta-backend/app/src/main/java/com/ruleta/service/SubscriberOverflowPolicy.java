@@ -0,0 +1,17 @@
+package com.ruleta.service;
+
+/**
+ * Qué hacer cuando un suscriptor de /events no consume al ritmo de los eventos y su buffer se llena
+ * (propiedad {@code ruleta.events.overflow})
+ */
+public enum SubscriberOverflowPolicy {
+
+    /** Descartar el evento más antiguo pendiente: el cliente ve siempre lo último */
+    DROP_OLDEST,
+
+    /** Descartar el evento nuevo: el cliente ve los pendientes en orden, con huecos */
+    DROP_NEWEST,
+
+    /** Cerrar la conexión; el cliente puede reconectar y releer el estado */
+    DISCONNECT
+}
@@ -0,0 +1,48 @@
+package com.ruleta.service;
+
+/**
+ * Política de ajuste de pesos tras cada selección.
+ * El ganador multiplica su peso por {@code winnerFactor} sin bajar de {@code minWeight};
+ * los demás lo multiplican por {@code othersFactor} sin superar {@code maxWeight}.
+ */
+public record WeightPolicy(double winnerFactor, double othersFactor, double minWeight, double maxWeight) {
+
+    /** Valores históricos de la ruleta */
+    public static final WeightPolicy DEFAULT = new WeightPolicy(0.5, 1.1, 0.1, 3.0);
+
+    public WeightPolicy {
+        if (!(winnerFactor > 0) || !(othersFactor > 0)) {
+            throw new IllegalArgumentException("Los factores de la política de pesos deben ser positivos");
+        }
+        if (!(minWeight > 0) || !(maxWeight >= minWeight)) {
+            throw new IllegalArgumentException("Se requiere 0 < peso mínimo <= peso máximo");
+        }
+    }
+
+    public double afterWin(double weight) {
+        return Math.max(minWeight, weight * winnerFactor);
+    }
+
+    public double afterLoss(double weight) {
+        return Math.min(maxWeight, weight * othersFactor);
+    }
+
+    /**
+     * Peso tras {@code boosts} aplicaciones seguidas de {@link #afterLoss(double)}.
+     * Solo es exacto si {@link #boostsCommuteWithCap()}.
+     */
+    public double afterLosses(double weight, long boosts) {
+        return boosts == 0 ? weight : Math.min(maxWeight, weight * Math.pow(othersFactor, boosts));
+    }
+
+    /**
+     * Con un factor ≥ 1, min(max, min(max, w·f)·f) = min(max, w·f²): el tope se puede aplicar una sola vez al final
+     */
+    public boolean boostsCommuteWithCap() {
+        return othersFactor >= 1.0;
+    }
+
+    public WeightPolicy withBoost(double othersFactor, double maxWeight) {
+        return new WeightPolicy(winnerFactor, othersFactor, minWeight, Math.max(maxWeight, minWeight));
+    }
+}
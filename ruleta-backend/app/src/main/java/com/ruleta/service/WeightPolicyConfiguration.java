@@ -0,0 +1,21 @@
+package com.ruleta.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@Slf4j
+public class WeightPolicyConfiguration {
+
+    @Bean
+    public WeightPolicy weightPolicy(@Value("${ruleta.weights.winner-factor:0.5}") double winnerFactor,
+                                     @Value("${ruleta.weights.others-factor:1.1}") double othersFactor,
+                                     @Value("${ruleta.weights.min-weight:0.1}") double minWeight,
+                                     @Value("${ruleta.weights.max-weight:3.0}") double maxWeight) {
+        WeightPolicy policy = new WeightPolicy(winnerFactor, othersFactor, minWeight, maxWeight);
+        log.info("Política de pesos: {}", policy);
+        return policy;
+    }
+}
@@ -0,0 +1,452 @@
+package com.ruleta.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ruleta.dto.ParticipantDto;
+import com.ruleta.dto.ParticipantImportResponse;
+import com.ruleta.dto.RouletteBatchSpinResponse;
+import com.ruleta.dto.RouletteSpinResponse;
+import com.ruleta.dto.WheelEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Difunde los cambios de cada ruleta a los suscriptores de /events como Server-Sent Events.
+ * <p>
+ * Los eventos se publican tras el commit y, solo si la ruleta tiene suscriptores, pasan a un hilo
+ * despachador que los serializa una vez y entrega la misma trama a todos. Cada suscriptor tiene un
+ * buffer acotado que vacía un pool pequeño de escritores; cuando su buffer se llena se aplica
+ * {@link SubscriberOverflowPolicy}. Los escritores son hilos de plataforma: {@code ResponseBodyEmitter.send}
+ * es {@code synchronized} y una escritura bloqueada fijaría el hilo portador de un hilo virtual. Un
+ * comentario periódico mantiene viva la conexión y detecta los clientes que se han ido.
+ * <p>
+ * Una escritura bloqueada (un cliente que no lee con el socket lleno) ocupa su escritor hasta que el
+ * contenedor la da por fallida. Para que unos pocos clientes así no dejen sin eventos a todos los demás,
+ * un vigilante cierra el suscriptor cuya escritura dura más de {@code write-timeout} y añade un escritor
+ * al pool mientras el atascado no vuelva; al volver completa el stream. {@code send} y {@code complete}
+ * comparten el monitor del emisor, así que el stream no se puede completar antes.
+ */
+@Component
+@Slf4j
+public class WheelEventBroadcaster {
+
+    private static final byte[] RETRY = "retry: 3000\n\n".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] HEARTBEAT = ":\n\n".getBytes(StandardCharsets.UTF_8);
+    private static final long NOT_WRITING = Long.MIN_VALUE;
+
+    private final ObjectMapper objectMapper;
+    private final int bufferSize;
+    private final SubscriberOverflowPolicy overflowPolicy;
+    private final int maxSubscribers;
+    private final Duration timeout;
+    private final Duration heartbeatInterval;
+    private final Duration writeTimeout;
+    private final Map<String, Set<Subscriber>> subscribersByWheel = new ConcurrentHashMap<>();
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+    private final AtomicLong sequence = new AtomicLong();
+    private final BlockingQueue<PendingEvent> pending = new ArrayBlockingQueue<>(10_000);
+    private final ThreadPoolExecutor writers;
+    private final Thread dispatcher;
+    private final ScheduledExecutorService heartbeats;
+    private final Counter droppedEvents;
+    private final Counter disconnectedSubscribers;
+    private volatile boolean running = true;
+
+    public WheelEventBroadcaster(ObjectMapper objectMapper,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${ruleta.events.buffer-size:256}") int bufferSize,
+                                 @Value("${ruleta.events.overflow:drop-oldest}") SubscriberOverflowPolicy overflowPolicy,
+                                 @Value("${ruleta.events.max-subscribers:10000}") int maxSubscribers,
+                                 @Value("${ruleta.events.timeout:30m}") Duration timeout,
+                                 @Value("${ruleta.events.heartbeat-interval:15s}") Duration heartbeatInterval,
+                                 @Value("${ruleta.events.writer-threads:4}") int writerThreads,
+                                 @Value("${ruleta.events.write-timeout:5s}") Duration writeTimeout) {
+        this.objectMapper = objectMapper;
+        this.bufferSize = Math.max(1, bufferSize);
+        this.overflowPolicy = overflowPolicy;
+        this.maxSubscribers = maxSubscribers;
+        this.timeout = timeout;
+        this.heartbeatInterval = heartbeatInterval;
+        this.writeTimeout = writeTimeout;
+        this.dispatcher = new Thread(this::dispatchLoop, "wheel-events");
+        this.dispatcher.setDaemon(true);
+        AtomicInteger writerNumber = new AtomicInteger();
+        int writerCount = Math.max(1, writerThreads);
+        this.writers = new ThreadPoolExecutor(writerCount, writerCount, 0, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(), runnable -> {
+            Thread thread = new Thread(runnable, "wheel-events-writer-" + writerNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.heartbeats = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            // También vigila las escrituras: nunca escribe en una conexión, así que no se bloquea
+            Thread thread = new Thread(runnable, "wheel-events-heartbeat");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        Gauge.builder("ruleta.events.subscribers", subscriberCount, AtomicInteger::get)
+                .description("Conexiones abiertas a /events")
+                .register(meterRegistry);
+        this.droppedEvents = Counter.builder("ruleta.events.dropped")
+                .description("Eventos descartados por buffers llenos")
+                .register(meterRegistry);
+        this.disconnectedSubscribers = Counter.builder("ruleta.events.disconnected")
+                .description("Suscriptores desconectados por no consumir a tiempo o por una escritura bloqueada")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    void start() {
+        dispatcher.start();
+        long interval = heartbeatInterval.toMillis();
+        heartbeats.scheduleAtFixedRate(this::heartbeat, interval, interval, TimeUnit.MILLISECONDS);
+        if (!writeTimeout.isZero()) {
+            long check = Math.max(10, writeTimeout.toMillis() / 4);
+            heartbeats.scheduleAtFixedRate(this::checkWrites, check, check, TimeUnit.MILLISECONDS);
+        }
+        log.info("Eventos de ruleta: buffer de {} por suscriptor, política {}", bufferSize, overflowPolicy);
+    }
+
+    @PreDestroy
+    void stop() {
+        running = false;
+        dispatcher.interrupt();
+        heartbeats.shutdownNow();
+        writers.shutdownNow();
+        subscribersByWheel.values().forEach(subscribers -> subscribers.forEach(Subscriber::close));
+    }
+
+    /**
+     * Abre un stream de eventos de una ruleta
+     *
+     * @throws RejectedExecutionException si ya hay {@code max-subscribers} conexiones abiertas
+     */
+    public ResponseBodyEmitter subscribe(String wheelName) {
+        ResponseBodyEmitter emitter = new ResponseBodyEmitter(timeout.toMillis());
+        Subscriber subscriber = register(wheelName, new Sink() {
+            @Override
+            public void write(byte[] frame) throws IOException {
+                emitter.send(frame, MediaType.TEXT_EVENT_STREAM);
+            }
+
+            @Override
+            public void close() {
+                emitter.complete();
+            }
+        });
+        emitter.onCompletion(subscriber::close);
+        emitter.onTimeout(subscriber::close);
+        emitter.onError(error -> subscriber.close());
+        return emitter;
+    }
+
+    public void spinCompleted(String wheelName, RouletteSpinResponse spin) {
+        publish(wheelName, WheelEventType.SPIN, event -> event.setSpin(spin));
+    }
+
+    public void batchCompleted(String wheelName, RouletteBatchSpinResponse batch) {
+        publish(wheelName, WheelEventType.BATCH_SPIN, event -> event.setBatch(batch));
+    }
+
+    public void participantAdded(String wheelName, ParticipantDto participant) {
+        publish(wheelName, WheelEventType.PARTICIPANT_ADDED, event -> event.setParticipant(participant));
+    }
+
+    public void participantRemoved(String wheelName, String name) {
+        publish(wheelName, WheelEventType.PARTICIPANT_REMOVED, event -> event.setParticipantName(name));
+    }
+
+    /**
+     * Un evento por bloque importado, no por participante
+     */
+    public void participantsImported(String wheelName, ParticipantImportResponse imported) {
+        publish(wheelName, WheelEventType.PARTICIPANTS_IMPORTED, event -> event.setParticipantsImported(imported));
+    }
+
+    public void statsReset(String wheelName) {
+        publish(wheelName, WheelEventType.STATS_RESET, event -> { });
+    }
+
+    /**
+     * Conexiones abiertas en todas las ruletas
+     */
+    public int subscribers() {
+        return subscriberCount.get();
+    }
+
+    Subscriber register(String wheelName, Sink sink) {
+        if (subscriberCount.incrementAndGet() > maxSubscribers) {
+            subscriberCount.decrementAndGet();
+            throw new RejectedExecutionException("Límite de suscriptores de eventos alcanzado: " + maxSubscribers);
+        }
+        Subscriber subscriber = new Subscriber(wheelName, sink);
+        subscribersByWheel.computeIfAbsent(wheelName, key -> ConcurrentHashMap.newKeySet()).add(subscriber);
+        subscriber.offer(RETRY);
+        return subscriber;
+    }
+
+    private void publish(String wheelName, WheelEventType type, Consumer<WheelEvent> payload) {
+        Set<Subscriber> subscribers = subscribersByWheel.get(wheelName);
+        if (subscribers == null || subscribers.isEmpty()) {
+            // Sin suscriptores no se construye ni se serializa nada
+            return;
+        }
+        WheelEvent event = new WheelEvent();
+        event.setType(type.eventName());
+        event.setWheel(wheelName);
+        event.setOccurredAt(LocalDateTime.now());
+        payload.accept(event);
+        PendingEvent pendingEvent = new PendingEvent(wheelName, type, event);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            // Solo se difunde lo confirmado
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    enqueue(pendingEvent);
+                }
+            });
+        } else {
+            enqueue(pendingEvent);
+        }
+    }
+
+    private void enqueue(PendingEvent event) {
+        if (!pending.offer(event)) {
+            droppedEvents.increment();
+            log.warn("Cola de eventos llena: evento {} de '{}' descartado", event.type(), event.wheelName());
+        }
+    }
+
+    private void dispatchLoop() {
+        while (running) {
+            try {
+                PendingEvent event = pending.take();
+                Set<Subscriber> subscribers = subscribersByWheel.get(event.wheelName());
+                if (subscribers == null || subscribers.isEmpty()) {
+                    continue;
+                }
+                byte[] frame = serialize(event);
+                for (Subscriber subscriber : subscribers) {
+                    subscriber.offer(frame);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.error("Error difundiendo un evento de ruleta", e);
+            }
+        }
+    }
+
+    // Una sola serialización por evento, compartida por todos los suscriptores
+    private byte[] serialize(PendingEvent event) {
+        try {
+            String frame = "id: " + sequence.incrementAndGet() + "\n"
+                    + "event: " + event.type().eventName() + "\n"
+                    + "data: " + objectMapper.writeValueAsString(event.event()) + "\n\n";
+            return frame.getBytes(StandardCharsets.UTF_8);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("No se pudo serializar el evento " + event.type(), e);
+        }
+    }
+
+    private void heartbeat() {
+        subscribersByWheel.values().forEach(subscribers -> subscribers.forEach(subscriber -> subscriber.offerIfRoom(HEARTBEAT)));
+    }
+
+    private void checkWrites() {
+        long now = System.nanoTime();
+        subscribersByWheel.values().forEach(subscribers -> subscribers.forEach(subscriber -> subscriber.checkWrite(now)));
+    }
+
+    // Un escritor de más por cada escritura abandonada, hasta que vuelva
+    private synchronized void resizeWriters(int delta) {
+        int size = writers.getCorePoolSize() + delta;
+        if (delta > 0) {
+            writers.setMaximumPoolSize(size);
+            writers.setCorePoolSize(size);
+        } else {
+            writers.setCorePoolSize(size);
+            writers.setMaximumPoolSize(size);
+        }
+    }
+
+    /**
+     * Destino de las tramas de un suscriptor (la conexión HTTP, o un sustituto en las pruebas)
+     */
+    interface Sink {
+
+        void write(byte[] frame) throws IOException;
+
+        void close();
+    }
+
+    private record PendingEvent(String wheelName, WheelEventType type, WheelEvent event) {
+    }
+
+    final class Subscriber {
+
+        private final String wheelName;
+        private final Sink sink;
+        private final BlockingQueue<byte[]> frames = new ArrayBlockingQueue<>(bufferSize);
+        private final AtomicBoolean closed = new AtomicBoolean();
+        // Como mucho un escritor a la vez por suscriptor, para conservar el orden de las tramas
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private final AtomicBoolean sinkClosed = new AtomicBoolean();
+        // Escritura abandonada por el vigilante: su escritor se ha sustituido
+        private final AtomicBoolean stalled = new AtomicBoolean();
+        // Inicio (nanoTime) de la escritura en curso, o NOT_WRITING
+        private volatile long writeStartedAt = NOT_WRITING;
+
+        private Subscriber(String wheelName, Sink sink) {
+            this.wheelName = wheelName;
+            this.sink = sink;
+        }
+
+        boolean isClosed() {
+            return closed.get();
+        }
+
+        private void offer(byte[] frame) {
+            if (closed.get()) {
+                return;
+            }
+            if (!frames.offer(frame)) {
+                switch (overflowPolicy) {
+                    case DROP_OLDEST -> {
+                        frames.poll();
+                        frames.offer(frame);
+                        droppedEvents.increment();
+                    }
+                    case DROP_NEWEST -> droppedEvents.increment();
+                    case DISCONNECT -> {
+                        disconnectedSubscribers.increment();
+                        log.debug("Suscriptor de '{}' desconectado por no consumir a tiempo", wheelName);
+                        close();
+                        return;
+                    }
+                }
+            }
+            scheduleDrain();
+        }
+
+        private void offerIfRoom(byte[] frame) {
+            if (!closed.get() && frames.offer(frame)) {
+                scheduleDrain();
+            }
+        }
+
+        private void scheduleDrain() {
+            if (draining.compareAndSet(false, true)) {
+                try {
+                    writers.execute(this::drain);
+                } catch (RejectedExecutionException e) {
+                    // Apagando
+                    draining.set(false);
+                }
+            }
+        }
+
+        private void drain() {
+            try {
+                do {
+                    byte[] frame;
+                    while (!closed.get() && (frame = frames.poll()) != null) {
+                        write(frame);
+                    }
+                    draining.set(false);
+                    // Una trama encolada justo antes de soltar el turno no debe quedarse sin escribir
+                } while (!closed.get() && !frames.isEmpty() && draining.compareAndSet(false, true));
+            } catch (IOException | RuntimeException e) {
+                log.debug("Suscriptor de '{}' desconectado: {}", wheelName, e.getMessage());
+                draining.set(false);
+                close();
+            } finally {
+                if (stalled.compareAndSet(true, false)) {
+                    resizeWriters(-1);
+                }
+                // Si se cerró durante la escritura, completar el stream quedó para aquí
+                if (closed.get()) {
+                    closeSink();
+                }
+            }
+        }
+
+        private void write(byte[] frame) throws IOException {
+            writeStartedAt = System.nanoTime();
+            try {
+                sink.write(frame);
+            } finally {
+                writeStartedAt = NOT_WRITING;
+            }
+        }
+
+        private void checkWrite(long now) {
+            long startedAt = writeStartedAt;
+            if (startedAt != NOT_WRITING && now - startedAt > writeTimeout.toNanos() && stalled.compareAndSet(false, true)) {
+                disconnectedSubscribers.increment();
+                log.debug("Suscriptor de '{}' desconectado: escritura bloqueada más de {}", wheelName, writeTimeout);
+                resizeWriters(1);
+                close();
+            }
+        }
+
+        void close() {
+            if (!closed.compareAndSet(false, true)) {
+                return;
+            }
+            Set<Subscriber> subscribers = subscribersByWheel.get(wheelName);
+            if (subscribers != null) {
+                subscribers.remove(this);
+            }
+            subscriberCount.decrementAndGet();
+            frames.clear();
+            // Con una escritura en curso, completar esperaría a que terminase: lo hace su escritor al volver
+            if (writeStartedAt == NOT_WRITING) {
+                closeSink();
+            }
+        }
+
+        private void closeSink() {
+            if (!sinkClosed.compareAndSet(false, true)) {
+                return;
+            }
+            try {
+                sink.close();
+            } catch (RuntimeException e) {
+                log.debug("Error cerrando el stream de '{}': {}", wheelName, e.getMessage());
+            }
+        }
+    }
+}
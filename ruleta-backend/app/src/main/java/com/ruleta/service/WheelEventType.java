@@ -0,0 +1,20 @@
+package com.ruleta.service;
+
+import java.util.Locale;
+
+/**
+ * Tipos de evento de /events; el nombre del evento SSE es el del enum en minúsculas con guiones
+ */
+public enum WheelEventType {
+
+    SPIN,
+    BATCH_SPIN,
+    PARTICIPANT_ADDED,
+    PARTICIPANT_REMOVED,
+    PARTICIPANTS_IMPORTED,
+    STATS_RESET;
+
+    public String eventName() {
+        return name().toLowerCase(Locale.ROOT).replace('_', '-');
+    }
+}
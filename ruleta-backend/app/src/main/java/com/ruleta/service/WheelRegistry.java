@@ -0,0 +1,84 @@
+package com.ruleta.service;
+
+import com.ruleta.entity.Wheel;
+import com.ruleta.repository.WheelRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Resuelve ruletas por nombre. Los ids ya confirmados se cachean para que las operaciones
+ * de una ruleta usen una referencia sin consulta adicional.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class WheelRegistry {
+
+    private final WheelRepository wheelRepository;
+    private final Map<String, Long> wheelIds = new ConcurrentHashMap<>();
+
+    /**
+     * Devuelve la ruleta con ese nombre, creándola si no existe (en la transacción del llamador)
+     */
+    public Wheel getOrCreate(String name) {
+        Optional<Wheel> existing = find(name);
+        if (existing.isPresent()) {
+            return existing.get();
+        }
+
+        Wheel wheel = wheelRepository.save(new Wheel(name));
+        log.info("Nueva ruleta creada: {}", name);
+
+        // Solo se cachea tras el commit: un rollback no debe dejar ids huérfanos
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            Long id = wheel.getId();
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    wheelIds.put(name, id);
+                }
+            });
+        }
+        return wheel;
+    }
+
+    /**
+     * Busca una ruleta existente
+     */
+    public Optional<Wheel> find(String name) {
+        validateName(name);
+        Long id = wheelIds.get(name);
+        if (id != null) {
+            return Optional.of(wheelRepository.getReferenceById(id));
+        }
+
+        Optional<Wheel> wheel = wheelRepository.findByName(name);
+        wheel.ifPresent(w -> wheelIds.put(name, w.getId()));
+        return wheel;
+    }
+
+    /**
+     * Nombres de todas las ruletas
+     */
+    public List<String> names() {
+        return wheelRepository.findAll().stream()
+                .map(Wheel::getName)
+                .sorted()
+                .collect(Collectors.toList());
+    }
+
+    private static void validateName(String name) {
+        if (name == null || name.isBlank()) {
+            throw new IllegalArgumentException("El nombre de la ruleta no puede estar vacío");
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.ruleta.service;
+
+import com.ruleta.entity.Participant;
+import com.ruleta.entity.SelectionHistory;
+import com.ruleta.entity.Wheel;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.BiConsumer;
+
+/**
+ * Motor de almacenamiento del estado de las ruletas: ruletas, participantes y las selecciones que
+ * producen las operaciones de escritura. Se elige con {@code ruleta.storage.engine}.
+ * <p>
+ * Las entidades devueltas por los métodos de escritura son mutables y las modifica el propio servicio;
+ * cada operación termina con {@link #commit}, que persiste lo cambiado en esa ruleta. Se llaman desde
+ * el hilo propietario de la ruleta ({@link SpinExecutor}), nunca en paralelo para una misma ruleta.
+ */
+public interface WheelStore {
+
+    /**
+     * Vista de solo lectura de los participantes activos de una ruleta
+     */
+    record View(Wheel wheel, List<Participant> active) {
+    }
+
+    /**
+     * Estado confirmado de la ruleta para lecturas concurrentes con las escrituras
+     */
+    Optional<View> view(String wheelName);
+
+    /**
+     * Recorre el estado confirmado de todos los participantes de una ruleta, activos o no, de uno en uno y
+     * sin cargarlos a la vez en memoria. Como {@link #view}, se puede llamar desde cualquier hilo
+     *
+     * @return false si la ruleta no existe
+     */
+    boolean forEachParticipant(String wheelName, BiConsumer<Wheel, Participant> consumer);
+
+    Wheel getOrCreateWheel(String name);
+
+    Optional<Wheel> findWheel(String name);
+
+    List<Participant> findActive(Wheel wheel);
+
+    long countActive(Wheel wheel);
+
+    /**
+     * Participante con ese nombre, activo o no
+     */
+    Optional<Participant> findByName(Wheel wheel, String name);
+
+    /**
+     * Participantes existentes con esos nombres, activos o no, en cualquier orden
+     */
+    List<Participant> findByNames(Wheel wheel, Collection<String> names);
+
+    /**
+     * Da de alta participantes nuevos y los devuelve con su id asignado
+     */
+    List<Participant> insert(Wheel wheel, List<Participant> participants);
+
+    /**
+     * Anota un participante existente modificado por la operación en curso. Un almacén sin seguimiento de
+     * cambios propio escribe en {@link #commit} solo los anotados y las altas de {@link #insert}
+     */
+    default void markChanged(Wheel wheel, Participant participant) {
+    }
+
+    /**
+     * Cierra la operación: persiste los cambios de la ruleta y de sus participantes y las selecciones producidas
+     */
+    void commit(Wheel wheel, List<SelectionHistory> selections);
+
+    /**
+     * Si un fallo de la transacción deshace también lo aplicado en el almacén. Sin rollback, cada operación
+     * debe validar antes de modificar nada y no puede repetirse.
+     */
+    boolean supportsRollback();
+}
@@ -0,0 +1,141 @@
+package com.ruleta.service;
+
+import com.ruleta.entity.Participant;
+import com.ruleta.entity.Wheel;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Pesos de los participantes relativos a un contador de impulsos por ruleta.
+ * <p>
+ * Cada participante guarda un peso base y el {@code boostEpoch} de la ruleta en que se fijó; su peso
+ * efectivo es el base con los impulsos posteriores aplicados ({@link WeightPolicy#afterLosses}).
+ * Impulsar a todos los no ganadores tras un spin es incrementar el contador de la ruleta, de modo que
+ * solo cambian la fila de la ruleta y la del ganador, en lugar de la de cada participante.
+ * Los participantes activos que no entran en el spin se compensan avanzando su propio contador.
+ * <p>
+ * Si el factor de impulso es menor que 1 el tope no conmuta con el producto y los pesos se
+ * actualizan uno a uno, como en el cálculo original.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class WheelWeights {
+
+    private final WeightPolicy weightPolicy;
+    private final WheelStore wheelStore;
+
+    public double weightOf(Wheel wheel, Participant participant) {
+        return weightPolicy.afterLosses(participant.getProbabilityWeight(), boostsSince(wheel, participant));
+    }
+
+    public double[] weightsOf(Wheel wheel, List<Participant> participants) {
+        return weightsOf(wheel, participants, new double[participants.size()]);
+    }
+
+    /**
+     * Escribe los pesos efectivos en {@code into}, por posición, para reutilizar el array entre spins
+     */
+    public double[] weightsOf(Wheel wheel, List<Participant> participants, double[] into) {
+        for (int i = 0; i < participants.size(); i++) {
+            into[i] = weightOf(wheel, participants.get(i));
+        }
+        return into;
+    }
+
+    /**
+     * Fija el peso efectivo actual de un participante
+     */
+    public void set(Wheel wheel, Participant participant, double weight) {
+        participant.setProbabilityWeight(weight);
+        participant.setWeightEpoch(wheel.getBoostEpoch());
+        wheelStore.markChanged(wheel, participant);
+    }
+
+    /**
+     * Congela el peso efectivo antes de desactivar a un participante
+     */
+    public void freeze(Wheel wheel, Participant participant) {
+        set(wheel, participant, weightOf(wheel, participant));
+    }
+
+    /**
+     * Al reactivar, el participante recupera el peso congelado sin los impulsos que se perdió
+     */
+    public void resume(Wheel wheel, Participant participant) {
+        participant.setWeightEpoch(wheel.getBoostEpoch());
+        wheelStore.markChanged(wheel, participant);
+    }
+
+    /**
+     * Prepara los spins sobre {@code participants}. Devuelve los participantes activos de la ruleta que
+     * no están en la lista: sus pesos no deben cambiar cuando se impulsa a toda la ruleta.
+     */
+    public List<Participant> prepare(Wheel wheel, List<Participant> participants) {
+        if (!Objects.equals(wheel.getBoostFactor(), weightPolicy.othersFactor())
+                || !Objects.equals(wheel.getBoostCap(), weightPolicy.maxWeight())) {
+            rebase(wheel);
+        }
+        if (!weightPolicy.boostsCommuteWithCap()
+                || wheelStore.countActive(wheel) == participants.size()) {
+            return List.of();
+        }
+        Set<Participant> inSpin = Collections.newSetFromMap(new IdentityHashMap<>());
+        inSpin.addAll(participants);
+        return wheelStore.findActive(wheel).stream()
+                .filter(participant -> !inSpin.contains(participant))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Aplica la política tras una selección: el ganador baja y los demás participantes del spin suben
+     */
+    public void recalculate(Wheel wheel, List<Participant> participants, List<Participant> outsiders, Participant winner) {
+        double winnerWeight = weightPolicy.afterWin(weightOf(wheel, winner));
+        if (weightPolicy.boostsCommuteWithCap()) {
+            wheel.setBoostEpoch(wheel.getBoostEpoch() + 1);
+            for (Participant outsider : outsiders) {
+                outsider.setWeightEpoch(outsider.getWeightEpoch() + 1);
+                wheelStore.markChanged(wheel, outsider);
+            }
+        } else {
+            for (Participant participant : participants) {
+                if (participant != winner) {
+                    set(wheel, participant, weightPolicy.afterLoss(weightOf(wheel, participant)));
+                }
+            }
+        }
+        set(wheel, winner, winnerWeight);
+    }
+
+    private long boostsSince(Wheel wheel, Participant participant) {
+        return wheel.getBoostEpoch() - participant.getWeightEpoch();
+    }
+
+    /**
+     * La ruleta acumuló impulsos con otro factor o tope: se fijan los pesos efectivos con los valores
+     * anteriores antes de adoptar los nuevos. En la primera ejecución no hay nada que convertir.
+     */
+    private void rebase(Wheel wheel) {
+        if (wheel.getBoostFactor() != null && wheel.getBoostCap() != null) {
+            WeightPolicy previous = weightPolicy.withBoost(wheel.getBoostFactor(), wheel.getBoostCap());
+            List<Participant> active = wheelStore.findActive(wheel);
+            for (Participant participant : active) {
+                set(wheel, participant, previous.afterLosses(participant.getProbabilityWeight(),
+                        boostsSince(wheel, participant)));
+            }
+            log.info("Pesos de '{}' fijados tras cambiar la política de impulso: {} participantes",
+                    wheel.getName(), active.size());
+        }
+        wheel.setBoostFactor(weightPolicy.othersFactor());
+        wheel.setBoostCap(weightPolicy.maxWeight());
+    }
+}
@@ -0,0 +1,182 @@
+package com.ruleta.service.admission;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Control de admisión de las escrituras, delante de las colas de {@code SpinExecutor} y de las
+ * extracciones, que escriben fuera del hilo de su ruleta.
+ * <p>
+ * Como mucho {@code limit} operaciones de escritura están a la vez en cola o en ejecución. Una operación
+ * que no cabe espera un hueco hasta {@code max-wait}, con no más de {@code max-waiting} esperando; si no lo
+ * consigue se rechaza enseguida con {@link AdmissionRejectedException} (429 y {@code Retry-After}). Así una
+ * ráfaga no alarga sin límite la cola de los escritores: las operaciones admitidas siguen terminando en
+ * su tiempo habitual y el exceso se descarta barato.
+ * <p>
+ * Con {@code limit-algorithm: gradient} el límite se ajusta con la latencia de cada operación, desde que
+ * se admite hasta que termina su commit ({@link GradientLimit}); con {@code fixed} se queda en
+ * {@code initial-limit}.
+ */
+@Component
+@Slf4j
+public class AdmissionController {
+
+    public enum LimitAlgorithm {
+        FIXED, GRADIENT
+    }
+
+    private final boolean enabled;
+    private final GradientLimit gradient;
+    private final int maxWaiting;
+    private final Duration maxWait;
+    private final Duration retryAfter;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition released = lock.newCondition();
+    private final Counter rejected;
+    private final Timer waitTimer;
+    private volatile int limit;
+    private volatile int inFlight;
+    private volatile int waiting;
+
+    public AdmissionController(MeterRegistry registry,
+                               @Value("${ruleta.admission.enabled:true}") boolean enabled,
+                               @Value("${ruleta.admission.limit-algorithm:gradient}") LimitAlgorithm algorithm,
+                               @Value("${ruleta.admission.initial-limit:32}") int initialLimit,
+                               @Value("${ruleta.admission.min-limit:4}") int minLimit,
+                               @Value("${ruleta.admission.max-limit:512}") int maxLimit,
+                               @Value("${ruleta.admission.tolerance:2.0}") double tolerance,
+                               @Value("${ruleta.admission.max-waiting:256}") int maxWaiting,
+                               @Value("${ruleta.admission.max-wait:50ms}") Duration maxWait,
+                               @Value("${ruleta.admission.retry-after:1s}") Duration retryAfter) {
+        this.enabled = enabled;
+        this.gradient = algorithm == LimitAlgorithm.GRADIENT
+                ? new GradientLimit(initialLimit, minLimit, maxLimit, tolerance)
+                : null;
+        this.limit = gradient != null ? gradient.limit() : Math.max(1, initialLimit);
+        this.maxWaiting = Math.max(0, maxWaiting);
+        this.maxWait = maxWait;
+        this.retryAfter = retryAfter;
+
+        this.rejected = Counter.builder("ruleta.admission.rejected")
+                .description("Escrituras rechazadas con 429 por el control de admisión")
+                .register(registry);
+        this.waitTimer = Timer.builder("ruleta.admission.wait")
+                .description("Espera hasta la admisión de las escrituras que no cupieron a la primera")
+                .register(registry);
+        Gauge.builder("ruleta.admission.limit", this, AdmissionController::limit)
+                .description("Escrituras admitidas a la vez como máximo")
+                .register(registry);
+        Gauge.builder("ruleta.admission.in.flight", this, AdmissionController::inFlight)
+                .description("Escrituras admitidas en cola o en ejecución")
+                .register(registry);
+        Gauge.builder("ruleta.admission.waiting", this, AdmissionController::waiting)
+                .description("Escrituras esperando admisión")
+                .register(registry);
+
+        if (enabled) {
+            log.info("Control de admisión {} con límite inicial {}", algorithm.name().toLowerCase(Locale.ROOT), limit);
+        }
+    }
+
+    /**
+     * Admite una escritura o la rechaza. Cada admisión debe cerrarse con {@link #release(long, boolean)}
+     *
+     * @return el instante de la admisión, para medir la latencia
+     * @throws AdmissionRejectedException si no hay hueco tras esperar {@code max-wait}
+     */
+    public long admit() {
+        if (!enabled) {
+            return System.nanoTime();
+        }
+        lock.lock();
+        try {
+            if (inFlight < limit) {
+                inFlight++;
+                return System.nanoTime();
+            }
+            if (waiting >= maxWaiting || maxWait.isZero()) {
+                throw reject();
+            }
+
+            long waitStart = System.nanoTime();
+            long remaining = maxWait.toNanos();
+            waiting++;
+            try {
+                while (inFlight >= limit) {
+                    if (remaining <= 0) {
+                        throw reject();
+                    }
+                    remaining = released.awaitNanos(remaining);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw reject();
+            } finally {
+                waiting--;
+            }
+            inFlight++;
+            long admittedAt = System.nanoTime();
+            waitTimer.record(admittedAt - waitStart, TimeUnit.NANOSECONDS);
+            return admittedAt;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Libera el hueco de una escritura admitida
+     *
+     * @param admittedAt valor devuelto por {@link #admit()}
+     * @param completed  si la operación llegó a ejecutarse: solo entonces su latencia ajusta el límite
+     */
+    public void release(long admittedAt, boolean completed) {
+        if (!enabled) {
+            return;
+        }
+        long latency = System.nanoTime() - admittedAt;
+        lock.lock();
+        try {
+            inFlight--;
+            if (completed && gradient != null) {
+                int previous = limit;
+                limit = gradient.update(latency, inFlight);
+                if (limit > previous) {
+                    released.signalAll();
+                    return;
+                }
+            }
+            released.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int limit() {
+        return limit;
+    }
+
+    public int inFlight() {
+        return inFlight;
+    }
+
+    public int waiting() {
+        return waiting;
+    }
+
+    private AdmissionRejectedException reject() {
+        rejected.increment();
+        return new AdmissionRejectedException(
+                "Límite de escrituras concurrentes alcanzado (" + limit + ")", retryAfter);
+    }
+}
@@ -0,0 +1,22 @@
+package com.ruleta.service.admission;
+
+import java.time.Duration;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Escritura no admitida por estar el límite de concurrencia lleno: el cliente puede reintentar
+ * pasado {@link #getRetryAfter()}
+ */
+public class AdmissionRejectedException extends RejectedExecutionException {
+
+    private final Duration retryAfter;
+
+    public AdmissionRejectedException(String message, Duration retryAfter) {
+        super(message);
+        this.retryAfter = retryAfter;
+    }
+
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
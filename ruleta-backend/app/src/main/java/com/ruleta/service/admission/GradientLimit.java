@@ -0,0 +1,76 @@
+package com.ruleta.service.admission;
+
+/**
+ * Límite de concurrencia que se ajusta con la latencia observada, al estilo del algoritmo Gradient2
+ * de concurrency-limits.
+ * <p>
+ * Compara cada latencia con una media exponencial a largo plazo. Mientras no la supere en más de
+ * {@code tolerance} veces, el límite crece en √límite (la cola que se permite formar). Si la supera,
+ * se multiplica por el cociente, con un mínimo de ½. Cada cambio se suaviza, así que una muestra
+ * aislada apenas lo mueve. No es seguro para hilos: lo protege {@link AdmissionController}.
+ * <p>
+ * Con las latencias fuera de tolerancia la media apenas se mueve: si siguiera a la latencia actual, una
+ * sobrecarga sostenida acabaría pareciendo normal y el límite volvería a crecer. Solo una latencia más
+ * alta que dure decenas de miles de muestras pasa a ser la nueva referencia.
+ */
+final class GradientLimit {
+
+    /** Peso de cada muestra en la media a largo plazo (unas 600 muestras) */
+    private static final double LONG_WEIGHT = 2.0 / 601;
+    /** Peso de una muestra fuera de tolerancia: la media deriva cincuenta veces más despacio */
+    private static final double OVERLOAD_WEIGHT = LONG_WEIGHT / 50;
+    private static final double SMOOTHING = 0.2;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double tolerance;
+    private double limit;
+    private double longLatency;
+
+    GradientLimit(int initialLimit, int minLimit, int maxLimit, double tolerance) {
+        if (minLimit < 1 || maxLimit < minLimit) {
+            throw new IllegalArgumentException("Se requiere 1 <= límite mínimo <= límite máximo");
+        }
+        if (!(tolerance >= 1)) {
+            throw new IllegalArgumentException("La tolerancia debe ser al menos 1");
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.tolerance = tolerance;
+        this.limit = clamp(initialLimit, minLimit, maxLimit);
+    }
+
+    int limit() {
+        return (int) limit;
+    }
+
+    /**
+     * Incorpora la latencia de una operación terminada con {@code inFlight} todavía en curso
+     */
+    int update(long latencyNanos, int inFlight) {
+        double latency = Math.max(1, latencyNanos);
+        if (longLatency == 0) {
+            longLatency = latency;
+        } else {
+            double weight = latency > tolerance * longLatency ? OVERLOAD_WEIGHT : LONG_WEIGHT;
+            longLatency = longLatency * (1 - weight) + latency * weight;
+        }
+        // La carga bajó: la media a largo plazo se acerca más deprisa a las latencias actuales
+        if (longLatency / latency > 2) {
+            longLatency *= 0.95;
+        }
+        // Con el límite infrautilizado la latencia no indica si cabe más: no se amplía sin uso
+        if (inFlight < limit / 2) {
+            return limit();
+        }
+
+        double gradient = clamp(tolerance * longLatency / latency, 0.5, 1.0);
+        double target = gradient < 1 ? limit * gradient : limit + Math.sqrt(limit);
+        limit = clamp(limit * (1 - SMOOTHING) + target * SMOOTHING, minLimit, maxLimit);
+        return limit();
+    }
+
+    private static double clamp(double value, double min, double max) {
+        return Math.max(min, Math.min(max, value));
+    }
+}
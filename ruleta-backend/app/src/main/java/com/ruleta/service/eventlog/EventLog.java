@@ -0,0 +1,282 @@
+package com.ruleta.service.eventlog;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Log binario de solo escritura al final, en segmentos de tamaño fijo proyectados en memoria.
+ * <p>
+ * Cada registro es {@code [longitud int][crc32c int][datos]} y se identifica por su posición global
+ * (base del segmento + desplazamiento). Un segmento nuevo se crea con su tamaño completo, relleno de
+ * ceros: una longitud 0 marca el final de lo escrito y un registro que no cabe pasa al siguiente
+ * segmento. Escribir es copiar bytes en la página mapeada, así que un fallo del proceso no pierde nada;
+ * ante un fallo del sistema operativo solo es duradero lo ya sincronizado ({@code force}).
+ * <p>
+ * Al abrir se recorre el último segmento: el primer registro incompleto o con CRC incorrecto (una
+ * escritura cortada por una caída) se descarta junto con todo lo que le sigue.
+ */
+@Slf4j
+public class EventLog implements AutoCloseable {
+
+    static final int HEADER_BYTES = 8;
+
+    private final Path directory;
+    private final int segmentSize;
+    private final boolean forceOnAppend;
+    private final NavigableMap<Long, Segment> segments = new ConcurrentSkipListMap<>();
+    private final ReentrantLock appendLock = new ReentrantLock();
+    private volatile long end;
+
+    /**
+     * @param directory     directorio de los segmentos; se crea si no existe
+     * @param segmentSize   tamaño de cada segmento en bytes
+     * @param forceOnAppend sincronizar con disco tras cada registro
+     */
+    public EventLog(Path directory, int segmentSize, boolean forceOnAppend) {
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        this.forceOnAppend = forceOnAppend;
+        try {
+            Files.createDirectories(directory);
+            try (Stream<Path> files = Files.list(directory)) {
+                files.filter(file -> file.getFileName().toString().endsWith(".log"))
+                        .forEach(file -> {
+                            long base = Long.parseLong(file.getFileName().toString().replace(".log", ""));
+                            segments.put(base, Segment.open(file, base, segmentSize));
+                        });
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo abrir el log de eventos en " + directory, e);
+        }
+        this.end = recoverEnd();
+        log.info("Log de eventos abierto en {}: {} segmentos, {} bytes", directory, segments.size(), end);
+    }
+
+    /**
+     * Añade un registro y devuelve su posición
+     */
+    public long append(byte[] data) {
+        int recordSize = HEADER_BYTES + data.length;
+        if (recordSize > segmentSize) {
+            throw new IllegalArgumentException("Registro de " + data.length + " bytes mayor que el segmento");
+        }
+        CRC32C crc = new CRC32C();
+        crc.update(data);
+
+        appendLock.lock();
+        try {
+            Segment segment = segments.isEmpty() ? null : segments.lastEntry().getValue();
+            long position = end;
+            if (segment == null || position + recordSize > segment.base + segmentSize) {
+                // No cabe: el resto del segmento queda a cero y el registro empieza el siguiente
+                position = segment == null ? position : segment.base + segmentSize;
+                segment = createSegment(position);
+            }
+            int offset = (int) (position - segment.base);
+            segment.buffer.put(offset + HEADER_BYTES, data);
+            segment.buffer.putInt(offset + 4, (int) crc.getValue());
+            // La longitud se escribe la última: hasta entonces el registro no existe para los lectores
+            segment.buffer.putInt(offset, data.length);
+            if (forceOnAppend) {
+                segment.buffer.force(offset, recordSize);
+            }
+            end = position + recordSize;
+            return position;
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    /**
+     * Posición siguiente al último registro completo
+     */
+    public long end() {
+        return end;
+    }
+
+    /**
+     * Posición del primer registro conservado
+     */
+    public long start() {
+        return segments.isEmpty() ? end : segments.firstKey();
+    }
+
+    /**
+     * Lector desde {@code position}, que debe ser el inicio de un registro (o {@link #end()})
+     */
+    public Reader reader(long position) {
+        return new Reader(position);
+    }
+
+    /**
+     * Borra los segmentos cuyo contenido está entero antes de {@code position}. El último se conserva siempre.
+     */
+    public void deleteBefore(long position) {
+        appendLock.lock();
+        try {
+            while (segments.size() > 1) {
+                Map.Entry<Long, Segment> first = segments.firstEntry();
+                if (first.getKey() + segmentSize > position) {
+                    return;
+                }
+                segments.remove(first.getKey());
+                Files.deleteIfExists(first.getValue().file);
+                log.debug("Segmento del log borrado: {}", first.getValue().file);
+            }
+        } catch (IOException e) {
+            log.warn("No se pudo borrar un segmento del log: {}", e.getMessage());
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    /**
+     * Sincroniza con disco todo lo escrito
+     */
+    public void force() {
+        segments.values().forEach(segment -> segment.buffer.force());
+    }
+
+    @Override
+    public void close() {
+        force();
+    }
+
+    private Segment createSegment(long base) {
+        Segment segment = Segment.open(directory.resolve(String.format("%020d.log", base)), base, segmentSize);
+        segments.put(base, segment);
+        return segment;
+    }
+
+    // Los segmentos anteriores al último están completos: solo el último puede tener una cola cortada
+    private long recoverEnd() {
+        if (segments.isEmpty()) {
+            return 0;
+        }
+        Segment last = segments.lastEntry().getValue();
+        int offset = 0;
+        while (true) {
+            RecordCheck check = check(last, offset);
+            if (check == RecordCheck.END) {
+                break;
+            }
+            if (check == RecordCheck.CORRUPT) {
+                log.warn("Registro incompleto o dañado en la posición {} del log: se descarta la cola", last.base + offset);
+                byte[] zeros = new byte[64 * 1024];
+                for (int i = offset; i < segmentSize; i += zeros.length) {
+                    last.buffer.put(i, zeros, 0, Math.min(zeros.length, segmentSize - i));
+                }
+                last.buffer.force();
+                break;
+            }
+            offset += HEADER_BYTES + last.buffer.getInt(offset);
+        }
+        return last.base + offset;
+    }
+
+    private enum RecordCheck {
+        VALID, END, CORRUPT
+    }
+
+    private RecordCheck check(Segment segment, int offset) {
+        if (offset + HEADER_BYTES > segmentSize) {
+            return RecordCheck.END;
+        }
+        int length = segment.buffer.getInt(offset);
+        if (length == 0) {
+            return RecordCheck.END;
+        }
+        if (length < 0 || offset + HEADER_BYTES + length > segmentSize) {
+            return RecordCheck.CORRUPT;
+        }
+        byte[] data = new byte[length];
+        segment.buffer.get(offset + HEADER_BYTES, data);
+        CRC32C crc = new CRC32C();
+        crc.update(data);
+        return (int) crc.getValue() == segment.buffer.getInt(offset + 4) ? RecordCheck.VALID : RecordCheck.CORRUPT;
+    }
+
+    /**
+     * Recorre los registros en orden. No es seguro entre hilos; cada hilo usa el suyo.
+     */
+    public final class Reader {
+
+        private long position;
+
+        private Reader(long position) {
+            this.position = position;
+        }
+
+        /**
+         * Siguiente registro completo, o null si se ha alcanzado el final actual del log
+         */
+        public byte[] next() {
+            long limit = end;
+            while (position < limit) {
+                Map.Entry<Long, Segment> entry = segments.floorEntry(position);
+                if (entry == null) {
+                    throw new IllegalStateException("La posición " + position + " del log ya no existe");
+                }
+                Segment segment = entry.getValue();
+                int offset = (int) (position - segment.base);
+                int length = offset + HEADER_BYTES <= segmentSize ? segment.buffer.getInt(offset) : 0;
+                if (length == 0) {
+                    // Resto del segmento sin usar
+                    position = segment.base + segmentSize;
+                    continue;
+                }
+                byte[] data = new byte[length];
+                segment.buffer.get(offset + HEADER_BYTES, data);
+                position += HEADER_BYTES + length;
+                return data;
+            }
+            return null;
+        }
+
+        /**
+         * Posición del siguiente registro por leer
+         */
+        public long position() {
+            return position;
+        }
+    }
+
+    private static final class Segment {
+
+        private final Path file;
+        private final long base;
+        private final MappedByteBuffer buffer;
+
+        private Segment(Path file, long base, MappedByteBuffer buffer) {
+            this.file = file;
+            this.base = base;
+            this.buffer = buffer;
+        }
+
+        // Un segmento más corto de lo esperado (fichero truncado) se amplía con ceros antes de mapearlo
+        private static Segment open(Path file, long base, int size) {
+            try (RandomAccessFile raf = new RandomAccessFile(file.toFile(), "rw")) {
+                if (raf.length() < size) {
+                    raf.setLength(size);
+                }
+                MappedByteBuffer buffer = raf.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, size);
+                return new Segment(file, base, buffer);
+            } catch (IOException e) {
+                throw new UncheckedIOException("No se pudo mapear el segmento " + file, e);
+            }
+        }
+    }
+}
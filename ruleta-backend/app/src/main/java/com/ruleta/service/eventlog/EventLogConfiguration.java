@@ -0,0 +1,21 @@
+package com.ruleta.service.eventlog;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+
+@Configuration
+@ConditionalOnProperty(name = "ruleta.storage.engine", havingValue = "event-log")
+public class EventLogConfiguration {
+
+    @Bean(destroyMethod = "close")
+    public EventLog eventLog(@Value("${ruleta.event-log.directory:./data/event-log}") Path directory,
+                             @Value("${ruleta.event-log.segment-size:64MB}") DataSize segmentSize,
+                             @Value("${ruleta.event-log.force:false}") boolean force) {
+        return new EventLog(directory, Math.toIntExact(segmentSize.toBytes()), force);
+    }
+}
@@ -0,0 +1,249 @@
+package com.ruleta.service.eventlog;
+
+import com.ruleta.entity.EventLogCheckpoint;
+import com.ruleta.entity.Participant;
+import com.ruleta.entity.SelectionHistory;
+import com.ruleta.entity.Wheel;
+import com.ruleta.repository.EventLogCheckpointRepository;
+import com.ruleta.repository.ParticipantRepository;
+import com.ruleta.repository.SelectionHistoryRepository;
+import com.ruleta.service.SelectionRollupUpdater;
+import com.ruleta.service.WheelRegistry;
+import com.ruleta.service.eventlog.WheelChange.ParticipantState;
+import com.ruleta.service.eventlog.WheelChange.Selection;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mantiene las tablas JPA al día con el log de eventos (motor event-log), para el historial, las
+ * estadísticas y cualquier consulta SQL.
+ * <p>
+ * Un hilo lee el log desde la última posición proyectada y aplica cada lote de registros en una sola
+ * transacción: estado de ruletas y participantes, historial, acumulados y la nueva posición. Si la
+ * transacción falla, el lote se repite entero. Los ids del log no son los de JPA: los participantes se
+ * emparejan por ruleta y nombre la primera vez y después por el id ya conocido.
+ * <p>
+ * Tras cada lote se borran los segmentos del log que ya no hacen falta ni para la proyección ni para
+ * arrancar desde las instantáneas guardadas.
+ */
+@Component
+@ConditionalOnProperty(name = "ruleta.storage.engine", havingValue = "event-log")
+@Slf4j
+public class EventLogProjector {
+
+    static final String CHECKPOINT = "jpa-projection";
+
+    private final EventLog eventLog;
+    private final EventLogWheelStore wheelStore;
+    private final WheelRegistry wheelRegistry;
+    private final ParticipantRepository participantRepository;
+    private final SelectionHistoryRepository selectionHistoryRepository;
+    private final SelectionRollupUpdater selectionRollupUpdater;
+    private final EventLogCheckpointRepository checkpointRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final Duration interval;
+    // Id del log → id JPA; solo lo usa el hilo del proyector
+    private final Map<Long, Long> participantIds = new HashMap<>();
+    private final Thread thread;
+    private volatile boolean running = true;
+    private volatile long position;
+
+    public EventLogProjector(EventLog eventLog,
+                             EventLogWheelStore wheelStore,
+                             WheelRegistry wheelRegistry,
+                             ParticipantRepository participantRepository,
+                             SelectionHistoryRepository selectionHistoryRepository,
+                             SelectionRollupUpdater selectionRollupUpdater,
+                             EventLogCheckpointRepository checkpointRepository,
+                             PlatformTransactionManager transactionManager,
+                             MeterRegistry meterRegistry,
+                             @Value("${ruleta.event-log.projection-batch:500}") int batchSize,
+                             @Value("${ruleta.event-log.projection-interval:200ms}") Duration interval) {
+        this.eventLog = eventLog;
+        this.wheelStore = wheelStore;
+        this.wheelRegistry = wheelRegistry;
+        this.participantRepository = participantRepository;
+        this.selectionHistoryRepository = selectionHistoryRepository;
+        this.selectionRollupUpdater = selectionRollupUpdater;
+        this.checkpointRepository = checkpointRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = Math.max(1, batchSize);
+        this.interval = interval;
+        this.thread = new Thread(this::run, "event-log-projector");
+        this.thread.setDaemon(true);
+
+        Gauge.builder("ruleta.event-log.projection.lag", this, projector -> eventLog.end() - projector.position)
+                .description("Bytes del log de eventos pendientes de proyectar en las tablas JPA")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    void start() {
+        position = loadCheckpoint();
+        thread.start();
+        log.info("Proyección del log de eventos desde la posición {}", position);
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        running = false;
+        thread.join(TimeUnit.SECONDS.toMillis(30));
+        // Lo que quede se proyecta ahora para no dejar la base de datos atrasada al parar
+        while (projectBatch() > 0) {
+            // siguiente lote
+        }
+    }
+
+    /**
+     * Posición del log hasta la que las tablas JPA están al día
+     */
+    public long position() {
+        return position;
+    }
+
+    private long loadCheckpoint() {
+        if (wheelStore.bootstrapped()) {
+            // Log nuevo: lo anterior ya está en las tablas de las que se tomó el estado inicial
+            long start = eventLog.start();
+            transactionTemplate.executeWithoutResult(status ->
+                    checkpointRepository.save(new EventLogCheckpoint(CHECKPOINT, start)));
+            return start;
+        }
+        long checkpoint = checkpointRepository.findById(CHECKPOINT)
+                .map(EventLogCheckpoint::getPosition)
+                .orElse(eventLog.start());
+        if (checkpoint < eventLog.start()) {
+            log.warn("La posición proyectada {} ya no está en el log: se continúa desde {}", checkpoint, eventLog.start());
+            return eventLog.start();
+        }
+        return checkpoint;
+    }
+
+    private void run() {
+        while (running) {
+            try {
+                if (projectBatch() == 0) {
+                    Thread.sleep(interval.toMillis());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.error("Error proyectando el log de eventos desde la posición {}", position, e);
+                try {
+                    Thread.sleep(interval.toMillis());
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    private synchronized int projectBatch() {
+        EventLog.Reader reader = eventLog.reader(position);
+        List<WheelChange> changes = new ArrayList<>();
+        byte[] data;
+        while (changes.size() < batchSize && (data = reader.next()) != null) {
+            changes.add(WheelChange.decode(data));
+        }
+        if (changes.isEmpty()) {
+            return 0;
+        }
+
+        long next = reader.position();
+        Map<Long, Long> created = new HashMap<>();
+        transactionTemplate.executeWithoutResult(status -> project(changes, next, created));
+        // Solo tras el commit: un lote repetido no debe apuntar a filas que no llegaron a existir
+        participantIds.putAll(created);
+        position = next;
+        eventLog.deleteBefore(Math.min(next, wheelStore.retainedFrom()));
+        return changes.size();
+    }
+
+    private void project(List<WheelChange> changes, long next, Map<Long, Long> created) {
+        // Participantes ya emparejados: una sola carga por id para todo el lote
+        Set<Long> knownIds = new HashSet<>();
+        for (WheelChange change : changes) {
+            for (ParticipantState state : change.participants()) {
+                Long id = participantIds.get(state.id());
+                if (id != null) {
+                    knownIds.add(id);
+                }
+            }
+        }
+        Map<Long, Participant> known = new HashMap<>();
+        participantRepository.findAllById(knownIds).forEach(participant -> known.put(participant.getId(), participant));
+
+        Map<Long, Participant> byLogId = new HashMap<>();
+        List<SelectionHistory> history = new ArrayList<>();
+        for (WheelChange change : changes) {
+            Wheel wheel = wheelRegistry.getOrCreate(change.wheel().name());
+            change.wheel().applyTo(wheel);
+
+            for (ParticipantState state : change.participants()) {
+                Participant participant = byLogId.get(state.id());
+                if (participant == null) {
+                    participant = resolve(wheel, state, known, created);
+                    byLogId.put(state.id(), participant);
+                }
+                state.applyTo(participant);
+            }
+
+            for (Selection selection : change.selections()) {
+                Participant participant = byLogId.get(selection.participantId());
+                if (participant == null) {
+                    Long id = participantIds.get(selection.participantId());
+                    if (id == null) {
+                        throw new IllegalStateException("Selección de un participante desconocido: " + selection.participantId());
+                    }
+                    participant = participantRepository.getReferenceById(id);
+                }
+                SelectionHistory entry = new SelectionHistory(participant, selection.totalParticipants(),
+                        selection.probabilityAtSelection());
+                entry.setWheel(wheel);
+                entry.setSelectedAt(selection.selectedAt());
+                history.add(entry);
+            }
+        }
+
+        selectionHistoryRepository.saveAll(history);
+        selectionRollupUpdater.apply(history);
+        checkpointRepository.save(new EventLogCheckpoint(CHECKPOINT, next));
+    }
+
+    private Participant resolve(Wheel wheel, ParticipantState state, Map<Long, Participant> known, Map<Long, Long> created) {
+        Long id = participantIds.get(state.id());
+        Participant participant = id != null ? known.get(id) : null;
+        if (participant == null) {
+            participant = participantRepository.findByWheelAndName(wheel, state.name())
+                    .orElseGet(() -> {
+                        Participant inserted = new Participant(wheel, state.name());
+                        inserted.setCreatedAt(state.createdAt());
+                        state.applyTo(inserted);
+                        return participantRepository.save(inserted);
+                    });
+            created.put(state.id(), participant.getId());
+        }
+        return participant;
+    }
+}
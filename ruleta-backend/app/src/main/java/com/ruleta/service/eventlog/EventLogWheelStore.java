@@ -0,0 +1,592 @@
+package com.ruleta.service.eventlog;
+
+import com.ruleta.entity.Participant;
+import com.ruleta.entity.SelectionHistory;
+import com.ruleta.entity.Wheel;
+import com.ruleta.repository.ParticipantRepository;
+import com.ruleta.repository.WheelRepository;
+import com.ruleta.service.WheelStore;
+import com.ruleta.service.eventlog.WheelChange.ParticipantState;
+import com.ruleta.service.eventlog.WheelChange.Selection;
+import com.ruleta.service.eventlog.WheelChange.WheelState;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.BiConsumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Motor event-log: el estado actual vive en memoria y cada operación de escritura es un único registro
+ * {@link WheelChange} añadido al final del {@link EventLog}. Las tablas JPA las mantiene al día en
+ * segundo plano {@link EventLogProjector}, del que se leen el historial y las estadísticas.
+ * <p>
+ * Cada ruleta y participante guarda el último estado escrito en el log. Al cerrar una operación solo
+ * se comparan con él la ruleta y los participantes que la operación anotó ({@link #markChanged}) o dio de
+ * alta, y se registran los que cambiaron: el coste no depende del tamaño de la ruleta. Ese estado escrito, inmutable, es también lo
+ * que ven las lecturas concurrentes y lo que se vuelca en las instantáneas.
+ * <p>
+ * Cada {@code snapshot-every} bytes de log se escribe en segundo plano una instantánea compacta del
+ * estado con la posición del log en que empezó. No detiene las escrituras: lo que cambie mientras se
+ * escribe está también en los registros posteriores a esa posición, y reproducirlos es idempotente.
+ * Al arrancar se carga la última instantánea válida y se reproduce el log desde su posición; sin
+ * instantánea ni log, el estado inicial se toma de las tablas JPA.
+ * <p>
+ * Un fallo no deshace lo aplicado en memoria ({@link #supportsRollback()}): las operaciones validan
+ * antes de modificar nada. Si lo que falla es añadir el propio registro, la ruleta y los participantes
+ * de la operación vuelven al último estado escrito, y el error llega al llamador: lo que queda en
+ * memoria es siempre lo que un arranque reproduciría del log.
+ */
+@Component
+@ConditionalOnProperty(name = "ruleta.storage.engine", havingValue = "event-log")
+@Slf4j
+public class EventLogWheelStore implements WheelStore {
+
+    private static final int SNAPSHOT_MAGIC = 0x52534E50;
+    private static final int SNAPSHOTS_KEPT = 2;
+    private static final String SNAPSHOT_PREFIX = "snapshot-";
+    private static final String SNAPSHOT_SUFFIX = ".bin";
+
+    private final EventLog eventLog;
+    private final WheelRepository wheelRepository;
+    private final ParticipantRepository participantRepository;
+    private final Path directory;
+    private final long snapshotEvery;
+    private final Map<String, WheelSlot> wheels = new ConcurrentHashMap<>();
+    private final AtomicLong lastWheelId = new AtomicLong();
+    private final AtomicLong lastParticipantId = new AtomicLong();
+    private final AtomicBoolean snapshotPending = new AtomicBoolean();
+    // Compartido por los commits mientras añaden y publican; exclusivo para fijar la posición de una instantánea
+    private final ReadWriteLock logLock = new ReentrantReadWriteLock();
+    private final ExecutorService snapshotWriter = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "event-log-snapshot");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private volatile long snapshotPosition;
+    private volatile long retainedFrom;
+    private boolean bootstrapped;
+
+    public EventLogWheelStore(EventLog eventLog,
+                              WheelRepository wheelRepository,
+                              ParticipantRepository participantRepository,
+                              @Value("${ruleta.event-log.directory:./data/event-log}") Path directory,
+                              @Value("${ruleta.event-log.snapshot-every:16MB}") DataSize snapshotEvery) {
+        this.eventLog = eventLog;
+        this.wheelRepository = wheelRepository;
+        this.participantRepository = participantRepository;
+        this.directory = directory;
+        this.snapshotEvery = snapshotEvery.toBytes();
+    }
+
+    @PostConstruct
+    void open() {
+        long started = System.nanoTime();
+        Long from = null;
+        List<Path> snapshots = snapshots();
+        for (int i = snapshots.size() - 1; i >= 0 && from == null; i--) {
+            try {
+                from = loadSnapshot(snapshots.get(i));
+            } catch (IOException | RuntimeException e) {
+                log.warn("Instantánea {} ilegible, se prueba la anterior: {}", snapshots.get(i), e.getMessage());
+                wheels.clear();
+            }
+        }
+        if (from == null) {
+            if (eventLog.end() > 0) {
+                throw new IllegalStateException("El log de eventos de " + directory
+                        + " no tiene una instantánea válida desde la que reproducirlo");
+            }
+            bootstrap();
+            from = eventLog.end();
+        }
+
+        int records = replay(from);
+        snapshotPosition = from;
+        retainedFrom = snapshots().stream().findFirst().map(EventLogWheelStore::positionOf).orElse(from);
+        log.info("Estado del log de eventos cargado en {} ms: {} ruletas, {} registros reproducidos desde la posición {}",
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started), wheels.size(), records, from);
+    }
+
+    @PreDestroy
+    void close() throws InterruptedException {
+        snapshotWriter.shutdown();
+        snapshotWriter.awaitTermination(30, TimeUnit.SECONDS);
+        // Una instantánea al parar deja el siguiente arranque sin nada que reproducir
+        if (eventLog.end() > snapshotPosition) {
+            writeSnapshot();
+        }
+    }
+
+    @Override
+    public Optional<View> view(String wheelName) {
+        validateName(wheelName);
+        WheelSlot slot = wheels.get(wheelName);
+        WheelState state = slot != null ? slot.logged : null;
+        if (state == null) {
+            return Optional.empty();
+        }
+        Wheel wheel = restoreWheel(state);
+        List<Participant> active = new ArrayList<>();
+        for (ParticipantSlot participant : slot.byId.values()) {
+            ParticipantState logged = participant.logged;
+            if (logged != null && logged.active()) {
+                active.add(restoreParticipant(wheel, logged));
+            }
+        }
+        return Optional.of(new View(wheel, active));
+    }
+
+    /**
+     * Desde los estados ya escritos en el log, como {@link #view}; cada participante se copia al entregarlo
+     */
+    @Override
+    public boolean forEachParticipant(String wheelName, BiConsumer<Wheel, Participant> consumer) {
+        validateName(wheelName);
+        WheelSlot slot = wheels.get(wheelName);
+        WheelState state = slot != null ? slot.logged : null;
+        if (state == null) {
+            return false;
+        }
+        Wheel wheel = restoreWheel(state);
+        for (ParticipantSlot participant : slot.byId.values()) {
+            ParticipantState logged = participant.logged;
+            if (logged != null) {
+                consumer.accept(wheel, restoreParticipant(wheel, logged));
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public Wheel getOrCreateWheel(String name) {
+        validateName(name);
+        return wheels.computeIfAbsent(name, key -> {
+            Wheel wheel = new Wheel(key);
+            wheel.setId(lastWheelId.incrementAndGet());
+            log.info("Nueva ruleta creada: {}", key);
+            return new WheelSlot(wheel);
+        }).wheel;
+    }
+
+    @Override
+    public Optional<Wheel> findWheel(String name) {
+        validateName(name);
+        return Optional.ofNullable(wheels.get(name)).map(slot -> slot.wheel);
+    }
+
+    @Override
+    public List<Participant> findActive(Wheel wheel) {
+        return slotOf(wheel).byId.values().stream()
+                .map(slot -> slot.participant)
+                .filter(Participant::getIsActive)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public long countActive(Wheel wheel) {
+        long count = 0;
+        for (ParticipantSlot slot : slotOf(wheel).byId.values()) {
+            if (slot.participant.getIsActive()) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Override
+    public Optional<Participant> findByName(Wheel wheel, String name) {
+        return Optional.ofNullable(slotOf(wheel).byName.get(name)).map(slot -> slot.participant);
+    }
+
+    @Override
+    public List<Participant> findByNames(Wheel wheel, Collection<String> names) {
+        WheelSlot wheelSlot = slotOf(wheel);
+        List<Participant> found = new ArrayList<>(names.size());
+        for (String name : names) {
+            ParticipantSlot slot = wheelSlot.byName.get(name);
+            if (slot != null) {
+                found.add(slot.participant);
+            }
+        }
+        return found;
+    }
+
+    @Override
+    public List<Participant> insert(Wheel wheel, List<Participant> participants) {
+        WheelSlot wheelSlot = slotOf(wheel);
+        for (Participant participant : participants) {
+            participant.setId(lastParticipantId.incrementAndGet());
+            wheelSlot.dirty.add(wheelSlot.add(participant));
+        }
+        return participants;
+    }
+
+    /**
+     * Los que aún no tienen id se darán de alta con {@link #insert}, que ya los anota
+     */
+    @Override
+    public void markChanged(Wheel wheel, Participant participant) {
+        if (participant.getId() == null) {
+            return;
+        }
+        WheelSlot wheelSlot = slotOf(wheel);
+        ParticipantSlot slot = wheelSlot.byId.get(participant.getId());
+        if (slot != null) {
+            wheelSlot.dirty.add(slot);
+        }
+    }
+
+    /**
+     * Añade al log el estado de la ruleta, el de los participantes anotados que cambiaron desde el último
+     * registro y las selecciones. Solo recorre los anotados en esta operación.
+     */
+    @Override
+    public void commit(Wheel wheel, List<SelectionHistory> selections) {
+        WheelSlot wheelSlot = slotOf(wheel);
+        List<ParticipantSlot> changedSlots = new ArrayList<>(wheelSlot.dirty.size());
+        List<ParticipantState> changed = new ArrayList<>(wheelSlot.dirty.size());
+        for (ParticipantSlot slot : wheelSlot.dirty) {
+            if (slot.logged == null || !slot.logged.matches(slot.participant)) {
+                changedSlots.add(slot);
+                changed.add(ParticipantState.of(slot.participant));
+            }
+        }
+        wheelSlot.dirty.clear();
+        WheelState wheelState = wheelSlot.logged != null && wheelSlot.logged.matches(wheel)
+                ? wheelSlot.logged : WheelState.of(wheel);
+        if (changed.isEmpty() && selections.isEmpty() && wheelState == wheelSlot.logged) {
+            return;
+        }
+
+        List<Selection> entries = new ArrayList<>(selections.size());
+        for (SelectionHistory selection : selections) {
+            entries.add(Selection.of(selection));
+        }
+
+        // El estado escrito se publica solo si el registro llegó al log. Con el cerrojo, una instantánea
+        // no puede fijar una posición posterior al registro mientras ve todavía el estado anterior a él
+        logLock.readLock().lock();
+        try {
+            eventLog.append(new WheelChange(wheelState, changed, entries).encode());
+            for (int i = 0; i < changedSlots.size(); i++) {
+                changedSlots.get(i).logged = changed.get(i);
+            }
+            wheelSlot.logged = wheelState;
+        } catch (RuntimeException e) {
+            restore(wheelSlot, changedSlots);
+            log.error("No se pudo añadir al log el cambio de '{}': se vuelve al último estado escrito", wheel.getName(), e);
+            throw e;
+        } finally {
+            logLock.readLock().unlock();
+        }
+
+        if (eventLog.end() - snapshotPosition >= snapshotEvery && snapshotPending.compareAndSet(false, true)) {
+            snapshotWriter.execute(() -> {
+                try {
+                    writeSnapshot();
+                } catch (RuntimeException e) {
+                    log.error("No se pudo escribir la instantánea del log de eventos", e);
+                } finally {
+                    snapshotPending.set(false);
+                }
+            });
+        }
+    }
+
+    @Override
+    public boolean supportsRollback() {
+        return false;
+    }
+
+    /**
+     * Devuelve a su último estado escrito la ruleta y los participantes de un cambio que no llegó al log.
+     * Los que nunca se escribieron (altas de la operación, o la ruleta recién creada) se retiran.
+     */
+    private void restore(WheelSlot wheelSlot, List<ParticipantSlot> changedSlots) {
+        for (ParticipantSlot slot : changedSlots) {
+            if (slot.logged != null) {
+                slot.logged.applyTo(slot.participant);
+            } else {
+                wheelSlot.byName.remove(slot.participant.getName(), slot);
+                wheelSlot.byId.remove(slot.participant.getId(), slot);
+            }
+        }
+        if (wheelSlot.logged != null) {
+            wheelSlot.logged.applyTo(wheelSlot.wheel);
+        } else {
+            wheels.remove(wheelSlot.wheel.getName(), wheelSlot);
+        }
+    }
+
+    /**
+     * Si el estado inicial se tomó de las tablas JPA en este arranque (log nuevo)
+     */
+    public boolean bootstrapped() {
+        return bootstrapped;
+    }
+
+    /**
+     * Posición desde la que hay que conservar el log para poder arrancar con cualquier instantánea guardada
+     */
+    public long retainedFrom() {
+        return retainedFrom;
+    }
+
+    // Sin log ni instantáneas: se parte de las tablas JPA con los mismos ids y se fija ese estado
+    private void bootstrap() {
+        int participants = 0;
+        for (Wheel wheel : wheelRepository.findAll()) {
+            List<ParticipantState> states = participantRepository.findByWheel(wheel).stream()
+                    .map(ParticipantState::of)
+                    .collect(Collectors.toList());
+            apply(new WheelChange(WheelState.of(wheel), states, List.of()));
+            participants += states.size();
+        }
+        bootstrapped = true;
+        writeSnapshot();
+        log.info("Log de eventos nuevo: estado inicial tomado de la base de datos ({} ruletas, {} participantes)",
+                wheels.size(), participants);
+    }
+
+    private int replay(long from) {
+        EventLog.Reader reader = eventLog.reader(from);
+        int records = 0;
+        byte[] data;
+        while ((data = reader.next()) != null) {
+            apply(WheelChange.decode(data));
+            records++;
+        }
+        return records;
+    }
+
+    // Sobrescribe con el estado del registro: aplicarlo de nuevo no cambia nada
+    private void apply(WheelChange change) {
+        WheelState wheelState = change.wheel();
+        WheelSlot wheelSlot = wheels.computeIfAbsent(wheelState.name(), name -> new WheelSlot(restoreWheel(wheelState)));
+        wheelState.applyTo(wheelSlot.wheel);
+        wheelSlot.logged = wheelState;
+        lastWheelId.accumulateAndGet(wheelState.id(), Math::max);
+
+        for (ParticipantState state : change.participants()) {
+            ParticipantSlot slot = wheelSlot.byId.get(state.id());
+            if (slot == null) {
+                slot = wheelSlot.add(restoreParticipant(wheelSlot.wheel, state));
+            }
+            state.applyTo(slot.participant);
+            slot.logged = state;
+            lastParticipantId.accumulateAndGet(state.id(), Math::max);
+        }
+    }
+
+    /**
+     * Vuelca el estado escrito de todas las ruletas. Empieza fijando la posición y sincronizando el log hasta
+     * ella: la instantánea nunca apunta más allá de lo que sobrevive a una caída del sistema.
+     */
+    private synchronized void writeSnapshot() {
+        long position;
+        logLock.writeLock().lock();
+        try {
+            position = eventLog.end();
+        } finally {
+            logLock.writeLock().unlock();
+        }
+        eventLog.force();
+        Path target = directory.resolve(String.format("%s%020d%s", SNAPSHOT_PREFIX, position, SNAPSHOT_SUFFIX));
+        Path temporary = directory.resolve(target.getFileName() + ".tmp");
+        try {
+            CRC32C crc = new CRC32C();
+            try (OutputStream file = Files.newOutputStream(temporary);
+                 DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new CheckedOutputStream(file, crc)))) {
+                List<WheelSlot> slots = wheels.values().stream()
+                        .filter(slot -> slot.logged != null)
+                        .collect(Collectors.toList());
+                out.writeInt(SNAPSHOT_MAGIC);
+                out.writeLong(position);
+                out.writeInt(slots.size());
+                for (WheelSlot slot : slots) {
+                    List<ParticipantState> states = new ArrayList<>(slot.byId.size());
+                    for (ParticipantSlot participant : slot.byId.values()) {
+                        if (participant.logged != null) {
+                            states.add(participant.logged);
+                        }
+                    }
+                    byte[] record = new WheelChange(slot.logged, states, List.of()).encode();
+                    out.writeInt(record.length);
+                    out.write(record);
+                }
+                out.flush();
+                out.writeInt((int) crc.getValue());
+            }
+            try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.WRITE)) {
+                channel.force(true);
+            }
+            Files.move(temporary, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo escribir la instantánea " + target, e);
+        }
+        snapshotPosition = position;
+        pruneSnapshots();
+        log.debug("Instantánea del log de eventos escrita en la posición {}", position);
+    }
+
+    private void pruneSnapshots() {
+        List<Path> snapshots = snapshots();
+        for (int i = 0; i < snapshots.size() - SNAPSHOTS_KEPT; i++) {
+            try {
+                Files.deleteIfExists(snapshots.get(i));
+            } catch (IOException e) {
+                log.warn("No se pudo borrar la instantánea {}: {}", snapshots.get(i), e.getMessage());
+            }
+        }
+        retainedFrom = positionOf(snapshots.get(Math.max(0, snapshots.size() - SNAPSHOTS_KEPT)));
+    }
+
+    /**
+     * Carga una instantánea y devuelve su posición; falla si el CRC no coincide o apunta más allá del log
+     */
+    private long loadSnapshot(Path file) throws IOException {
+        byte[] content = Files.readAllBytes(file);
+        CRC32C crc = new CRC32C();
+        crc.update(content, 0, content.length - 4);
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(content))) {
+            in.skipNBytes(content.length - 4);
+            if (in.readInt() != (int) crc.getValue()) {
+                throw new IOException("CRC incorrecto");
+            }
+        }
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(content, 0, content.length - 4))) {
+            if (in.readInt() != SNAPSHOT_MAGIC) {
+                throw new IOException("No es una instantánea del log de eventos");
+            }
+            long position = in.readLong();
+            if (position > eventLog.end() || position < eventLog.start()) {
+                throw new IOException("La posición " + position + " no está en el log");
+            }
+            int wheelCount = in.readInt();
+            for (int i = 0; i < wheelCount; i++) {
+                apply(WheelChange.decode(in.readNBytes(in.readInt())));
+            }
+            return position;
+        }
+    }
+
+    // Instantáneas de más antigua a más reciente
+    private List<Path> snapshots() {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> {
+                        String name = file.getFileName().toString();
+                        return name.startsWith(SNAPSHOT_PREFIX) && name.endsWith(SNAPSHOT_SUFFIX);
+                    })
+                    .sorted()
+                    .collect(Collectors.toList());
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo listar " + directory, e);
+        }
+    }
+
+    private static long positionOf(Path snapshot) {
+        String name = snapshot.getFileName().toString();
+        return Long.parseLong(name.substring(SNAPSHOT_PREFIX.length(), name.length() - SNAPSHOT_SUFFIX.length()));
+    }
+
+    private WheelSlot slotOf(Wheel wheel) {
+        WheelSlot slot = wheels.get(wheel.getName());
+        if (slot == null) {
+            throw new IllegalStateException("Ruleta desconocida para el log de eventos: " + wheel.getName());
+        }
+        return slot;
+    }
+
+    private static Wheel restoreWheel(WheelState state) {
+        Wheel wheel = new Wheel(state.name());
+        wheel.setId(state.id());
+        wheel.setCreatedAt(state.createdAt());
+        state.applyTo(wheel);
+        return wheel;
+    }
+
+    private static Participant restoreParticipant(Wheel wheel, ParticipantState state) {
+        Participant participant = new Participant(wheel, state.name());
+        participant.setId(state.id());
+        participant.setCreatedAt(state.createdAt());
+        state.applyTo(participant);
+        return participant;
+    }
+
+    private static void validateName(String name) {
+        if (name == null || name.isBlank()) {
+            throw new IllegalArgumentException("El nombre de la ruleta no puede estar vacío");
+        }
+    }
+
+    /**
+     * Ruleta en memoria: la entidad que modifica el hilo propietario y el último estado escrito en el log
+     */
+    private static final class WheelSlot {
+
+        private final Wheel wheel;
+        private final Map<String, ParticipantSlot> byName = new ConcurrentHashMap<>();
+        private final NavigableMap<Long, ParticipantSlot> byId = new ConcurrentSkipListMap<>();
+        // Participantes anotados por la operación en curso; solo los toca el hilo propietario
+        private final Set<ParticipantSlot> dirty = new LinkedHashSet<>();
+        private volatile WheelState logged;
+
+        private WheelSlot(Wheel wheel) {
+            this.wheel = wheel;
+        }
+
+        private ParticipantSlot add(Participant participant) {
+            ParticipantSlot slot = new ParticipantSlot(participant);
+            byName.put(participant.getName(), slot);
+            byId.put(participant.getId(), slot);
+            return slot;
+        }
+    }
+
+    private static final class ParticipantSlot {
+
+        private final Participant participant;
+        private volatile ParticipantState logged;
+
+        private ParticipantSlot(Participant participant) {
+            this.participant = participant;
+        }
+    }
+}
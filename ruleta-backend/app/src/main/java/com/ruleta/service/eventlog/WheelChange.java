@@ -0,0 +1,170 @@
+package com.ruleta.service.eventlog;
+
+import com.ruleta.entity.Participant;
+import com.ruleta.entity.SelectionHistory;
+import com.ruleta.entity.Wheel;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Registro del log de eventos: el estado de una ruleta, el estado completo de los participantes que
+ * cambiaron en una operación y las selecciones que produjo. Un spin, un alta, una baja o un reseteo
+ * son un solo registro.
+ * <p>
+ * Los estados son absolutos, no incrementos: aplicar un registro es sobrescribir, así que repetirlo
+ * no cambia el resultado. Eso permite reproducir el log sobre una instantánea tomada sin detener las
+ * escrituras y no depende de la política de pesos configurada al reproducir.
+ */
+record WheelChange(WheelState wheel, List<ParticipantState> participants, List<Selection> selections) {
+
+    private static final byte FORMAT = 1;
+    private static final long NO_TIME = Long.MIN_VALUE;
+
+    record WheelState(long id, String name, LocalDateTime createdAt, long boostEpoch,
+                      Double boostFactor, Double boostCap) {
+
+        static WheelState of(Wheel wheel) {
+            return new WheelState(wheel.getId(), wheel.getName(), wheel.getCreatedAt(), wheel.getBoostEpoch(),
+                    wheel.getBoostFactor(), wheel.getBoostCap());
+        }
+
+        boolean matches(Wheel wheel) {
+            return boostEpoch == wheel.getBoostEpoch()
+                    && Objects.equals(boostFactor, wheel.getBoostFactor())
+                    && Objects.equals(boostCap, wheel.getBoostCap());
+        }
+
+        void applyTo(Wheel wheel) {
+            wheel.setBoostEpoch(boostEpoch);
+            wheel.setBoostFactor(boostFactor);
+            wheel.setBoostCap(boostCap);
+        }
+    }
+
+    record ParticipantState(long id, String name, int timesSelected, double probabilityWeight, long weightEpoch,
+                            LocalDateTime createdAt, LocalDateTime lastSelectedAt, boolean active) {
+
+        static ParticipantState of(Participant participant) {
+            return new ParticipantState(participant.getId(), participant.getName(), participant.getTimesSelected(),
+                    participant.getProbabilityWeight(), participant.getWeightEpoch(), participant.getCreatedAt(),
+                    participant.getLastSelectedAt(), participant.getIsActive());
+        }
+
+        // Sin reservar memoria: se comprueba en cada operación para todos los participantes de la ruleta
+        boolean matches(Participant participant) {
+            return timesSelected == participant.getTimesSelected()
+                    && probabilityWeight == participant.getProbabilityWeight()
+                    && weightEpoch == participant.getWeightEpoch()
+                    && active == participant.getIsActive()
+                    && Objects.equals(lastSelectedAt, participant.getLastSelectedAt());
+        }
+
+        void applyTo(Participant participant) {
+            participant.setTimesSelected(timesSelected);
+            participant.setProbabilityWeight(probabilityWeight);
+            participant.setWeightEpoch(weightEpoch);
+            participant.setLastSelectedAt(lastSelectedAt);
+            participant.setIsActive(active);
+        }
+    }
+
+    record Selection(long participantId, LocalDateTime selectedAt, int totalParticipants,
+                     double probabilityAtSelection) {
+
+        static Selection of(SelectionHistory history) {
+            return new Selection(history.getParticipant().getId(), history.getSelectedAt(),
+                    history.getTotalParticipants(), history.getProbabilityAtSelection());
+        }
+    }
+
+    byte[] encode() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64 + 48 * participants.size() + 28 * selections.size());
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(FORMAT);
+            out.writeLong(wheel.id());
+            out.writeUTF(wheel.name());
+            writeTime(out, wheel.createdAt());
+            out.writeLong(wheel.boostEpoch());
+            out.writeDouble(wheel.boostFactor() != null ? wheel.boostFactor() : Double.NaN);
+            out.writeDouble(wheel.boostCap() != null ? wheel.boostCap() : Double.NaN);
+
+            out.writeInt(participants.size());
+            for (ParticipantState participant : participants) {
+                out.writeLong(participant.id());
+                out.writeUTF(participant.name());
+                out.writeInt(participant.timesSelected());
+                out.writeDouble(participant.probabilityWeight());
+                out.writeLong(participant.weightEpoch());
+                writeTime(out, participant.createdAt());
+                writeTime(out, participant.lastSelectedAt());
+                out.writeBoolean(participant.active());
+            }
+
+            out.writeInt(selections.size());
+            for (Selection selection : selections) {
+                out.writeLong(selection.participantId());
+                writeTime(out, selection.selectedAt());
+                out.writeInt(selection.totalParticipants());
+                out.writeDouble(selection.probabilityAtSelection());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    static WheelChange decode(byte[] data) {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(data))) {
+            byte format = in.readByte();
+            if (format != FORMAT) {
+                throw new IllegalStateException("Formato de registro desconocido: " + format);
+            }
+            WheelState wheel = new WheelState(in.readLong(), in.readUTF(), readTime(in), in.readLong(),
+                    readNullable(in.readDouble()), readNullable(in.readDouble()));
+
+            int participantCount = in.readInt();
+            List<ParticipantState> participants = new ArrayList<>(participantCount);
+            for (int i = 0; i < participantCount; i++) {
+                participants.add(new ParticipantState(in.readLong(), in.readUTF(), in.readInt(), in.readDouble(),
+                        in.readLong(), readTime(in), readTime(in), in.readBoolean()));
+            }
+
+            int selectionCount = in.readInt();
+            List<Selection> selections = new ArrayList<>(selectionCount);
+            for (int i = 0; i < selectionCount; i++) {
+                selections.add(new Selection(in.readLong(), readTime(in), in.readInt(), in.readDouble()));
+            }
+            return new WheelChange(wheel, participants, selections);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Registro del log ilegible", e);
+        }
+    }
+
+    private static void writeTime(DataOutputStream out, LocalDateTime time) throws IOException {
+        if (time == null) {
+            out.writeLong(NO_TIME);
+            return;
+        }
+        out.writeLong(time.toEpochSecond(ZoneOffset.UTC));
+        out.writeInt(time.getNano());
+    }
+
+    private static LocalDateTime readTime(DataInputStream in) throws IOException {
+        long seconds = in.readLong();
+        return seconds == NO_TIME ? null : LocalDateTime.ofEpochSecond(seconds, in.readInt(), ZoneOffset.UTC);
+    }
+
+    private static Double readNullable(double value) {
+        return Double.isNaN(value) ? null : value;
+    }
+}
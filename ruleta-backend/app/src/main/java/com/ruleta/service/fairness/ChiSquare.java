@@ -0,0 +1,90 @@
+package com.ruleta.service.fairness;
+
+/**
+ * Cola superior de la distribución chi-cuadrado, a partir de la función gamma incompleta regularizada
+ * (serie para x &lt; a + 1, fracción continua de Lentz en el resto)
+ */
+final class ChiSquare {
+
+    private static final int MAX_ITERATIONS = 500;
+    private static final double EPSILON = 1e-14;
+    private static final double TINY = 1e-300;
+    private static final double[] LANCZOS = {
+            76.18009172947146, -86.50532032941677, 24.01409824083091,
+            -1.231739572450155, 0.1208650973866179e-2, -0.5395239384953e-5
+    };
+
+    private ChiSquare() {
+    }
+
+    /**
+     * P(X ≥ statistic) para X con {@code degreesOfFreedom} grados de libertad
+     */
+    static double survival(double statistic, int degreesOfFreedom) {
+        if (degreesOfFreedom < 1) {
+            throw new IllegalArgumentException("Se requiere al menos un grado de libertad");
+        }
+        if (!(statistic > 0)) {
+            return 1.0;
+        }
+        return upperRegularizedGamma(degreesOfFreedom / 2.0, statistic / 2.0);
+    }
+
+    static double upperRegularizedGamma(double a, double x) {
+        if (x < a + 1) {
+            return 1.0 - lowerSeries(a, x);
+        }
+        return upperContinuedFraction(a, x);
+    }
+
+    private static double lowerSeries(double a, double x) {
+        double term = 1.0 / a;
+        double sum = term;
+        for (int n = 1; n < MAX_ITERATIONS; n++) {
+            term *= x / (a + n);
+            sum += term;
+            if (Math.abs(term) < Math.abs(sum) * EPSILON) {
+                break;
+            }
+        }
+        return sum * Math.exp(-x + a * Math.log(x) - logGamma(a));
+    }
+
+    private static double upperContinuedFraction(double a, double x) {
+        double b = x + 1 - a;
+        double c = 1 / TINY;
+        double d = 1 / b;
+        double h = d;
+        for (int i = 1; i < MAX_ITERATIONS; i++) {
+            double an = -i * (i - a);
+            b += 2;
+            d = an * d + b;
+            if (Math.abs(d) < TINY) {
+                d = TINY;
+            }
+            c = b + an / c;
+            if (Math.abs(c) < TINY) {
+                c = TINY;
+            }
+            d = 1 / d;
+            double delta = d * c;
+            h *= delta;
+            if (Math.abs(delta - 1) < EPSILON) {
+                break;
+            }
+        }
+        return Math.exp(-x + a * Math.log(x) - logGamma(a)) * h;
+    }
+
+    // Aproximación de Lanczos, suficiente para los p-valores que se muestran
+    static double logGamma(double x) {
+        double y = x;
+        double tmp = x + 5.5;
+        tmp -= (x + 0.5) * Math.log(tmp);
+        double series = 1.000000000190015;
+        for (double coefficient : LANCZOS) {
+            series += coefficient / ++y;
+        }
+        return -tmp + Math.log(2.5066282746310005 * series / x);
+    }
+}
@@ -0,0 +1,255 @@
+package com.ruleta.service.fairness;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ruleta.dto.FairnessReportDto;
+import com.ruleta.dto.HistoryEntryDto;
+import com.ruleta.entity.FairnessSnapshot;
+import com.ruleta.entity.Participant;
+import com.ruleta.entity.Wheel;
+import com.ruleta.repository.FairnessSnapshotRepository;
+import com.ruleta.repository.SelectionHistoryRepository;
+import com.ruleta.repository.WheelRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Analítica de equidad mantenida en línea, sin recorrer el historial en cada consulta.
+ * <p>
+ * Cada spin suma, a cada participante, su probabilidad {@code p} y {@code p·(1 - p)}: las victorias
+ * esperadas y su varianza. Sequías y rachas se actualizan en O(1) con el número de spin de la última
+ * victoria. Los spins se acumulan por transacción y se aplican tras el commit, así que un rollback o el
+ * reintento de un grupo en {@code SpinExecutor} no los cuenta dos veces.
+ * <p>
+ * Los acumuladores de las ruletas con cambios se guardan en {@code fairness_snapshots} cada
+ * {@code snapshot-interval} y al parar, y al arrancar se cargan de ahí sin tocar el historial: tras una
+ * caída faltan como mucho los spins del último intervalo. Solo una ruleta sin instantánea (historial de
+ * antes de esta tabla, o creada después de la última) se reconstruye una vez a partir de su historial, que
+ * guarda solo la probabilidad del ganador: victorias, probabilidad media al ganar, sequías y rachas; sus
+ * esperados y el chi-cuadrado parten de cero.
+ */
+@Component
+@Slf4j
+public class FairnessTracker implements SmartInitializingSingleton {
+
+    private final SelectionHistoryRepository selectionHistoryRepository;
+    private final WheelRepository wheelRepository;
+    private final FairnessSnapshotRepository fairnessSnapshotRepository;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate readTransaction;
+    private final TransactionTemplate writeTransaction;
+    private final Duration snapshotInterval;
+    private final ConcurrentMap<String, WheelFairness> wheels = new ConcurrentHashMap<>();
+    // Cambios de cada ruleta en su última instantánea guardada
+    private final ConcurrentMap<String, Long> savedChanges = new ConcurrentHashMap<>();
+    private final Thread snapshotThread;
+    private volatile boolean running = true;
+
+    public FairnessTracker(SelectionHistoryRepository selectionHistoryRepository,
+                           WheelRepository wheelRepository,
+                           FairnessSnapshotRepository fairnessSnapshotRepository,
+                           ObjectMapper objectMapper,
+                           PlatformTransactionManager transactionManager,
+                           @Value("${ruleta.fairness.snapshot-interval:1m}") Duration snapshotInterval) {
+        this.selectionHistoryRepository = selectionHistoryRepository;
+        this.wheelRepository = wheelRepository;
+        this.fairnessSnapshotRepository = fairnessSnapshotRepository;
+        this.objectMapper = objectMapper;
+        this.readTransaction = new TransactionTemplate(transactionManager);
+        this.readTransaction.setReadOnly(true);
+        this.writeTransaction = new TransactionTemplate(transactionManager);
+        this.snapshotInterval = snapshotInterval;
+        this.snapshotThread = new Thread(this::run, "fairness-snapshot");
+        this.snapshotThread.setDaemon(true);
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        List<FairnessSnapshot> snapshots = readTransaction.execute(status -> fairnessSnapshotRepository.findAll());
+        for (FairnessSnapshot snapshot : snapshots) {
+            wheels.put(snapshot.getWheelName(), WheelFairness.restore(snapshot.getWheelName(), read(snapshot)));
+            savedChanges.put(snapshot.getWheelName(), 0L);
+        }
+
+        long replayed = readTransaction.execute(status -> {
+            long count = 0;
+            for (Wheel wheel : wheelRepository.findAll()) {
+                if (wheels.containsKey(wheel.getName())) {
+                    continue;
+                }
+                WheelFairness fairness = wheel(wheel.getName());
+                try (Stream<HistoryEntryDto> entries = selectionHistoryRepository.streamEntriesChronologically(wheel)) {
+                    for (HistoryEntryDto entry : (Iterable<HistoryEntryDto>) entries::iterator) {
+                        fairness.replay(entry.getParticipantName(), entry.getProbabilityAtSelection());
+                        count++;
+                    }
+                }
+            }
+            return count;
+        });
+        // Las reconstruidas se guardan ya, para que el próximo arranque no vuelva a su historial
+        int rebuilt = snapshot();
+        log.info("Equidad cargada de {} instantáneas; {} ruletas reconstruidas con {} spins del historial",
+                snapshots.size(), rebuilt, replayed);
+
+        if (!snapshotInterval.isZero()) {
+            snapshotThread.start();
+        }
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        running = false;
+        snapshotThread.interrupt();
+        snapshotThread.join(TimeUnit.SECONDS.toMillis(10));
+        try {
+            snapshot();
+        } catch (RuntimeException e) {
+            log.error("Error guardando la equidad al parar", e);
+        }
+    }
+
+    /**
+     * Guarda los acumuladores de las ruletas con cambios desde su última instantánea
+     *
+     * @return ruletas guardadas
+     */
+    public int snapshot() {
+        List<FairnessSnapshot> changed = new ArrayList<>();
+        Map<String, Long> changes = new HashMap<>();
+        wheels.forEach((name, fairness) -> {
+            // Antes que el estado: un spin entre medias queda guardado y se vuelve a guardar la próxima vez
+            long current = fairness.changes();
+            if (!Objects.equals(savedChanges.get(name), current)) {
+                changed.add(new FairnessSnapshot(name, LocalDateTime.now(), write(fairness.state())));
+                changes.put(name, current);
+            }
+        });
+        if (!changed.isEmpty()) {
+            writeTransaction.executeWithoutResult(status -> fairnessSnapshotRepository.saveAll(changed));
+            savedChanges.putAll(changes);
+        }
+        return changed.size();
+    }
+
+    /**
+     * Registra un spin con las probabilidades con que se hizo, por posición en {@code participants}.
+     * Dentro de una transacción se aplica tras el commit
+     */
+    public void record(String wheelName, List<Participant> participants, int winner, double[] probabilities) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            PendingSpins pending = new PendingSpins(wheelName, participants);
+            pending.add(winner, probabilities, wheel(wheelName).streakHolder());
+            wheel(wheelName).apply(pending);
+            return;
+        }
+
+        List<PendingSpins> pendings = pendingInTransaction();
+        PendingSpins last = null;
+        for (PendingSpins pending : pendings) {
+            if (pending.wheelName().equals(wheelName)) {
+                last = pending;
+            }
+        }
+        String previousWinner = last != null ? last.lastWinner() : wheel(wheelName).streakHolder();
+        if (last == null || !last.accepts(wheelName, participants)) {
+            last = new PendingSpins(wheelName, participants);
+            pendings.add(last);
+        }
+        last.add(winner, probabilities, previousWinner);
+    }
+
+    /**
+     * Vacía los acumuladores de una ruleta al resetear sus estadísticas.
+     * Dentro de una transacción se aplica tras el commit, en orden con los spins de la misma transacción
+     */
+    public void reset(String wheelName) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            wheel(wheelName).reset();
+            return;
+        }
+        pendingInTransaction().add(PendingSpins.reset(wheelName));
+    }
+
+    public Optional<FairnessReportDto> report(String wheelName) {
+        return Optional.ofNullable(wheels.get(wheelName)).map(WheelFairness::report);
+    }
+
+    private WheelFairness wheel(String wheelName) {
+        return wheels.computeIfAbsent(wheelName, WheelFairness::new);
+    }
+
+    private void run() {
+        try {
+            while (running) {
+                Thread.sleep(snapshotInterval.toMillis());
+                try {
+                    snapshot();
+                } catch (RuntimeException e) {
+                    log.error("Error guardando la equidad", e);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private WheelFairness.State read(FairnessSnapshot snapshot) {
+        try {
+            return objectMapper.readValue(snapshot.getState(), WheelFairness.State.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Instantánea de equidad ilegible: " + snapshot.getWheelName(), e);
+        }
+    }
+
+    private String write(WheelFairness.State state) {
+        try {
+            return objectMapper.writeValueAsString(state);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("No se pudo serializar la equidad", e);
+        }
+    }
+
+    private List<PendingSpins> pendingInTransaction() {
+        @SuppressWarnings("unchecked")
+        List<PendingSpins> pending = (List<PendingSpins>) TransactionSynchronizationManager.getResource(this);
+        if (pending != null) {
+            return pending;
+        }
+        List<PendingSpins> bound = new ArrayList<>();
+        TransactionSynchronizationManager.bindResource(this, bound);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                // En orden: sequías, rachas y repeticiones dependen del orden de los spins
+                bound.forEach(spins -> wheel(spins.wheelName()).apply(spins));
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(FairnessTracker.this);
+            }
+        });
+        return bound;
+    }
+}
@@ -0,0 +1,121 @@
+package com.ruleta.service.fairness;
+
+import com.ruleta.entity.Participant;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Spins de una ruleta aún sin confirmar sobre la misma lista de participantes (un spin o un lote).
+ * Los esperados se suman por posición, de modo que un lote solo reserva memoria en su primer spin.
+ * Un reseteo de estadísticas va en la misma cola, sin spins, para aplicarse en orden con ellos.
+ */
+final class PendingSpins {
+
+    private final String wheelName;
+    private final List<Participant> participants;
+    private final boolean reset;
+    private final double[] expectedWins;
+    private final double[] expectedVariance;
+    private int spins;
+    private int[] winners = new int[4];
+    private double[] winnerProbabilities = new double[4];
+    private double expectedRepeats;
+
+    PendingSpins(String wheelName, List<Participant> participants) {
+        this(wheelName, participants, false);
+    }
+
+    private PendingSpins(String wheelName, List<Participant> participants, boolean reset) {
+        this.wheelName = wheelName;
+        this.participants = participants;
+        this.reset = reset;
+        this.expectedWins = new double[participants.size()];
+        this.expectedVariance = new double[participants.size()];
+    }
+
+    /**
+     * Reseteo de las estadísticas de la ruleta: vacía sus acumuladores al aplicarse
+     */
+    static PendingSpins reset(String wheelName) {
+        return new PendingSpins(wheelName, List.of(), true);
+    }
+
+    boolean accepts(String wheelName, List<Participant> participants) {
+        return !reset && this.participants == participants && this.wheelName.equals(wheelName);
+    }
+
+    /**
+     * @param previousWinner ganador del spin anterior de la ruleta, o null
+     */
+    void add(int winner, double[] probabilities, String previousWinner) {
+        for (int i = 0; i < probabilities.length; i++) {
+            double p = probabilities[i];
+            expectedWins[i] += p;
+            expectedVariance[i] += p * (1 - p);
+        }
+        if (previousWinner != null) {
+            for (int i = 0; i < probabilities.length; i++) {
+                if (participants.get(i).getName().equals(previousWinner)) {
+                    expectedRepeats += probabilities[i];
+                    break;
+                }
+            }
+        }
+        if (spins == winners.length) {
+            winners = Arrays.copyOf(winners, spins * 2);
+            winnerProbabilities = Arrays.copyOf(winnerProbabilities, spins * 2);
+        }
+        winners[spins] = winner;
+        winnerProbabilities[spins] = probabilities[winner];
+        spins++;
+    }
+
+    /**
+     * Último ganador, o null si no hay spins (un reseteo deja la ruleta sin racha)
+     */
+    String lastWinner() {
+        return spins == 0 ? null : participants.get(winners[spins - 1]).getName();
+    }
+
+    boolean resets() {
+        return reset;
+    }
+
+    String wheelName() {
+        return wheelName;
+    }
+
+    List<String> names() {
+        List<String> names = new ArrayList<>(participants.size());
+        for (Participant participant : participants) {
+            names.add(participant.getName());
+        }
+        return names;
+    }
+
+    int spins() {
+        return spins;
+    }
+
+    double[] expectedWins() {
+        return expectedWins;
+    }
+
+    double[] expectedVariance() {
+        return expectedVariance;
+    }
+
+    int[] winners() {
+        return winners;
+    }
+
+    double[] winnerProbabilities() {
+        return winnerProbabilities;
+    }
+
+    double expectedRepeats() {
+        return expectedRepeats;
+    }
+}
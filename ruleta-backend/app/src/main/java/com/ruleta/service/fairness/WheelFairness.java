@@ -0,0 +1,254 @@
+package com.ruleta.service.fairness;
+
+import com.ruleta.dto.FairnessReportDto;
+import com.ruleta.dto.ParticipantFairnessDto;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Acumuladores de equidad de una ruleta. Cada spin los actualiza en O(participantes del spin) y un
+ * informe los recorre una vez. Los spins se numeran desde 1 en orden de commit; la sequía de un
+ * participante es el número de spins de la ruleta desde su última victoria, o desde que apareció.
+ */
+final class WheelFairness {
+
+    private final String wheelName;
+    private final Map<String, Accumulator> participants = new HashMap<>();
+    private long spins;
+    private long trackedSpins;
+    private LocalDateTime trackedSince;
+    private String streakHolder;
+    private long currentStreak;
+    private long repeats;
+    private double expectedRepeats;
+    // Spins y reseteos aplicados desde que se creó o se cargó: dice si hay algo nuevo que guardar
+    private long changes;
+
+    WheelFairness(String wheelName) {
+        this.wheelName = wheelName;
+    }
+
+    /**
+     * Acumuladores guardados con {@link #state()}
+     */
+    static WheelFairness restore(String wheelName, State state) {
+        WheelFairness fairness = new WheelFairness(wheelName);
+        fairness.spins = state.spins();
+        fairness.trackedSpins = state.trackedSpins();
+        fairness.trackedSince = state.trackedSince();
+        fairness.streakHolder = state.streakHolder();
+        fairness.currentStreak = state.currentStreak();
+        fairness.repeats = state.repeats();
+        fairness.expectedRepeats = state.expectedRepeats();
+        state.participants().forEach((name, saved) -> {
+            Accumulator accumulator = new Accumulator(saved.lastWinSpin());
+            accumulator.wins = saved.wins();
+            accumulator.probabilityAtWinSum = saved.probabilityAtWinSum();
+            accumulator.trackedSpins = saved.trackedSpins();
+            accumulator.trackedWins = saved.trackedWins();
+            accumulator.expectedWins = saved.expectedWins();
+            accumulator.expectedVariance = saved.expectedVariance();
+            accumulator.longestDrought = saved.longestDrought();
+            accumulator.longestStreak = saved.longestStreak();
+            fairness.participants.put(name, accumulator);
+        });
+        return fairness;
+    }
+
+    /**
+     * Un spin del historial anterior al arranque: solo se conoce el ganador y su probabilidad
+     */
+    synchronized void replay(String winner, double probabilityAtSelection) {
+        spins++;
+        changes++;
+        win(accumulator(winner), winner, probabilityAtSelection);
+    }
+
+    /**
+     * Spins confirmados, en orden. Los esperados ya vienen sumados por posición en {@code names}
+     */
+    synchronized void apply(PendingSpins pending) {
+        if (pending.resets()) {
+            reset();
+            return;
+        }
+        if (trackedSince == null) {
+            trackedSince = LocalDateTime.now();
+        }
+        List<String> names = pending.names();
+        for (int i = 0; i < names.size(); i++) {
+            Accumulator accumulator = accumulator(names.get(i));
+            accumulator.trackedSpins += pending.spins();
+            accumulator.expectedWins += pending.expectedWins()[i];
+            accumulator.expectedVariance += pending.expectedVariance()[i];
+        }
+        for (int k = 0; k < pending.spins(); k++) {
+            int winner = pending.winners()[k];
+            Accumulator accumulator = participants.get(names.get(winner));
+            if (names.get(winner).equals(streakHolder)) {
+                repeats++;
+            }
+            spins++;
+            trackedSpins++;
+            accumulator.trackedWins++;
+            win(accumulator, names.get(winner), pending.winnerProbabilities()[k]);
+        }
+        expectedRepeats += pending.expectedRepeats();
+        changes += pending.spins();
+    }
+
+    /**
+     * Reseteo de las estadísticas: todo vuelve a cero y la ruleta empieza a contar de nuevo
+     */
+    synchronized void reset() {
+        participants.clear();
+        spins = 0;
+        trackedSpins = 0;
+        trackedSince = null;
+        streakHolder = null;
+        currentStreak = 0;
+        repeats = 0;
+        expectedRepeats = 0;
+        // Cuenta como cambio para que la próxima instantánea guarde el estado vacío
+        changes++;
+    }
+
+    synchronized String streakHolder() {
+        return streakHolder;
+    }
+
+    synchronized long changes() {
+        return changes;
+    }
+
+    /**
+     * Copia coherente de todos los acumuladores, para guardarla
+     */
+    synchronized State state() {
+        Map<String, ParticipantState> saved = new HashMap<>(participants.size());
+        participants.forEach((name, accumulator) -> saved.put(name, new ParticipantState(
+                accumulator.wins,
+                accumulator.probabilityAtWinSum,
+                accumulator.trackedSpins,
+                accumulator.trackedWins,
+                accumulator.expectedWins,
+                accumulator.expectedVariance,
+                accumulator.lastWinSpin,
+                accumulator.longestDrought,
+                accumulator.longestStreak)));
+        return new State(spins, trackedSpins, trackedSince, streakHolder, currentStreak, repeats, expectedRepeats, saved);
+    }
+
+    synchronized FairnessReportDto report() {
+        List<ParticipantFairnessDto> rows = new ArrayList<>(participants.size());
+        double chiSquare = 0;
+        int categories = 0;
+        for (Map.Entry<String, Accumulator> entry : participants.entrySet()) {
+            Accumulator accumulator = entry.getValue();
+            double expected = accumulator.expectedWins;
+            if (expected > 0) {
+                double deviation = accumulator.trackedWins - expected;
+                chiSquare += deviation * deviation / expected;
+                categories++;
+            }
+            double standardizedDeviation = accumulator.expectedVariance > 0
+                    ? (accumulator.trackedWins - expected) / Math.sqrt(accumulator.expectedVariance)
+                    : 0.0;
+            long currentDrought = spins - accumulator.lastWinSpin;
+            rows.add(new ParticipantFairnessDto(
+                    entry.getKey(),
+                    accumulator.wins,
+                    accumulator.wins > 0 ? accumulator.probabilityAtWinSum / accumulator.wins : 0.0,
+                    accumulator.trackedSpins,
+                    accumulator.trackedWins,
+                    expected,
+                    standardizedDeviation,
+                    currentDrought,
+                    Math.max(accumulator.longestDrought, currentDrought),
+                    entry.getKey().equals(streakHolder) ? currentStreak : 0,
+                    accumulator.longestStreak));
+        }
+        rows.sort(Comparator.comparing(ParticipantFairnessDto::getParticipantName));
+
+        // Con una sola categoría con esperados no hay grados de libertad
+        int degreesOfFreedom = Math.max(0, categories - 1);
+        boolean testable = trackedSpins > 0 && degreesOfFreedom > 0;
+        return new FairnessReportDto(
+                wheelName,
+                spins,
+                trackedSpins,
+                trackedSince,
+                testable ? chiSquare : null,
+                degreesOfFreedom,
+                testable ? ChiSquare.survival(chiSquare, degreesOfFreedom) : null,
+                repeats,
+                expectedRepeats,
+                streakHolder,
+                currentStreak,
+                rows);
+    }
+
+    private Accumulator accumulator(String name) {
+        // Un participante nuevo cuenta su sequía a partir del último spin confirmado
+        return participants.computeIfAbsent(name, key -> new Accumulator(spins));
+    }
+
+    private void win(Accumulator accumulator, String name, double probability) {
+        accumulator.longestDrought = Math.max(accumulator.longestDrought, spins - accumulator.lastWinSpin - 1);
+        accumulator.lastWinSpin = spins;
+        accumulator.wins++;
+        accumulator.probabilityAtWinSum += probability;
+
+        if (name.equals(streakHolder)) {
+            currentStreak++;
+        } else {
+            streakHolder = name;
+            currentStreak = 1;
+        }
+        accumulator.longestStreak = Math.max(accumulator.longestStreak, currentStreak);
+    }
+
+    record State(long spins,
+                 long trackedSpins,
+                 LocalDateTime trackedSince,
+                 String streakHolder,
+                 long currentStreak,
+                 long repeats,
+                 double expectedRepeats,
+                 Map<String, ParticipantState> participants) {
+    }
+
+    record ParticipantState(long wins,
+                            double probabilityAtWinSum,
+                            long trackedSpins,
+                            long trackedWins,
+                            double expectedWins,
+                            double expectedVariance,
+                            long lastWinSpin,
+                            long longestDrought,
+                            long longestStreak) {
+    }
+
+    private static final class Accumulator {
+
+        private long wins;
+        private double probabilityAtWinSum;
+        private long trackedSpins;
+        private long trackedWins;
+        // Suma de p y de p·(1 - p) de cada spin: media y varianza de las victorias esperadas
+        private double expectedWins;
+        private double expectedVariance;
+        private long lastWinSpin;
+        private long longestDrought;
+        private long longestStreak;
+
+        private Accumulator(long firstSpin) {
+            this.lastWinSpin = firstSpin;
+        }
+    }
+}
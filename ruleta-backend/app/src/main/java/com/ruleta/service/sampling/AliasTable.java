@@ -0,0 +1,109 @@
+package com.ruleta.service.sampling;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Tabla de alias de Walker (variante de Vose).
+ * Construcción O(N), cada extracción O(1): una columna uniforme y una moneda sesgada.
+ */
+public final class AliasTable implements WeightedSampler {
+
+    private final double[] probability;
+    private final int[] alias;
+
+    private AliasTable(double[] probability, int[] alias) {
+        this.probability = probability;
+        this.alias = alias;
+    }
+
+    public static AliasTable of(double[] weights) {
+        int n = weights.length;
+        if (n == 0) {
+            throw new IllegalArgumentException("No se puede construir una tabla de alias sin pesos");
+        }
+
+        double totalWeight = 0.0;
+        for (double weight : weights) {
+            if (!(weight >= 0.0) || Double.isInfinite(weight)) {
+                throw new IllegalArgumentException("Peso inválido: " + weight);
+            }
+            totalWeight += weight;
+        }
+        if (totalWeight <= 0.0) {
+            throw new IllegalArgumentException("La suma de pesos debe ser positiva");
+        }
+
+        double[] probability = new double[n];
+        int[] alias = new int[n];
+        double[] scaled = new double[n];
+
+        // Pilas de índices por debajo y por encima de la media, sobre arrays para no crear objetos
+        int[] small = new int[n];
+        int[] large = new int[n];
+        int smallSize = 0;
+        int largeSize = 0;
+
+        for (int i = 0; i < n; i++) {
+            scaled[i] = weights[i] * n / totalWeight;
+            if (scaled[i] < 1.0) {
+                small[smallSize++] = i;
+            } else {
+                large[largeSize++] = i;
+            }
+        }
+
+        while (smallSize > 0 && largeSize > 0) {
+            int less = small[--smallSize];
+            int more = large[--largeSize];
+
+            probability[less] = scaled[less];
+            alias[less] = more;
+
+            scaled[more] = (scaled[more] + scaled[less]) - 1.0;
+            if (scaled[more] < 1.0) {
+                small[smallSize++] = more;
+            } else {
+                large[largeSize++] = more;
+            }
+        }
+
+        // Lo que queda es 1.0 salvo error de redondeo
+        while (largeSize > 0) {
+            int index = large[--largeSize];
+            probability[index] = 1.0;
+            alias[index] = index;
+        }
+        while (smallSize > 0) {
+            int index = small[--smallSize];
+            probability[index] = 1.0;
+            alias[index] = index;
+        }
+
+        return new AliasTable(probability, alias);
+    }
+
+    @Override
+    public int sample(RandomGenerator random) {
+        int column = random.nextInt(probability.length);
+        return random.nextDouble() < probability[column] ? column : alias[column];
+    }
+
+    @Override
+    public int size() {
+        return probability.length;
+    }
+
+    /**
+     * Probabilidad exacta que la tabla asigna a una posición (para verificación)
+     */
+    double probabilityOf(int index) {
+        int n = probability.length;
+        double result = probability[index];
+        for (int column = 0; column < n; column++) {
+            if (column != index && alias[column] == index) {
+                result += 1.0 - probability[column];
+            }
+        }
+        return result / n;
+    }
+}
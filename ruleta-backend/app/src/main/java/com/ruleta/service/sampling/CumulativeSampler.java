@@ -0,0 +1,74 @@
+package com.ruleta.service.sampling;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Muestreador por recorrido de la distribución acumulada.
+ * Es el algoritmo original de la ruleta: O(N) por extracción, sin coste de construcción.
+ */
+public final class CumulativeSampler implements WeightedSampler {
+
+    private final double[] weights;
+    private final double totalWeight;
+
+    private CumulativeSampler(double[] weights, double totalWeight) {
+        this.weights = weights;
+        this.totalWeight = totalWeight;
+    }
+
+    public static CumulativeSampler of(double[] weights) {
+        if (weights.length == 0) {
+            throw new IllegalArgumentException("No se puede construir un muestreador sin pesos");
+        }
+        double totalWeight = 0.0;
+        for (double weight : weights) {
+            totalWeight += weight;
+        }
+        if (totalWeight <= 0.0) {
+            throw new IllegalArgumentException("La suma de pesos debe ser positiva");
+        }
+        return new CumulativeSampler(weights.clone(), totalWeight);
+    }
+
+    @Override
+    public int sample(RandomGenerator random) {
+        return draw(weights, totalWeight, random);
+    }
+
+    /**
+     * Una extracción directa sobre {@code weights}, sin construir ni copiar nada.
+     * Es lo más barato cuando los pesos cambian tras cada extracción.
+     */
+    public static int draw(double[] weights, RandomGenerator random) {
+        double totalWeight = 0.0;
+        for (double weight : weights) {
+            totalWeight += weight;
+        }
+        return draw(weights, totalWeight, random);
+    }
+
+    private static int draw(double[] weights, double totalWeight, RandomGenerator random) {
+        double randomValue = random.nextDouble() * totalWeight;
+        double cumulativeWeight = 0.0;
+
+        for (int i = 0; i < weights.length; i++) {
+            cumulativeWeight += weights[i];
+            if (randomValue < cumulativeWeight) {
+                return i;
+            }
+        }
+
+        // Fallback por redondeo: último participante con peso
+        for (int i = weights.length - 1; i > 0; i--) {
+            if (weights[i] > 0.0) {
+                return i;
+            }
+        }
+        return 0;
+    }
+
+    @Override
+    public int size() {
+        return weights.length;
+    }
+}
@@ -0,0 +1,110 @@
+package com.ruleta.service.sampling;
+
+import com.ruleta.entity.Participant;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.random.RandomGenerator;
+
+/**
+ * Caché de muestreadores por ruleta: guarda el último conjunto ordenado de participantes de cada una.
+ * Se descarta cuando los pesos cambian (ver {@link #invalidate(Long)}). Como cada spin cambia los pesos,
+ * un spin sin muestreador en caché extrae con el recorrido acumulado, sin reservar memoria: una tabla
+ * construida para él no la reutilizaría nadie. La tabla se construye solo con {@link #get}, para quien
+ * vaya a extraer varias veces con los mismos pesos.
+ * <p>
+ * En modo multinodo no se guarda nada: otro nodo puede cambiar los pesos sin que este se entere.
+ */
+@Component
+@Slf4j
+public class SamplerCache {
+
+    private final SamplerType samplerType;
+    private final boolean clustered;
+    private final Map<Long, CachedSampler> samplers = new ConcurrentHashMap<>();
+
+    public SamplerCache(@Value("${ruleta.sampler.type:alias}") SamplerType samplerType,
+                        @Value("${ruleta.cluster.enabled:false}") boolean clustered) {
+        this.samplerType = samplerType;
+        this.clustered = clustered;
+        log.info("Muestreador de la ruleta: {}", samplerType);
+    }
+
+    /**
+     * Extrae una posición para los participantes en el orden dado, con {@code weights} en el mismo orden.
+     * Usa el muestreador en caché si lo hay; si no, recorre directamente las probabilidades sin construir
+     * ni guardar nada.
+     */
+    public int sample(Long wheelId, List<Participant> participants, double[] weights, RandomGenerator random) {
+        CachedSampler cached = samplers.get(wheelId);
+        if (cached != null && cached.matches(participants)) {
+            return cached.sampler().sample(random);
+        }
+        return CumulativeSampler.draw(weights, random);
+    }
+
+    /**
+     * Devuelve el muestreador para los participantes en el orden dado, construyéndolo con {@code weights}
+     * (en el mismo orden) si no está en caché
+     */
+    public WeightedSampler get(Long wheelId, List<Participant> participants, double[] weights) {
+        CachedSampler cached = samplers.get(wheelId);
+        if (cached != null && cached.matches(participants)) {
+            return cached.sampler();
+        }
+
+        long[] key = new long[participants.size()];
+        for (int i = 0; i < key.length; i++) {
+            key[i] = participants.get(i).getId();
+        }
+        WeightedSampler sampler = build(weights);
+        if (!clustered) {
+            samplers.put(wheelId, new CachedSampler(key, sampler));
+        }
+        return sampler;
+    }
+
+    /**
+     * Construye un muestreador con los pesos actuales sin guardarlo en caché
+     */
+    public WeightedSampler build(double[] weights) {
+        return samplerType.build(weights);
+    }
+
+    /**
+     * Descarta el muestreador de una ruleta. Dentro de una transacción se repite al completarse,
+     * para que ningún spin concurrente deje en caché pesos anteriores al commit.
+     */
+    public void invalidate(Long wheelId) {
+        samplers.remove(wheelId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    samplers.remove(wheelId);
+                }
+            });
+        }
+    }
+
+    private record CachedSampler(long[] participantIds, WeightedSampler sampler) {
+
+        boolean matches(List<Participant> participants) {
+            if (participantIds.length != participants.size()) {
+                return false;
+            }
+            for (int i = 0; i < participantIds.length; i++) {
+                if (participantIds[i] != participants.get(i).getId()) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
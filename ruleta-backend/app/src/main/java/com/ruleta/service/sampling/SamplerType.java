@@ -0,0 +1,25 @@
+package com.ruleta.service.sampling;
+
+/**
+ * Implementaciones de muestreo disponibles (propiedad {@code ruleta.sampler.type})
+ */
+public enum SamplerType {
+
+    /** Tabla de alias: O(1) por extracción */
+    ALIAS {
+        @Override
+        public WeightedSampler build(double[] weights) {
+            return AliasTable.of(weights);
+        }
+    },
+
+    /** Recorrido acumulado: O(N) por extracción sin construcción previa, algoritmo original */
+    CUMULATIVE {
+        @Override
+        public WeightedSampler build(double[] weights) {
+            return CumulativeSampler.of(weights);
+        }
+    };
+
+    public abstract WeightedSampler build(double[] weights);
+}
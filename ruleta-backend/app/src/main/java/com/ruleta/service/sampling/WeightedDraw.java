@@ -0,0 +1,96 @@
+package com.ruleta.service.sampling;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Extracción ponderada sin reemplazo (Efraimidis–Spirakis).
+ * <p>
+ * Cada posición recibe la clave {@code ln(u) / peso}, con {@code u} uniforme, y las {@code count} claves
+ * mayores, de mayor a menor, son los extraídos en orden. El resultado tiene la misma distribución que
+ * extraer de uno en uno retirando cada vez al elegido, pero en una sola pasada: O(N log count) con un
+ * montículo de {@code count} posiciones. Las posiciones con peso 0 solo salen cuando no quedan otras.
+ */
+public final class WeightedDraw {
+
+    private WeightedDraw() {
+    }
+
+    /**
+     * Extrae {@code count} posiciones distintas de 0..weights.length-1
+     *
+     * @return posiciones extraídas, en orden de extracción
+     */
+    public static int[] draw(double[] weights, int count, RandomGenerator random) {
+        if (count < 0 || count > weights.length) {
+            throw new IllegalArgumentException("Se pueden extraer entre 0 y " + weights.length + " posiciones");
+        }
+        if (count == 0) {
+            return new int[0];
+        }
+
+        // Montículo de mínimos sobre arrays paralelos: la raíz es la menor de las claves conservadas
+        double[] keys = new double[count];
+        int[] positions = new int[count];
+        int size = 0;
+        for (int i = 0; i < weights.length; i++) {
+            double weight = weights[i];
+            if (!(weight >= 0.0) || Double.isInfinite(weight)) {
+                throw new IllegalArgumentException("Peso inválido: " + weight);
+            }
+            double key = weight > 0.0 ? Math.log(random.nextDouble()) / weight : Double.NEGATIVE_INFINITY;
+            if (size < count) {
+                siftUp(keys, positions, size++, key, i);
+            } else if (key > keys[0]) {
+                siftDown(keys, positions, size, key, i);
+            }
+        }
+
+        // Vaciar el montículo de menor a mayor clave deja el orden de extracción al revés
+        int[] drawn = new int[count];
+        for (int last = count - 1; last >= 0; last--) {
+            drawn[last] = positions[0];
+            if (last > 0) {
+                siftDown(keys, positions, last, keys[last], positions[last]);
+            }
+        }
+        return drawn;
+    }
+
+    private static void siftUp(double[] keys, int[] positions, int slot, double key, int position) {
+        while (slot > 0) {
+            int parent = (slot - 1) >>> 1;
+            if (keys[parent] <= key) {
+                break;
+            }
+            keys[slot] = keys[parent];
+            positions[slot] = positions[parent];
+            slot = parent;
+        }
+        keys[slot] = key;
+        positions[slot] = position;
+    }
+
+    /**
+     * Coloca {@code key} en la raíz de un montículo de {@code size} posiciones y la hunde hasta su sitio
+     */
+    private static void siftDown(double[] keys, int[] positions, int size, double key, int position) {
+        int slot = 0;
+        while (true) {
+            int child = 2 * slot + 1;
+            if (child >= size) {
+                break;
+            }
+            if (child + 1 < size && keys[child + 1] < keys[child]) {
+                child++;
+            }
+            if (key <= keys[child]) {
+                break;
+            }
+            keys[slot] = keys[child];
+            positions[slot] = positions[child];
+            slot = child;
+        }
+        keys[slot] = key;
+        positions[slot] = position;
+    }
+}
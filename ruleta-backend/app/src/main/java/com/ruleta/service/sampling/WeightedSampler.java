@@ -0,0 +1,20 @@
+package com.ruleta.service.sampling;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Muestreador ponderado sobre posiciones 0..size()-1.
+ * Las posiciones corresponden al orden de la lista de participantes con la que se construyó.
+ */
+public interface WeightedSampler {
+
+    /**
+     * Devuelve la posición seleccionada según los pesos de construcción
+     */
+    int sample(RandomGenerator random);
+
+    /**
+     * Número de posiciones del muestreador
+     */
+    int size();
+}
@@ -0,0 +1,189 @@
+package com.ruleta.service.simulation;
+
+import com.ruleta.dto.SimulationResponse;
+import com.ruleta.service.WeightPolicy;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Simulador en memoria de políticas de pesos, sin pasar por JPA.
+ * <p>
+ * Cada ensayo reproduce la dinámica de la ruleta sobre arrays primitivos: N participantes con peso
+ * inicial 1, selección proporcional al peso y ajuste con la {@link WeightPolicy}. Los ensayos son
+ * independientes y se reparten en un pool fork-join propio; cada subtarea recibe su propio
+ * {@link SplittableRandom} mediante {@code split()}, así que una misma semilla da el mismo resultado
+ * con cualquier paralelismo. Para ocupar todos los núcleos hace falta al menos un ensayo por núcleo.
+ */
+@Component
+@Slf4j
+public class MonteCarloSimulator {
+
+    private final ForkJoinPool pool;
+    private final long maxOperations;
+
+    public MonteCarloSimulator(@Value("${ruleta.simulation.parallelism:0}") int parallelism,
+                               @Value("${ruleta.simulation.max-operations:5000000000}") long maxOperations) {
+        int threads = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        this.pool = new ForkJoinPool(threads);
+        this.maxOperations = maxOperations;
+        log.info("Simulador Monte Carlo con paralelismo {}", threads);
+    }
+
+    @PreDestroy
+    void stop() {
+        pool.shutdownNow();
+    }
+
+    public SimulationResponse simulate(WeightPolicy policy, int participants, int spinsPerTrial, int trials, long seed) {
+        if (participants < 2) {
+            throw new IllegalArgumentException("Se necesitan al menos 2 participantes");
+        }
+        if (spinsPerTrial < 1 || trials < 1) {
+            throw new IllegalArgumentException("Los spins por ensayo y el número de ensayos deben ser positivos");
+        }
+        // Cada spin recorre todos los pesos: el coste es participantes × spins × ensayos
+        if ((double) participants * spinsPerTrial * trials > maxOperations) {
+            throw new IllegalArgumentException("Simulación demasiado grande: participantes × spins × ensayos supera " + maxOperations);
+        }
+
+        long start = System.nanoTime();
+        TrialStats stats = pool.invoke(new TrialRange(policy, participants, spinsPerTrial,
+                0, trials, new SplittableRandom(seed)));
+        long elapsedNanos = System.nanoTime() - start;
+
+        long totalSpins = (long) spinsPerTrial * trials;
+        // Varianza de victorias por participante si cada spin fuera uniforme e independiente (binomial)
+        double p = 1.0 / participants;
+        double uniformVariance = spinsPerTrial * p * (1 - p);
+
+        List<Long> streaks = new ArrayList<>(stats.streaks.length);
+        for (long count : stats.streaks) {
+            streaks.add(count);
+        }
+        return new SimulationResponse(
+                policy,
+                participants,
+                spinsPerTrial,
+                trials,
+                seed,
+                totalSpins,
+                stats.winCountVarianceSum / stats.trials,
+                uniformVariance,
+                (double) stats.maxDroughtSum / stats.trials,
+                stats.maxDrought,
+                streaks,
+                elapsedNanos / 1_000_000,
+                totalSpins / Math.max(elapsedNanos / 1e9, 1e-9));
+    }
+
+    /**
+     * Rango de ensayos [from, to): se divide a la mitad hasta quedar en un ensayo por hoja
+     */
+    private static final class TrialRange extends RecursiveTask<TrialStats> {
+
+        private final WeightPolicy policy;
+        private final int participants;
+        private final int spinsPerTrial;
+        private final int from;
+        private final int to;
+        private final SplittableRandom random;
+
+        private TrialRange(WeightPolicy policy, int participants, int spinsPerTrial,
+                           int from, int to, SplittableRandom random) {
+            this.policy = policy;
+            this.participants = participants;
+            this.spinsPerTrial = spinsPerTrial;
+            this.from = from;
+            this.to = to;
+            this.random = random;
+        }
+
+        @Override
+        protected TrialStats compute() {
+            if (to - from == 1) {
+                TrialStats stats = new TrialStats();
+                runTrial(stats);
+                return stats;
+            }
+            int middle = (from + to) >>> 1;
+            TrialRange left = new TrialRange(policy, participants, spinsPerTrial, from, middle, random.split());
+            TrialRange right = new TrialRange(policy, participants, spinsPerTrial, middle, to, random.split());
+            left.fork();
+            TrialStats rightStats = right.compute();
+            return left.join().merge(rightStats);
+        }
+
+        private void runTrial(TrialStats stats) {
+            int n = participants;
+            double[] weights = new double[n];
+            int[] wins = new int[n];
+            int[] lastWin = new int[n];
+            Arrays.fill(weights, 1.0);
+            Arrays.fill(lastWin, -1);
+
+            double totalWeight = n;
+            int maxDrought = 0;
+            int previousWinner = -1;
+            int streak = 0;
+
+            for (int spin = 0; spin < spinsPerTrial; spin++) {
+                int winner = sample(weights, totalWeight);
+
+                wins[winner]++;
+                maxDrought = Math.max(maxDrought, spin - lastWin[winner] - 1);
+                lastWin[winner] = spin;
+
+                if (winner == previousWinner) {
+                    streak++;
+                } else {
+                    if (streak > 0) {
+                        stats.addStreak(streak);
+                    }
+                    previousWinner = winner;
+                    streak = 1;
+                }
+
+                totalWeight = 0;
+                for (int i = 0; i < n; i++) {
+                    weights[i] = i == winner ? policy.afterWin(weights[i]) : policy.afterLoss(weights[i]);
+                    totalWeight += weights[i];
+                }
+            }
+            stats.addStreak(streak);
+
+            // Las sequías que siguen abiertas al final del ensayo también cuentan
+            for (int i = 0; i < n; i++) {
+                maxDrought = Math.max(maxDrought, spinsPerTrial - lastWin[i] - 1);
+            }
+
+            double mean = (double) spinsPerTrial / n;
+            double squares = 0;
+            for (int count : wins) {
+                squares += (count - mean) * (count - mean);
+            }
+            stats.addTrial(squares / n, maxDrought);
+        }
+
+        private int sample(double[] weights, double totalWeight) {
+            double target = random.nextDouble() * totalWeight;
+            double cumulative = 0;
+            for (int i = 0; i < weights.length; i++) {
+                cumulative += weights[i];
+                if (target < cumulative) {
+                    return i;
+                }
+            }
+            // Redondeo en la última suma: el último participante cubre el resto
+            return weights.length - 1;
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.ruleta.service.simulation;
+
+/**
+ * Métricas de equidad acumuladas sobre un conjunto de ensayos; se combinan con {@link #merge(TrialStats)}.
+ * Sequía: spins seguidos sin ganar de un participante. Racha: victorias seguidas del mismo participante.
+ */
+final class TrialStats {
+
+    /** La última posición del histograma agrupa las rachas de esa longitud o más */
+    static final int MAX_TRACKED_STREAK = 16;
+
+    long trials;
+    double winCountVarianceSum;
+    long maxDroughtSum;
+    int maxDrought;
+    final long[] streaks = new long[MAX_TRACKED_STREAK];
+
+    void addTrial(double winCountVariance, int trialMaxDrought) {
+        trials++;
+        winCountVarianceSum += winCountVariance;
+        maxDroughtSum += trialMaxDrought;
+        maxDrought = Math.max(maxDrought, trialMaxDrought);
+    }
+
+    void addStreak(int length) {
+        streaks[Math.min(length, MAX_TRACKED_STREAK) - 1]++;
+    }
+
+    TrialStats merge(TrialStats other) {
+        trials += other.trials;
+        winCountVarianceSum += other.winCountVarianceSum;
+        maxDroughtSum += other.maxDroughtSum;
+        maxDrought = Math.max(maxDrought, other.maxDrought);
+        for (int i = 0; i < streaks.length; i++) {
+            streaks[i] += other.streaks[i];
+        }
+        return this;
+    }
+}
@@ -0,0 +1,79 @@
+package db.migration;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Termina el paso a ruletas múltiples con lo que depende de lo que haya en la base y no cabe en SQL fijo:
+ * <ul>
+ *   <li>quita la unicidad global de {@code participants.name}, cuyo nombre generó Hibernate en las bases
+ *   creadas con ddl-auto: update; el mismo nombre puede estar en varias ruletas</li>
+ *   <li>reinicia las secuencias de ids por encima del máximo de su tabla: antes los ids salían de
+ *   columnas IDENTITY y la secuencia empezaría por ids ya usados</li>
+ * </ul>
+ */
+public class V1_2__LegacyParticipantKeys extends BaseJavaMigration {
+
+    // allocationSize de los @SequenceGenerator: Hibernate toma cada valor como el último id de un bloque de 50
+    private static final int ALLOCATION_SIZE = 50;
+
+    private static final Map<String, String> SEQUENCES = new LinkedHashMap<>();
+
+    static {
+        SEQUENCES.put("wheels_seq", "wheels");
+        SEQUENCES.put("participants_seq", "participants");
+        SEQUENCES.put("selection_history_seq", "selection_history");
+        SEQUENCES.put("selection_rollups_seq", "selection_rollups");
+    }
+
+    @Override
+    public void migrate(Context context) throws Exception {
+        Connection connection = context.getConnection();
+        try (Statement statement = connection.createStatement()) {
+            for (String constraint : uniqueConstraintsOnNameOnly(connection)) {
+                statement.execute("alter table participants drop constraint \"" + constraint + "\"");
+            }
+            for (Map.Entry<String, String> sequence : SEQUENCES.entrySet()) {
+                long maxId = maxId(statement, sequence.getValue());
+                if (maxId > 0) {
+                    // El primer bloque que reserve Hibernate empieza justo después del máximo
+                    statement.execute("alter sequence " + sequence.getKey() + " restart with " + (maxId + ALLOCATION_SIZE));
+                }
+            }
+        }
+    }
+
+    private static List<String> uniqueConstraintsOnNameOnly(Connection connection) throws SQLException {
+        String query = "select tc.constraint_name from information_schema.table_constraints tc "
+                + "join information_schema.key_column_usage kcu "
+                + "on kcu.constraint_schema = tc.constraint_schema and kcu.constraint_name = tc.constraint_name "
+                + "where tc.constraint_type = 'UNIQUE' and upper(tc.table_name) = 'PARTICIPANTS' "
+                + "and tc.table_schema = current_schema "
+                + "group by tc.constraint_name "
+                + "having count(*) = 1 and max(upper(kcu.column_name)) = 'NAME'";
+        List<String> constraints = new ArrayList<>();
+        try (Statement statement = connection.createStatement();
+             ResultSet rows = statement.executeQuery(query)) {
+            while (rows.next()) {
+                constraints.add(rows.getString(1));
+            }
+        }
+        return constraints;
+    }
+
+    private static long maxId(Statement statement, String table) throws SQLException {
+        try (ResultSet rows = statement.executeQuery("select coalesce(max(id), 0) from " + table)) {
+            rows.next();
+            return rows.getLong(1);
+        }
+    }
+}
@@ -0,0 +1,48 @@
+-- Ruletas múltiples, pesos relativos a la época de impulsos, acumulados de estadísticas e ids por secuencia.
+-- Todo lleva "if not exists": las bases creadas con ddl-auto: update por versiones intermedias ya tienen
+-- parte de esto. La unicidad global de participants.name y el reinicio de las secuencias, que dependen de
+-- lo que haya en la base, los hace V1_2
+
+create sequence if not exists wheels_seq start with 1 increment by 50;
+create sequence if not exists participants_seq start with 1 increment by 50;
+create sequence if not exists selection_history_seq start with 1 increment by 50;
+create sequence if not exists selection_rollups_seq start with 1 increment by 50;
+
+create table if not exists wheels (
+    id bigint not null,
+    name varchar(255) not null,
+    created_at timestamp(6) not null,
+    boost_factor float(53),
+    boost_cap float(53),
+    boost_epoch bigint default 0 not null,
+    primary key (id),
+    constraint uk_wheels_name unique (name)
+);
+
+-- wheel_id queda nulo en las filas existentes hasta que DefaultWheelInitializer las asigna a la ruleta por defecto
+alter table participants add column if not exists wheel_id bigint;
+alter table participants add column if not exists weight_epoch bigint default 0 not null;
+alter table participants add constraint if not exists uk_participants_wheel_name unique (wheel_id, name);
+alter table participants add constraint if not exists fk_participants_wheel foreign key (wheel_id) references wheels;
+create index if not exists idx_participants_wheel_active on participants (wheel_id, is_active);
+
+alter table selection_history add column if not exists wheel_id bigint;
+alter table selection_history add constraint if not exists fk_selection_history_wheel foreign key (wheel_id) references wheels;
+create index if not exists idx_selection_history_wheel_selected_id on selection_history (wheel_id, selected_at, id);
+
+create table if not exists selection_rollups (
+    id bigint not null,
+    wheel_id bigint not null,
+    participant_id bigint not null,
+    granularity varchar(8) not null check (granularity in ('HOUR', 'DAY')),
+    bucket_start timestamp(6) not null,
+    win_count bigint not null,
+    probability_sum float(53) not null,
+    participants_sum bigint not null,
+    primary key (id),
+    constraint uk_selection_rollups_bucket unique (participant_id, granularity, bucket_start),
+    constraint fk_selection_rollups_wheel foreign key (wheel_id) references wheels,
+    constraint fk_selection_rollups_participant foreign key (participant_id) references participants
+);
+
+create index if not exists idx_selection_rollups_wheel_bucket on selection_rollups (wheel_id, granularity, bucket_start);
@@ -0,0 +1,25 @@
+-- Esquema de partida: el que generaba Hibernate con ddl-auto: update antes de las ruletas múltiples.
+-- Las bases creadas así se marcan como versión 1 al arrancar (spring.flyway.baseline-on-migrate) y las
+-- migraciones siguientes las llevan al esquema actual
+
+create table participants (
+    id bigint generated by default as identity,
+    name varchar(255) not null,
+    times_selected integer not null,
+    probability_weight float(53) not null,
+    created_at timestamp(6) not null,
+    last_selected_at timestamp(6),
+    is_active boolean not null,
+    primary key (id),
+    constraint uk_participants_name unique (name)
+);
+
+create table selection_history (
+    id bigint generated by default as identity,
+    participant_id bigint not null,
+    selected_at timestamp(6) not null,
+    total_participants integer not null,
+    probability_at_selection float(53) not null,
+    primary key (id),
+    constraint fk_selection_history_participant foreign key (participant_id) references participants
+);
@@ -0,0 +1,7 @@
+-- Posición del log de eventos proyectada en las tablas (motor event-log). Puede existir ya en bases
+-- creadas con ddl-auto: update después de añadir ese motor
+create table if not exists event_log_checkpoint (
+    name varchar(255) not null,
+    position bigint not null,
+    primary key (name)
+);
@@ -0,0 +1,15 @@
+-- Índices de las consultas del historial por participante y por fecha, y tabla de archivo de la retención
+-- (SelectionHistoryRetention). Pueden existir ya en bases creadas con ddl-auto: update
+create index if not exists idx_selection_history_participant_selected on selection_history (participant_id, selected_at);
+create index if not exists idx_selection_history_selected_id on selection_history (selected_at, id);
+
+-- Sin claves ajenas ni índices secundarios: solo se escribe al archivar
+create table if not exists selection_history_archive (
+    id bigint not null,
+    wheel_id bigint,
+    participant_id bigint not null,
+    selected_at timestamp(6) not null,
+    total_participants integer not null,
+    probability_at_selection float(53) not null,
+    primary key (id)
+);
@@ -0,0 +1,2 @@
+-- Versión optimista de cada ruleta para el modo multinodo (ruleta.cluster.enabled)
+alter table wheels add column if not exists version bigint default 0 not null;
@@ -0,0 +1,15 @@
+-- Extracciones de varios participantes distintos (POST /draw): una fila por petición con los nombres en orden.
+-- Sin clave ajena a wheels: con el motor event-log la ruleta puede no estar proyectada todavía
+create sequence if not exists draw_history_seq start with 1 increment by 50;
+
+create table if not exists draw_history (
+    id bigint not null,
+    wheel_id bigint not null,
+    drawn_at timestamp(6) not null,
+    total_participants integer not null,
+    draw_count integer not null,
+    winners clob not null,
+    primary key (id)
+);
+
+create index if not exists idx_draw_history_wheel_drawn_id on draw_history (wheel_id, drawn_at, id);
@@ -0,0 +1,9 @@
+-- Acumuladores de equidad por ruleta (FairnessTracker), guardados en segundo plano y al parar para no
+-- recorrer el historial al arrancar. Por nombre y sin clave ajena, como los lleva el tracker: con el motor
+-- event-log la ruleta puede no estar proyectada todavía
+create table if not exists fairness_snapshots (
+    wheel_name varchar(255) not null,
+    taken_at timestamp(6) not null,
+    state clob not null,
+    primary key (wheel_name)
+);
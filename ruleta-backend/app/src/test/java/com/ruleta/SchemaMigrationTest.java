@@ -0,0 +1,76 @@
+package com.ruleta;
+
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.MigrationInfo;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Las migraciones crean el esquema que esperan las entidades: con ddl-auto: validate el contexto no
+ * arranca si falta una tabla o columna o su tipo no coincide
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:schema-migration-test;DB_CLOSE_DELAY=-1",
+        "spring.jpa.hibernate.ddl-auto=validate",
+        "spring.jpa.show-sql=false"
+})
+class SchemaMigrationTest {
+
+    private static final List<String> VERSIONS = List.of("1", "1.1", "1.2", "2", "3", "4", "5", "6");
+
+    @Autowired
+    private Flyway flyway;
+
+    @Test
+    void migrationsMatchEntities() {
+        assertEquals(VERSIONS, appliedVersions(flyway));
+    }
+
+    @Test
+    void databaseFromTheOriginalSchemaIsUpgraded() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:schema-legacy-test;DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        // Como lo dejaba ddl-auto: update, con la unicidad de name sin nombre elegido
+        jdbc.execute("create table participants (id bigint generated by default as identity, "
+                + "name varchar(255) not null unique, times_selected integer not null, "
+                + "probability_weight float(53) not null, created_at timestamp(6) not null, "
+                + "last_selected_at timestamp(6), is_active boolean not null, primary key (id))");
+        jdbc.execute("create table selection_history (id bigint generated by default as identity, "
+                + "participant_id bigint not null references participants, selected_at timestamp(6) not null, "
+                + "total_participants integer not null, probability_at_selection float(53) not null, primary key (id))");
+        for (int i = 0; i < 7; i++) {
+            jdbc.update("insert into participants (name, times_selected, probability_weight, created_at, is_active) "
+                    + "values (?, 0, 1.0, current_timestamp, true)", "p" + i);
+        }
+
+        Flyway legacy = Flyway.configure()
+                .dataSource(dataSource)
+                .baselineOnMigrate(true)
+                .baselineVersion("1")
+                .load();
+        legacy.migrate();
+
+        assertEquals(VERSIONS, appliedVersions(legacy));
+        // Los ids nuevos empiezan tras los de IDENTITY y el mismo nombre cabe en otra ruleta
+        assertEquals(7 + 50, jdbc.queryForObject("select next value for participants_seq", Long.class));
+        jdbc.update("insert into wheels (id, name, created_at) values (1, 'otra', current_timestamp)");
+        jdbc.update("insert into participants (id, wheel_id, name, times_selected, probability_weight, created_at, is_active) "
+                + "values (100, 1, 'p0', 0, 1.0, current_timestamp, true)");
+    }
+
+    private static List<String> appliedVersions(Flyway flyway) {
+        return Arrays.stream(flyway.info().applied())
+                .map(MigrationInfo::getVersion)
+                .map(Object::toString)
+                .toList();
+    }
+}
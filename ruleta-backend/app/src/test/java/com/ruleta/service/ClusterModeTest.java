@@ -0,0 +1,81 @@
+package com.ruleta.service;
+
+import com.ruleta.dto.ParticipantDto;
+import com.ruleta.dto.RouletteSpinResponse;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:cluster-test;DB_CLOSE_DELAY=-1",
+        "spring.jpa.show-sql=false",
+        "logging.level.com.ruleta=WARN",
+        "ruleta.cluster.enabled=true",
+        "ruleta.cluster.retry-backoff=0ms"
+})
+class ClusterModeTest {
+
+    private static final List<String> NAMES = List.of("ana", "bruno", "carla");
+
+    @Autowired
+    private SpinExecutor spinExecutor;
+
+    @Autowired
+    private RouletteService rouletteService;
+
+    @Autowired
+    private ParticipantsSnapshotCache participantsCache;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void writeThatLosesTheVersionRaceIsRepeated() {
+        String wheel = "cluster-race";
+        spinExecutor.execute(wheel, () -> rouletteService.spinRoulette(wheel, NAMES));
+        double conflictsBefore = meterRegistry.get("ruleta.spin.conflicts").counter().count();
+
+        AtomicBoolean interfere = new AtomicBoolean(true);
+        spinExecutor.execute(wheel, () -> {
+            RouletteSpinResponse response = rouletteService.spinRoulette(wheel, NAMES);
+            if (interfere.getAndSet(false)) {
+                // Otro nodo confirma un cambio en la misma ruleta antes que este
+                jdbcTemplate.update("UPDATE wheels SET version = version + 1 WHERE name = ?", wheel);
+            }
+            return response;
+        });
+
+        assertEquals(conflictsBefore + 1, meterRegistry.get("ruleta.spin.conflicts").counter().count());
+        // El intento fallido no deja nada: dos spins, dos victorias y dos entradas de historial
+        List<ParticipantDto> participants = rouletteService.getAllActiveParticipants(wheel);
+        assertEquals(2, participants.stream().mapToInt(ParticipantDto::getTimesSelected).sum());
+        assertEquals(2, rouletteService.getRecentHistory(wheel, 1).size());
+    }
+
+    @Test
+    void participantsVersionFollowsTheDatabase() {
+        String wheel = "cluster-version";
+        assertEquals(-1, participantsCache.version(wheel));
+
+        spinExecutor.execute(wheel, () -> rouletteService.addParticipant(wheel, "ana"));
+        long created = participantsCache.version(wheel);
+        spinExecutor.execute(wheel, () -> rouletteService.addParticipant(wheel, "bruno"));
+        long added = participantsCache.version(wheel);
+        assertTrue(added > created);
+
+        // Una escritura de otro nodo también invalida la instantánea de este
+        jdbcTemplate.update("UPDATE wheels SET version = version + 1 WHERE name = ?", wheel);
+        assertEquals(added + 1, participantsCache.version(wheel));
+    }
+}
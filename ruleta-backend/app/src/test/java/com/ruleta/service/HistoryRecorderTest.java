@@ -0,0 +1,103 @@
+package com.ruleta.service;
+
+import com.ruleta.dto.ParticipantStatsDto;
+import com.ruleta.entity.Participant;
+import com.ruleta.entity.SelectionHistory;
+import com.ruleta.repository.ParticipantRepository;
+import com.ruleta.repository.SelectionHistoryRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:history-recorder-test;DB_CLOSE_DELAY=-1",
+        "spring.jpa.show-sql=false",
+        "logging.level.com.ruleta=WARN",
+        "ruleta.history.write-mode=async",
+        "ruleta.history.batch-size=50",
+        "ruleta.history.flush-interval=20ms"
+})
+class HistoryRecorderTest {
+
+    private static final List<String> NAMES = List.of("ana", "bruno", "carla", "diego");
+
+    @Autowired
+    private RouletteService rouletteService;
+
+    @Autowired
+    private SpinExecutor spinExecutor;
+
+    @Autowired
+    private HistoryRecorder historyRecorder;
+
+    @Autowired
+    private SelectionHistoryRepository selectionHistoryRepository;
+
+    @Autowired
+    private ParticipantRepository participantRepository;
+
+    @Autowired
+    private WheelRegistry wheelRegistry;
+
+    @Autowired
+    private SelectionRollupUpdater selectionRollupUpdater;
+
+    @Autowired
+    private StatsService statsService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void asyncModeEventuallyWritesEverySpin() throws Exception {
+        String wheel = "async";
+        int spins = 300;
+        long before = selectionHistoryRepository.count();
+
+        for (int i = 0; i < spins; i++) {
+            spinExecutor.execute(wheel, () -> rouletteService.spinRoulette(wheel, NAMES));
+        }
+
+        awaitFlushed(before + spins);
+        assertEquals(before + spins, selectionHistoryRepository.count());
+        // Los acumulados se escriben en el mismo volcado que el historial
+        assertEquals(spins, statsService.getParticipantStats(wheel, 1, "day").stream()
+                .mapToLong(ParticipantStatsDto::getWins)
+                .sum());
+    }
+
+    @Test
+    void flushOnCommitWritesBufferedEntriesInTheSameTransaction() {
+        String wheel = "flush-on-commit";
+        // Sin spin: aquí solo se quiere que existan los participantes
+        NAMES.forEach(name -> rouletteService.addParticipant(wheel, name));
+        HistoryRecorder recorder = new HistoryRecorder(selectionHistoryRepository, selectionRollupUpdater, transactionManager,
+                HistoryWriteMode.FLUSH_ON_COMMIT, 10, 10, Duration.ofMillis(10), Duration.ofMillis(10));
+        long before = selectionHistoryRepository.count();
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            List<Participant> participants = participantRepository.findByWheelAndNameIn(
+                    wheelRegistry.find(wheel).orElseThrow(), NAMES);
+            participants.forEach(p -> recorder.record(new SelectionHistory(p, participants.size(), 0.25)));
+            // Nada se escribe hasta el commit
+            assertEquals(before, selectionHistoryRepository.count());
+        });
+
+        assertEquals(before + NAMES.size(), selectionHistoryRepository.count());
+    }
+
+    private void awaitFlushed(long expected) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (selectionHistoryRepository.count() < expected && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        assertEquals(0, historyRecorder.pending());
+    }
+}
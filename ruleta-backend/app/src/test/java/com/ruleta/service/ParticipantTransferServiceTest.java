@@ -0,0 +1,126 @@
+package com.ruleta.service;
+
+import com.ruleta.dto.ParticipantDto;
+import com.ruleta.dto.ParticipantImportResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:participant-transfer-test;DB_CLOSE_DELAY=-1",
+        "spring.jpa.show-sql=false",
+        "logging.level.com.ruleta=WARN",
+        "ruleta.import.chunk-size=2"
+})
+class ParticipantTransferServiceTest {
+
+    @Autowired
+    private ParticipantTransferService transferService;
+
+    @Autowired
+    private RouletteService rouletteService;
+
+    @Test
+    void csvImportCreatesReactivatesAndUpdatesInChunks() throws Exception {
+        String wheel = "import-csv";
+        rouletteService.addParticipant(wheel, "ana");
+        rouletteService.addParticipant(wheel, "bruno");
+        rouletteService.removeParticipant(wheel, "bruno");
+
+        String csv = """
+                name,timesSelected,probabilityWeight
+                ana,3,
+                bruno,,
+                "carla, la del bajo",,2.5
+                dani
+                ana,3,
+                """;
+        ParticipantImportResponse result = transferService.importParticipants(wheel, stream(csv),
+                ParticipantTransferService.Format.CSV);
+
+        assertEquals(2, result.getCreated());
+        assertEquals(1, result.getReactivated());
+        // ana aparece en dos bloques: la primera vez cambia, la segunda ya tiene esos valores
+        assertEquals(1, result.getUpdated());
+        assertEquals(1, result.getUnchanged());
+
+        Map<String, ParticipantDto> active = byName(rouletteService.getAllActiveParticipants(wheel));
+        assertEquals(4, active.size());
+        assertEquals(3, active.get("ana").getTimesSelected());
+        assertEquals(2.5, active.get("carla, la del bajo").getProbabilityWeight(), 1e-9);
+    }
+
+    @Test
+    void exportedParticipantsImportBackUnchanged() throws Exception {
+        String source = "export-source";
+        rouletteService.addParticipant(source, "ana");
+        rouletteService.addParticipant(source, "bruno");
+        rouletteService.addParticipant(source, "carla");
+        rouletteService.removeParticipant(source, "carla");
+
+        for (ParticipantTransferService.Format format : ParticipantTransferService.Format.values()) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            transferService.exportParticipants(source, format, out);
+            assertTrue(out.toString(StandardCharsets.UTF_8).contains("carla"));
+
+            String target = "export-target-" + format;
+            ParticipantImportResponse result = transferService.importParticipants(target,
+                    new ByteArrayInputStream(out.toByteArray()), format);
+            assertEquals(2, result.getCreated());
+            assertEquals(1, result.getSkipped());
+
+            ParticipantImportResponse again = transferService.importParticipants(target,
+                    new ByteArrayInputStream(out.toByteArray()), format);
+            assertEquals(0, again.getCreated());
+            assertEquals(2, again.getUnchanged());
+            assertEquals(List.of("ana", "bruno"), rouletteService.getAllActiveParticipants(target).stream()
+                    .map(ParticipantDto::getName).sorted().toList());
+        }
+    }
+
+    @Test
+    void invalidLineStopsImportAfterCommittedChunks() {
+        String wheel = "import-invalid";
+        String ndjson = """
+                {"name":"ana"}
+                {"name":"bruno"}
+                {"name":"carla","probabilityWeight":-1}
+                {"name":"dani"}
+                """;
+        IllegalArgumentException error = assertThrows(IllegalArgumentException.class,
+                () -> transferService.importParticipants(wheel, stream(ndjson), ParticipantTransferService.Format.NDJSON));
+        assertTrue(error.getMessage().startsWith("Línea 3"));
+
+        Map<String, ParticipantDto> active = byName(rouletteService.getAllActiveParticipants(wheel));
+        assertEquals(2, active.size());
+        assertFalse(active.containsKey("dani"));
+    }
+
+    @Test
+    void csvFieldsHonourQuotes() {
+        assertEquals(List.of("a", "b, c", "d \"e\"", ""), ParticipantTransferService.parseCsvLine("a,\"b, c\",\"d \"\"e\"\"\","));
+        assertThrows(IllegalArgumentException.class, () -> ParticipantTransferService.parseCsvLine("\"abierto"));
+    }
+
+    private static InputStream stream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static Map<String, ParticipantDto> byName(List<ParticipantDto> participants) {
+        return participants.stream().collect(Collectors.toMap(ParticipantDto::getName, Function.identity()));
+    }
+}
@@ -0,0 +1,101 @@
+package com.ruleta.service;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.datasource.url=jdbc:h2:mem:participants-cache-test;DB_CLOSE_DELAY=-1",
+        "spring.jpa.show-sql=false",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "logging.level.com.ruleta=WARN",
+        "logging.level.org.springframework.web=WARN",
+        "ruleta.participants-cache.gzip-min-bytes=0"
+})
+class ParticipantsSnapshotCacheTest {
+
+    private static final String WHEEL = "cache-test";
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private RouletteService rouletteService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void unchangedStateIsServedFromCacheAndRevalidatedWithEtag() throws Exception {
+        rouletteService.addParticipant(WHEEL, "ana");
+        rouletteService.addParticipant(WHEEL, "bruno");
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        try (HttpClient client = HttpClient.newHttpClient()) {
+            HttpResponse<byte[]> first = get(client, null, false);
+            assertEquals(200, first.statusCode());
+            String etag = first.headers().firstValue("ETag").orElseThrow();
+            assertTrue(new String(first.body(), StandardCharsets.UTF_8).contains("\"name\":\"bruno\""));
+
+            // Con el estado sin cambios ni la revalidación ni la lectura completa tocan la base de datos
+            statistics.clear();
+            assertEquals(304, get(client, etag, false).statusCode());
+            HttpResponse<byte[]> cached = get(client, null, false);
+            assertArrayEquals(first.body(), cached.body());
+            assertEquals(etag, cached.headers().firstValue("ETag").orElseThrow());
+            assertEquals(0, statistics.getPrepareStatementCount());
+
+            // La representación comprimida tiene su propio ETag y el mismo contenido
+            HttpResponse<byte[]> gzipped = get(client, null, true);
+            assertEquals("gzip", gzipped.headers().firstValue("Content-Encoding").orElseThrow());
+            assertNotEquals(etag, gzipped.headers().firstValue("ETag").orElseThrow());
+            assertArrayEquals(first.body(), gunzip(gzipped.body()));
+
+            // Una escritura confirmada invalida el ETag anterior
+            rouletteService.spinRoulette(WHEEL, List.of("ana", "bruno"));
+            HttpResponse<byte[]> changed = get(client, etag, false);
+            assertEquals(200, changed.statusCode());
+            assertNotEquals(etag, changed.headers().firstValue("ETag").orElseThrow());
+            assertTrue(new String(changed.body(), StandardCharsets.UTF_8).contains("\"timesSelected\":1"));
+        }
+    }
+
+    private HttpResponse<byte[]> get(HttpClient client, String ifNoneMatch, boolean gzip)
+            throws IOException, InterruptedException {
+        HttpRequest.Builder request = HttpRequest.newBuilder(
+                URI.create("http://localhost:" + port + "/api/wheels/" + WHEEL + "/participants"));
+        if (ifNoneMatch != null) {
+            request.header("If-None-Match", ifNoneMatch);
+        }
+        if (gzip) {
+            request.header("Accept-Encoding", "gzip");
+        }
+        return client.send(request.build(), HttpResponse.BodyHandlers.ofByteArray());
+    }
+
+    private static byte[] gunzip(byte[] body) throws IOException {
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(body))) {
+            return in.readAllBytes();
+        }
+    }
+}
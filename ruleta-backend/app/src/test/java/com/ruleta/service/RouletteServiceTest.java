@@ -0,0 +1,261 @@
+package com.ruleta.service;
+
+import com.ruleta.dto.DrawHistoryDto;
+import com.ruleta.dto.HistoryEntryDto;
+import com.ruleta.dto.HistoryPageResponse;
+import com.ruleta.dto.ParticipantDto;
+import com.ruleta.dto.RouletteBatchSpinResponse;
+import com.ruleta.dto.RouletteDrawResponse;
+import com.ruleta.dto.RouletteSpinResponse;
+import com.ruleta.repository.SelectionHistoryRepository;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:roulette-service-test;DB_CLOSE_DELAY=-1",
+        "spring.jpa.show-sql=false",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+class RouletteServiceTest {
+
+    private static final String WHEEL = "service-test";
+
+    @Autowired
+    private RouletteService rouletteService;
+
+    @Autowired
+    private SelectionHistoryRepository selectionHistoryRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private SpinExecutor spinExecutor;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void spinStatementCountDoesNotGrowWithParticipants() {
+        long small = statementsPerSpin(names("small", 5));
+        long large = statementsPerSpin(names("large", 300));
+
+        assertTrue(small > 0);
+        assertEquals(small, large);
+    }
+
+    @Test
+    void spinRewritesOnlyTheWinnerAndTheWheel() {
+        String wheel = "writes";
+        List<String> names = names("writes", 300);
+        rouletteService.spinRoulette(wheel, names);
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        rouletteService.spinRoulette(wheel, names);
+
+        assertEquals(2, statistics.getEntityUpdateCount());
+    }
+
+    @Test
+    void spinResolvesDuplicatesAndReactivatesParticipants() {
+        rouletteService.addParticipant(WHEEL, "reactivated");
+        rouletteService.removeParticipant(WHEEL, "reactivated");
+
+        RouletteSpinResponse response = rouletteService.spinRoulette(WHEEL,
+                List.of("reactivated", "fresh", "fresh", "reactivated"));
+
+        assertEquals(2, response.getParticipants().size());
+        assertTrue(rouletteService.getAllActiveParticipants(WHEEL).stream()
+                .anyMatch(p -> p.getName().equals("reactivated")));
+    }
+
+    @Test
+    void wheelsAreIsolated() {
+        rouletteService.spinRoulette("isolated-a", List.of("shared", "only-a"));
+        rouletteService.spinRoulette("isolated-b", List.of("shared", "only-b"));
+        rouletteService.resetAllStats("isolated-b");
+
+        assertEquals(2, rouletteService.getAllActiveParticipants("isolated-a").size());
+        assertEquals(2, rouletteService.getAllActiveParticipants("isolated-b").size());
+        assertEquals(1, rouletteService.getAllActiveParticipants("isolated-a").stream()
+                .mapToInt(ParticipantDto::getTimesSelected)
+                .sum());
+        assertEquals(1, rouletteService.getRecentHistory("isolated-a", 1).size());
+        assertTrue(rouletteService.getAllActiveParticipants("missing").isEmpty());
+    }
+
+    @Test
+    void batchSpinAppliesEverySelection() {
+        List<String> names = names("batch", 4);
+        long historyBefore = selectionHistoryRepository.count();
+
+        RouletteBatchSpinResponse response = rouletteService.spinRouletteBatch(WHEEL, names, 25);
+
+        assertEquals(25, response.getWinners().size());
+        assertEquals(historyBefore + 25, selectionHistoryRepository.count());
+        int timesSelected = rouletteService.getAllActiveParticipants(WHEEL).stream()
+                .filter(p -> names.contains(p.getName()))
+                .mapToInt(ParticipantDto::getTimesSelected)
+                .sum();
+        assertEquals(25, timesSelected);
+    }
+
+    @Test
+    void batchSpinMatchesTheSameSpinsOneByOne() {
+        List<String> names = names("sequential", 5);
+        RouletteBatchSpinResponse batch = rouletteService.spinRouletteBatch("sequential-batch", names, 20);
+
+        // Los mismos ganadores, uno por spin: cada spin del lote tiene que ver los pesos que dejó el anterior
+        for (RouletteBatchSpinResponse.SpinResult result : batch.getWinners()) {
+            RouletteSpinResponse single = rouletteService.recordSpecificWinner("sequential-single", result.getWinner(), names);
+            assertEquals(single.getWinnerProbability(), result.getProbability(), 1e-12);
+        }
+
+        Map<String, Double> batchWeights = weightsByName("sequential-batch");
+        Map<String, Double> singleWeights = weightsByName("sequential-single");
+        assertEquals(singleWeights.keySet(), batchWeights.keySet());
+        singleWeights.forEach((name, weight) -> assertEquals(weight, batchWeights.get(name), 1e-12));
+    }
+
+    @Test
+    void batchSpinRejectsInvalidCount() {
+        assertThrows(IllegalArgumentException.class, () -> rouletteService.spinRouletteBatch(WHEEL, List.of("a", "b"), 0));
+    }
+
+    @Test
+    void drawPicksDistinctWinnersAndRecordsOneEntry() {
+        String wheel = "draw";
+        List<String> names = names("draw", 20);
+        rouletteService.spinRoulette(wheel, names);
+        List<ParticipantDto> before = rouletteService.getAllActiveParticipants(wheel);
+        long historyBefore = selectionHistoryRepository.count();
+
+        RouletteDrawResponse drawn = rouletteService.drawParticipants(wheel, null, 5);
+        List<String> winners = drawn.getWinners().stream().map(RouletteDrawResponse.DrawResult::getWinner).toList();
+        assertEquals(5, new HashSet<>(winners).size());
+        assertEquals(20, drawn.getTotalParticipants());
+
+        // Permutación completa: el último no tiene alternativa
+        RouletteDrawResponse permutation = rouletteService.drawParticipants(wheel, null, null);
+        assertEquals(20, permutation.getWinners().stream().map(RouletteDrawResponse.DrawResult::getWinner).distinct().count());
+        assertEquals(1.0, permutation.getWinners().get(19).getProbability(), 1e-9);
+
+        // Una entrada por extracción, sin tocar pesos, estadísticas ni el historial de spins
+        List<DrawHistoryDto> draws = rouletteService.getRecentDraws(wheel, 1, 10);
+        assertEquals(List.of(permutation.getDrawId(), drawn.getDrawId()), draws.stream().map(DrawHistoryDto::getId).toList());
+        assertEquals(winners, draws.get(1).getWinners());
+        assertEquals(historyBefore, selectionHistoryRepository.count());
+        assertEquals(before, rouletteService.getAllActiveParticipants(wheel));
+    }
+
+    @Test
+    void drawRejectsUnknownParticipantsAndInvalidCounts() {
+        String wheel = "draw-invalid";
+        rouletteService.spinRoulette(wheel, List.of("a", "b", "c"));
+
+        assertEquals(2, rouletteService.drawParticipants(wheel, List.of("a", "c"), null).getWinners().size());
+        assertThrows(IllegalArgumentException.class, () -> rouletteService.drawParticipants(wheel, List.of("a", "z"), 1));
+        assertThrows(IllegalArgumentException.class, () -> rouletteService.drawParticipants(wheel, null, 4));
+        assertThrows(IllegalArgumentException.class, () -> rouletteService.drawParticipants(wheel, null, 0));
+        assertThrows(IllegalArgumentException.class, () -> rouletteService.drawParticipants("missing", null, 1));
+    }
+
+    @Test
+    void historyPagesCoverEveryEntryOnceInOrder() {
+        String wheel = "paged-history";
+        rouletteService.spinRouletteBatch(wheel, names("paged", 3), 23);
+
+        List<HistoryEntryDto> paged = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            HistoryPageResponse page = rouletteService.getHistoryPage(wheel, 1, cursor, 5);
+            paged.addAll(page.getEntries());
+            cursor = page.getNextCursor();
+            pages++;
+        } while (cursor != null);
+
+        List<HistoryEntryDto> streamed = new ArrayList<>();
+        rouletteService.streamHistory(wheel, 1, streamed::add);
+
+        assertEquals(5, pages);
+        assertEquals(23, paged.size());
+        assertEquals(streamed, paged);
+        assertEquals(rouletteService.getRecentHistory(wheel, 1), paged);
+        assertThrows(IllegalArgumentException.class, () -> rouletteService.getHistoryPage(wheel, 1, "no-es-un-cursor", 5));
+    }
+
+    @Test
+    void spinMetricsCoverEveryPhaseAndEveryStatement() {
+        String wheel = "metrics";
+        List<String> names = names("metrics", 10);
+        double createdBefore = meterRegistry.get("ruleta.participants.created").counter().count();
+        spinExecutor.execute(wheel, () -> rouletteService.spinRoulette(wheel, names));
+        assertEquals(createdBefore + 10, meterRegistry.get("ruleta.participants.created").counter().count());
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        DistributionSummary spinStatements = meterRegistry.get("ruleta.spin.sql.statements")
+                .tag("operation", "spin").summary();
+        DistributionSummary commitStatements = meterRegistry.get("ruleta.spin.commit.sql.statements").summary();
+        double spinBefore = spinStatements.totalAmount();
+        double commitBefore = commitStatements.totalAmount();
+        long spinsBefore = spinStatements.count();
+        statistics.clear();
+
+        spinExecutor.execute(wheel, () -> rouletteService.spinRoulette(wheel, names));
+
+        // Operación más commit suman lo mismo que las estadísticas de Hibernate
+        assertEquals(spinsBefore + 1, spinStatements.count());
+        assertEquals(statistics.getPrepareStatementCount(),
+                spinStatements.totalAmount() - spinBefore + commitStatements.totalAmount() - commitBefore);
+        for (SpinMetrics.Phase phase : SpinMetrics.Phase.values()) {
+            Timer timer = meterRegistry.get("ruleta.spin.phase")
+                    .tag("operation", "spin")
+                    .tag("phase", phase.name().toLowerCase())
+                    .timer();
+            assertEquals(spinsBefore + 1, timer.count());
+        }
+        assertTrue(meterRegistry.get("ruleta.participants.active").gauge().value() >= names.size());
+    }
+
+    private long statementsPerSpin(List<String> names) {
+        // Primer spin para crear participantes y calentar la caché de ids
+        rouletteService.spinRoulette(WHEEL, names);
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        rouletteService.spinRoulette(WHEEL, names);
+        return statistics.getPrepareStatementCount();
+    }
+
+    private Map<String, Double> weightsByName(String wheel) {
+        return rouletteService.getAllActiveParticipants(wheel).stream()
+                .collect(Collectors.toMap(ParticipantDto::getName, ParticipantDto::getProbabilityWeight));
+    }
+
+    private static List<String> names(String prefix, int count) {
+        List<String> names = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            names.add(prefix + "-" + i);
+        }
+        return names;
+    }
+}
@@ -0,0 +1,73 @@
+package com.ruleta.service;
+
+import com.ruleta.entity.SelectionHistoryArchive;
+import com.ruleta.entity.Wheel;
+import com.ruleta.repository.SelectionHistoryArchiveRepository;
+import com.ruleta.repository.SelectionHistoryRepository;
+import com.ruleta.repository.WheelRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:history-retention-test;DB_CLOSE_DELAY=-1",
+        "spring.jpa.show-sql=false",
+        "logging.level.com.ruleta=WARN",
+        "ruleta.history.retention.enabled=false",
+        "ruleta.history.retention.chunk-size=7",
+        "ruleta.history.retention.chunk-pause=0ms"
+})
+class SelectionHistoryRetentionTest {
+
+    private static final List<String> NAMES = List.of("ana", "bruno", "carla");
+
+    @Autowired
+    private RouletteService rouletteService;
+
+    @Autowired
+    private SelectionHistoryRetention retention;
+
+    @Autowired
+    private SelectionHistoryRepository selectionHistoryRepository;
+
+    @Autowired
+    private SelectionHistoryArchiveRepository archiveRepository;
+
+    @Autowired
+    private WheelRepository wheelRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void movesOldEntriesToTheArchiveInChunks() throws InterruptedException {
+        String name = "retention";
+        rouletteService.spinRouletteBatch(name, NAMES, 30);
+        Wheel wheel = wheelRepository.findByName(name).orElseThrow();
+
+        // Las 20 primeras pasan a tener 100 días: más de dos trozos completos y uno parcial
+        List<Long> ids = jdbcTemplate.queryForList(
+                "SELECT id FROM selection_history WHERE wheel_id = ? ORDER BY id", Long.class, wheel.getId());
+        ids.subList(0, 20).forEach(id -> jdbcTemplate.update(
+                "UPDATE selection_history SET selected_at = DATEADD('DAY', -100, selected_at) WHERE id = ?", id));
+
+        LocalDateTime horizon = LocalDateTime.now().minusDays(90);
+        assertEquals(20, retention.archiveOlderThan(horizon));
+        assertEquals(0, retention.archiveOlderThan(horizon));
+
+        assertEquals(10, selectionHistoryRepository.countByWheel(wheel));
+        assertEquals(10, rouletteService.getRecentHistory(name, 365).size());
+        assertEquals(20, archiveRepository.countByWheelId(wheel.getId()));
+        for (SelectionHistoryArchive entry : archiveRepository.findAllById(ids.subList(0, 20))) {
+            assertTrue(entry.getSelectedAt().isBefore(horizon));
+            assertEquals(NAMES.size(), entry.getTotalParticipants());
+        }
+    }
+}
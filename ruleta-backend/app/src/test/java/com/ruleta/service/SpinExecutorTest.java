@@ -0,0 +1,106 @@
+package com.ruleta.service;
+
+import com.ruleta.dto.HistoryEntryDto;
+import com.ruleta.dto.ParticipantDto;
+import com.ruleta.repository.SelectionHistoryRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:spin-executor-test;DB_CLOSE_DELAY=-1",
+        "spring.jpa.show-sql=false",
+        "logging.level.com.ruleta=WARN",
+        "ruleta.executor.shards=2",
+        "ruleta.executor.max-batch=16"
+})
+@Slf4j
+class SpinExecutorTest {
+
+    private static final List<String> NAMES = List.of("ana", "bruno", "carla", "diego", "elena", "fede");
+
+    @Autowired
+    private SpinExecutor spinExecutor;
+
+    @Autowired
+    private RouletteService rouletteService;
+
+    @Autowired
+    private SelectionHistoryRepository selectionHistoryRepository;
+
+    @Test
+    void concurrentSpinsLoseNoUpdates() throws Exception {
+        String wheel = "stress";
+        int threads = 16;
+        int spinsPerThread = 25;
+
+        runConcurrently(wheel, threads, spinsPerThread);
+
+        List<ParticipantDto> participants = rouletteService.getAllActiveParticipants(wheel);
+        assertEquals(threads * spinsPerThread, participants.stream().mapToInt(ParticipantDto::getTimesSelected).sum());
+
+        // Reproducir el historial en orden de commit debe dar exactamente los pesos guardados
+        Map<String, Double> expected = new HashMap<>();
+        participants.forEach(p -> expected.put(p.getName(), 1.0));
+        List<HistoryEntryDto> history = new ArrayList<>(
+                rouletteService.getRecentHistory(wheel, 1));
+        history.sort(Comparator.comparing(HistoryEntryDto::getId));
+        assertEquals(threads * spinsPerThread, history.size());
+
+        for (HistoryEntryDto selection : history) {
+            String winner = selection.getParticipantName();
+            expected.replaceAll((name, weight) -> name.equals(winner)
+                    ? Math.max(0.1, weight * 0.5)
+                    : Math.min(3.0, weight * 1.1));
+        }
+        for (ParticipantDto participant : participants) {
+            assertEquals(expected.get(participant.getName()), participant.getProbabilityWeight(), 1e-9,
+                    "Peso divergente para " + participant.getName());
+        }
+    }
+
+    @Test
+    void reportsThroughputByClientThreads() throws Exception {
+        for (int threads : new int[]{1, 4, 16}) {
+            int spinsPerThread = 400 / threads;
+            long start = System.nanoTime();
+            runConcurrently("throughput-" + threads, threads, spinsPerThread);
+            double seconds = (System.nanoTime() - start) / 1e9;
+            log.warn("Ejecutor de spins: {} hilos cliente -> {} spins/s",
+                    threads, String.format("%.0f", threads * spinsPerThread / seconds));
+        }
+        assertEquals(0, spinExecutor.queuedOperations());
+    }
+
+    private void runConcurrently(String wheel, int threads, int spinsPerThread) throws Exception {
+        ExecutorService clients = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                futures.add(clients.submit(() -> {
+                    for (int i = 0; i < spinsPerThread; i++) {
+                        spinExecutor.execute(wheel, () -> rouletteService.spinRoulette(wheel, NAMES));
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            clients.shutdown();
+        }
+    }
+}
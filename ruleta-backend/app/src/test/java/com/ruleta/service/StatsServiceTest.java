@@ -0,0 +1,68 @@
+package com.ruleta.service;
+
+import com.ruleta.dto.HistoryEntryDto;
+import com.ruleta.dto.ParticipantStatsDto;
+import com.ruleta.dto.StatsBucketDto;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:stats-service-test;DB_CLOSE_DELAY=-1",
+        "spring.jpa.show-sql=false",
+        "logging.level.com.ruleta=WARN"
+})
+class StatsServiceTest {
+
+    private static final List<String> NAMES = List.of("ana", "bruno", "carla");
+
+    @Autowired
+    private RouletteService rouletteService;
+
+    @Autowired
+    private StatsService statsService;
+
+    @Test
+    void rollupsMatchTheHistory() {
+        String wheel = "stats";
+        for (int i = 0; i < 10; i++) {
+            rouletteService.spinRoulette(wheel, NAMES);
+        }
+        rouletteService.spinRouletteBatch(wheel, NAMES, 20);
+        rouletteService.recordSpecificWinner(wheel, "ana", NAMES);
+
+        List<HistoryEntryDto> history = rouletteService.getRecentHistory(wheel, 1);
+        Map<String, Long> expectedWins = history.stream()
+                .collect(Collectors.groupingBy(HistoryEntryDto::getParticipantName, Collectors.counting()));
+        Map<String, Double> expectedProbability = history.stream()
+                .collect(Collectors.groupingBy(HistoryEntryDto::getParticipantName,
+                        Collectors.averagingDouble(HistoryEntryDto::getProbabilityAtSelection)));
+
+        for (String granularity : List.of("hour", "day")) {
+            List<ParticipantStatsDto> stats = statsService.getParticipantStats(wheel, 1, granularity);
+            assertEquals(expectedWins.size(), stats.size());
+            for (ParticipantStatsDto participant : stats) {
+                assertEquals(expectedWins.get(participant.getParticipantName()), participant.getWins());
+                assertEquals(expectedProbability.get(participant.getParticipantName()),
+                        participant.getAverageProbability(), 1e-9);
+                assertEquals(NAMES.size(), participant.getAverageParticipants(), 1e-9);
+            }
+            long spins = statsService.getTimeline(wheel, 1, granularity).stream()
+                    .mapToLong(StatsBucketDto::getSpins)
+                    .sum();
+            assertEquals(history.size(), spins);
+        }
+    }
+
+    @Test
+    void rejectsUnknownGranularity() {
+        assertThrows(IllegalArgumentException.class, () -> statsService.getTimeline("stats", 7, "week"));
+    }
+}
@@ -0,0 +1,243 @@
+package com.ruleta.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.datasource.url=jdbc:h2:mem:wheel-events-test;DB_CLOSE_DELAY=-1",
+        "spring.jpa.show-sql=false",
+        "logging.level.com.ruleta=WARN",
+        "logging.level.org.springframework.web=WARN"
+})
+class WheelEventBroadcasterTest {
+
+    private static final Duration WAIT = Duration.ofSeconds(10);
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private RouletteService rouletteService;
+
+    @Test
+    void everySubscriberReceivesTheSameCommittedEvents() throws Exception {
+        String wheel = "events";
+        HttpClient client = HttpClient.newHttpClient();
+        try {
+            BlockingQueue<String> first = subscribe(client, wheel);
+            BlockingQueue<String> second = subscribe(client, wheel);
+
+            rouletteService.addParticipant(wheel, "ana");
+            rouletteService.spinRoulette(wheel, List.of("ana", "bruno"));
+
+            for (BlockingQueue<String> lines : List.of(first, second)) {
+                List<String> added = nextEvent(lines);
+                assertEquals("event: participant-added", added.get(1));
+                assertTrue(added.get(2).contains("\"name\":\"ana\""), added.get(2));
+
+                List<String> spin = nextEvent(lines);
+                assertEquals("event: spin", spin.get(1));
+                assertTrue(spin.get(2).contains("\"wheel\":\"events\""), spin.get(2));
+                assertTrue(spin.get(2).contains("\"winner\""), spin.get(2));
+            }
+        } finally {
+            // close() esperaría a que el servidor cerrase los streams
+            client.shutdownNow();
+        }
+    }
+
+    @Test
+    void slowSubscriberIsDisconnectedWithoutDelayingTheOthers() throws Exception {
+        WheelEventBroadcaster broadcaster = new WheelEventBroadcaster(
+                new ObjectMapper().registerModule(new JavaTimeModule()), new SimpleMeterRegistry(),
+                2, SubscriberOverflowPolicy.DISCONNECT, 10, Duration.ofMinutes(1), Duration.ofMinutes(1), 2, Duration.ofMinutes(1));
+        broadcaster.start();
+        try {
+            CountDownLatch release = new CountDownLatch(1);
+            WheelEventBroadcaster.Subscriber slow = broadcaster.register("wheel", new TestSink(release));
+            TestSink fastSink = new TestSink(null);
+            WheelEventBroadcaster.Subscriber fast = broadcaster.register("wheel", fastSink);
+
+            // Al ritmo del suscriptor rápido: solo el lento se queda atrás
+            for (int i = 0; i < 5; i++) {
+                broadcaster.participantRemoved("wheel", "participant-" + i);
+                awaitFrames(fastSink, i + 2);
+            }
+
+            assertTrue(slow.isClosed());
+            assertFalse(fast.isClosed());
+            assertEquals(1, broadcaster.subscribers());
+            release.countDown();
+        } finally {
+            broadcaster.stop();
+        }
+    }
+
+    @Test
+    void blockedWritesDoNotStarveOtherSubscribers() throws Exception {
+        WheelEventBroadcaster broadcaster = new WheelEventBroadcaster(
+                new ObjectMapper().registerModule(new JavaTimeModule()), new SimpleMeterRegistry(),
+                16, SubscriberOverflowPolicy.DROP_OLDEST, 10, Duration.ofMinutes(1), Duration.ofMinutes(1), 2,
+                Duration.ofMillis(200));
+        broadcaster.start();
+        CountDownLatch release = new CountDownLatch(1);
+        try {
+            // Más clientes atascados que escritores, en otra ruleta: se quedan bloqueados en la trama inicial
+            List<WheelEventBroadcaster.Subscriber> stalled = new ArrayList<>();
+            for (int i = 0; i < 3; i++) {
+                stalled.add(broadcaster.register("stalled", new StalledSink(release)));
+            }
+            TestSink healthySink = new TestSink(null);
+            WheelEventBroadcaster.Subscriber healthy = broadcaster.register("healthy", healthySink);
+
+            broadcaster.participantRemoved("stalled", "participant-0");
+            broadcaster.participantRemoved("healthy", "participant-0");
+            awaitFrames(healthySink, 2);
+
+            long deadline = System.nanoTime() + WAIT.toNanos();
+            while (stalled.stream().anyMatch(subscriber -> !subscriber.isClosed()) && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+            assertTrue(stalled.stream().allMatch(WheelEventBroadcaster.Subscriber::isClosed));
+            assertFalse(healthy.isClosed());
+            assertEquals(1, broadcaster.subscribers());
+        } finally {
+            release.countDown();
+            broadcaster.stop();
+        }
+    }
+
+    private BlockingQueue<String> subscribe(HttpClient client, String wheel) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/wheels/" + wheel + "/events"))
+                .header("Accept", "text/event-stream")
+                .build();
+        HttpResponse<Stream<String>> response = client.send(request, HttpResponse.BodyHandlers.ofLines());
+        assertEquals(200, response.statusCode());
+
+        BlockingQueue<String> lines = new LinkedBlockingQueue<>();
+        Thread reader = new Thread(() -> response.body().forEach(lines::add));
+        reader.setDaemon(true);
+        reader.start();
+        // La trama inicial confirma que la suscripción está registrada antes de publicar
+        assertEquals("retry: 3000", lines.poll(WAIT.toMillis(), TimeUnit.MILLISECONDS));
+        assertEquals("", lines.poll(WAIT.toMillis(), TimeUnit.MILLISECONDS));
+        return lines;
+    }
+
+    /**
+     * Lee las líneas {@code id}, {@code event} y {@code data} del siguiente evento
+     */
+    private static List<String> nextEvent(BlockingQueue<String> lines) throws InterruptedException {
+        List<String> event = new ArrayList<>();
+        String line;
+        while ((line = lines.poll(WAIT.toMillis(), TimeUnit.MILLISECONDS)) != null && !line.isEmpty()) {
+            event.add(line);
+        }
+        assertNotNull(line, "No llegó el evento a tiempo");
+        assertEquals(3, event.size(), event::toString);
+        assertTrue(event.get(0).startsWith("id: "));
+        return event;
+    }
+
+    private static void awaitFrames(TestSink sink, int frames) throws InterruptedException {
+        long deadline = System.nanoTime() + WAIT.toNanos();
+        while (sink.frames.size() < frames && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+        assertEquals(frames, sink.frames.size());
+        assertTrue(sink.frames.get(frames - 1).contains("\"participantName\":\"participant-" + (frames - 2) + "\""));
+    }
+
+    /**
+     * Escritura bloqueada en un socket lleno: no responde a interrupciones, solo vuelve al abrir el latch
+     */
+    private static final class StalledSink implements WheelEventBroadcaster.Sink {
+
+        private final CountDownLatch release;
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        private StalledSink(CountDownLatch release) {
+            this.release = release;
+        }
+
+        @Override
+        public void write(byte[] frame) throws IOException {
+            boolean interrupted = false;
+            while (release.getCount() > 0) {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+            if (closed.get()) {
+                throw new IOException("Conexión cerrada");
+            }
+        }
+
+        @Override
+        public void close() {
+            closed.set(true);
+        }
+    }
+
+    /**
+     * Sink en memoria; con un latch se queda bloqueado en la primera escritura, como un cliente que no lee
+     */
+    private static final class TestSink implements WheelEventBroadcaster.Sink {
+
+        private final CountDownLatch release;
+        private final List<String> frames = new CopyOnWriteArrayList<>();
+
+        private TestSink(CountDownLatch release) {
+            this.release = release;
+        }
+
+        @Override
+        public void write(byte[] frame) throws IOException {
+            if (release != null) {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IOException("Conexión cerrada", e);
+                }
+            }
+            frames.add(new String(frame, StandardCharsets.UTF_8));
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
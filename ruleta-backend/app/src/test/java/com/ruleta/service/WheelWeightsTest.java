@@ -0,0 +1,82 @@
+package com.ruleta.service;
+
+import com.ruleta.entity.Participant;
+import com.ruleta.entity.Wheel;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class WheelWeightsTest {
+
+    @Test
+    void lazyBoostMatchesEagerRecalculation() {
+        assertEquivalent(WeightPolicy.DEFAULT, 1L);
+        assertEquivalent(new WeightPolicy(1.2, 1.05, 0.2, 1.5), 2L);
+    }
+
+    @Test
+    void shrinkingBoostFallsBackToEagerRecalculation() {
+        assertEquivalent(new WeightPolicy(0.5, 0.9, 0.1, 3.0), 3L);
+    }
+
+    /**
+     * Repite spins aleatorios sobre subconjuntos de la ruleta, con bajas y reactivaciones, y compara
+     * con el cálculo original: ganador × winnerFactor, demás del spin × othersFactor, resto sin cambios.
+     */
+    private static void assertEquivalent(WeightPolicy policy, long seed) {
+        // El almacén JPA no necesita que se le anoten los cambios: sin repositorios basta
+        WheelWeights wheelWeights = new WheelWeights(policy, new JpaWheelStore(null, null, null, null, null));
+        Wheel wheel = new Wheel("equivalence");
+        Random random = new Random(seed);
+
+        List<Participant> all = new ArrayList<>();
+        List<Participant> active = new ArrayList<>();
+        Map<Participant, Double> expected = new IdentityHashMap<>();
+        for (int i = 0; i < 8; i++) {
+            Participant participant = new Participant(wheel, "p" + i);
+            wheelWeights.set(wheel, participant, 1.0);
+            all.add(participant);
+            active.add(participant);
+            expected.put(participant, 1.0);
+        }
+
+        for (int spin = 0; spin < 2_000; spin++) {
+            if (spin % 97 == 0 && active.size() > 3) {
+                Participant leaving = active.remove(random.nextInt(active.size()));
+                wheelWeights.freeze(wheel, leaving);
+            } else if (spin % 89 == 0 && active.size() < all.size()) {
+                Participant returning = all.stream().filter(p -> !active.contains(p)).findFirst().orElseThrow();
+                wheelWeights.resume(wheel, returning);
+                active.add(returning);
+            }
+
+            List<Participant> inSpin = new ArrayList<>();
+            List<Participant> outsiders = new ArrayList<>();
+            for (Participant participant : active) {
+                (random.nextInt(4) == 0 ? outsiders : inSpin).add(participant);
+            }
+            if (inSpin.size() < 2) {
+                inSpin.addAll(outsiders);
+                outsiders.clear();
+            }
+            Participant winner = inSpin.get(random.nextInt(inSpin.size()));
+
+            wheelWeights.recalculate(wheel, inSpin, outsiders, winner);
+            for (Participant participant : inSpin) {
+                double weight = expected.get(participant);
+                expected.put(participant, participant == winner ? policy.afterWin(weight) : policy.afterLoss(weight));
+            }
+
+            for (Participant participant : active) {
+                assertEquals(expected.get(participant), wheelWeights.weightOf(wheel, participant), 1e-12,
+                        "Peso divergente para " + participant.getName() + " en el spin " + spin);
+            }
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.ruleta.service.admission;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AdmissionControllerTest {
+
+    private static final long MILLIS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    @Test
+    void gradientGrowsWithSteadyLatencyAndShrinksWhenItRises() {
+        GradientLimit limit = new GradientLimit(20, 4, 200, 2.0);
+        for (int i = 0; i < 50; i++) {
+            limit.update(5 * MILLIS, limit.limit());
+        }
+        int grown = limit.limit();
+        assertTrue(grown > 20, "límite tras latencia estable: " + grown);
+
+        // Latencias muy por encima de la media a largo plazo: la cola está creciendo
+        for (int i = 0; i < 50; i++) {
+            limit.update(50 * MILLIS, limit.limit());
+        }
+        assertTrue(limit.limit() < grown / 2, "límite tras latencia creciente: " + limit.limit());
+        for (int i = 0; i < 200; i++) {
+            limit.update(500 * MILLIS, limit.limit());
+        }
+        assertEquals(4, limit.limit());
+    }
+
+    @Test
+    void gradientIgnoresSamplesWhileUnderused() {
+        GradientLimit limit = new GradientLimit(20, 4, 200, 2.0);
+        for (int i = 0; i < 50; i++) {
+            limit.update(5 * MILLIS, 2);
+        }
+        assertEquals(20, limit.limit());
+    }
+
+    @Test
+    void rejectsWithRetryAfterOnceTheLimitIsFull() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        AdmissionController admission = new AdmissionController(registry, true,
+                AdmissionController.LimitAlgorithm.FIXED, 2, 1, 10, 2.0, 1,
+                Duration.ofMillis(20), Duration.ofSeconds(3));
+
+        long first = admission.admit();
+        admission.admit();
+        assertEquals(2, admission.inFlight());
+
+        AdmissionRejectedException rejected = assertThrows(AdmissionRejectedException.class, admission::admit);
+        assertEquals(Duration.ofSeconds(3), rejected.getRetryAfter());
+        assertEquals(1.0, registry.get("ruleta.admission.rejected").counter().count());
+
+        admission.release(first, true);
+        admission.admit();
+        assertEquals(2, admission.inFlight());
+        assertEquals(2, admission.limit());
+    }
+
+    @Test
+    void waiterIsAdmittedWhenASlotIsReleased() throws Exception {
+        AdmissionController admission = new AdmissionController(new SimpleMeterRegistry(), true,
+                AdmissionController.LimitAlgorithm.FIXED, 1, 1, 10, 2.0, 4,
+                Duration.ofSeconds(5), Duration.ofSeconds(1));
+
+        long held = admission.admit();
+        CompletableFuture<Long> waiter = CompletableFuture.supplyAsync(admission::admit);
+        while (admission.waiting() == 0) {
+            Thread.onSpinWait();
+        }
+        admission.release(held, true);
+
+        waiter.get(5, TimeUnit.SECONDS);
+        assertEquals(1, admission.inFlight());
+        assertEquals(0, admission.waiting());
+    }
+}
@@ -0,0 +1,120 @@
+package com.ruleta.service.eventlog;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class EventLogTest {
+
+    private static final int SEGMENT_SIZE = 256;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void recordsAreReadBackInOrderAcrossSegments() {
+        List<Long> positions = new ArrayList<>();
+        try (EventLog log = new EventLog(directory, SEGMENT_SIZE, false)) {
+            for (int i = 0; i < 20; i++) {
+                positions.add(log.append(record(i)));
+            }
+            List<String> records = readAll(log, 0);
+            assertEquals(20, records.size());
+            assertEquals("record-19", records.get(19));
+            assertEquals(15, readAll(log, positions.get(5)).size());
+        }
+
+        // Al reabrir se ve lo mismo y se sigue escribiendo al final
+        try (EventLog log = new EventLog(directory, SEGMENT_SIZE, false)) {
+            log.append(record(20));
+            List<String> records = readAll(log, 0);
+            assertEquals(21, records.size());
+            assertEquals("record-20", records.get(20));
+
+            // Solo se borran segmentos enteros anteriores a la posición; lo posterior sigue legible
+            log.deleteBefore(positions.get(18));
+            assertEquals(SEGMENT_SIZE, log.start());
+            assertEquals(List.of("record-18", "record-19", "record-20"), readAll(log, positions.get(18)));
+        }
+    }
+
+    @Test
+    void truncatedTailRecordIsDiscardedOnOpen() throws IOException {
+        long lastPosition;
+        try (EventLog log = new EventLog(directory, SEGMENT_SIZE, false)) {
+            log.append(record(0));
+            log.append(record(1));
+            lastPosition = log.append(record(2));
+        }
+
+        // Caída a mitad del último registro: el fichero acaba dentro de sus datos
+        Path segment = singleSegment();
+        try (RandomAccessFile file = new RandomAccessFile(segment.toFile(), "rw")) {
+            file.setLength(lastPosition + EventLog.HEADER_BYTES + 3);
+        }
+
+        try (EventLog log = new EventLog(directory, SEGMENT_SIZE, false)) {
+            assertEquals(lastPosition, log.end());
+            assertEquals(List.of("record-0", "record-1"), readAll(log, 0));
+
+            // El hueco se reutiliza sin restos del registro cortado
+            assertEquals(lastPosition, log.append(record(3)));
+            assertEquals(List.of("record-0", "record-1", "record-3"), readAll(log, 0));
+        }
+    }
+
+    @Test
+    void corruptedRecordAndEverythingAfterItAreDiscarded() throws IOException {
+        long corruptedPosition;
+        try (EventLog log = new EventLog(directory, SEGMENT_SIZE, false)) {
+            log.append(record(0));
+            corruptedPosition = log.append(record(1));
+            log.append(record(2));
+        }
+
+        // Página de datos no escrita: longitud presente pero contenido que no cuadra con el CRC
+        try (RandomAccessFile file = new RandomAccessFile(singleSegment().toFile(), "rw")) {
+            file.seek(corruptedPosition + EventLog.HEADER_BYTES);
+            file.write('X');
+        }
+
+        try (EventLog log = new EventLog(directory, SEGMENT_SIZE, false)) {
+            assertEquals(corruptedPosition, log.end());
+            assertEquals(List.of("record-0"), readAll(log, 0));
+            assertNull(log.reader(log.end()).next());
+        }
+    }
+
+    private Path singleSegment() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            List<Path> segments = files.toList();
+            assertEquals(1, segments.size());
+            return segments.get(0);
+        }
+    }
+
+    private static byte[] record(int index) {
+        return ("record-" + index).getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static List<String> readAll(EventLog log, long position) {
+        EventLog.Reader reader = log.reader(position);
+        List<String> records = new ArrayList<>();
+        byte[] data;
+        while ((data = reader.next()) != null) {
+            records.add(new String(data, StandardCharsets.UTF_8));
+        }
+        return records;
+    }
+}
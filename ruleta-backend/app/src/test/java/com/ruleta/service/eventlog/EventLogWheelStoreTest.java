@@ -0,0 +1,203 @@
+package com.ruleta.service.eventlog;
+
+import com.ruleta.dto.HistoryEntryDto;
+import com.ruleta.entity.Participant;
+import com.ruleta.entity.Wheel;
+import com.ruleta.repository.ParticipantRepository;
+import com.ruleta.repository.WheelRepository;
+import com.ruleta.service.RouletteService;
+import com.ruleta.service.WheelRegistry;
+import com.ruleta.service.WheelStore;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:event-log-test;DB_CLOSE_DELAY=-1",
+        "spring.jpa.show-sql=false",
+        "logging.level.com.ruleta=WARN",
+        "ruleta.storage.engine=event-log",
+        "ruleta.event-log.segment-size=64KB",
+        "ruleta.event-log.snapshot-every=2KB",
+        "ruleta.event-log.projection-interval=20ms"
+})
+class EventLogWheelStoreTest {
+
+    private static final String WHEEL = "event-log";
+    private static final Path DIRECTORY = createDirectory();
+
+    @Autowired
+    private RouletteService rouletteService;
+
+    @Autowired
+    private WheelStore wheelStore;
+
+    @Autowired
+    private EventLog eventLog;
+
+    @Autowired
+    private EventLogProjector projector;
+
+    @Autowired
+    private WheelRepository wheelRepository;
+
+    @Autowired
+    private ParticipantRepository participantRepository;
+
+    @Autowired
+    private WheelRegistry wheelRegistry;
+
+    @DynamicPropertySource
+    static void eventLogDirectory(DynamicPropertyRegistry registry) {
+        registry.add("ruleta.event-log.directory", DIRECTORY::toString);
+    }
+
+    @Test
+    void replayRestoresStateAndProjectionCatchesUp() throws Exception {
+        assertInstanceOf(EventLogWheelStore.class, wheelStore);
+        List<String> names = List.of("ana", "bruno", "carla", "dani");
+        rouletteService.addParticipant(WHEEL, "eva");
+        for (int i = 0; i < 40; i++) {
+            rouletteService.spinRoulette(WHEEL, names);
+        }
+        rouletteService.spinRouletteBatch(WHEEL, names, 20);
+        rouletteService.recordSpecificWinner(WHEEL, "eva", List.of("ana", "eva"));
+        rouletteService.removeParticipant(WHEEL, "bruno");
+
+        // Otro almacén sobre los mismos ficheros: instantánea más cola del log reproducen el mismo estado
+        WheelStore.View expected = wheelStore.view(WHEEL).orElseThrow();
+        EventLogWheelStore restarted = new EventLogWheelStore(new EventLog(DIRECTORY, Math.toIntExact(
+                DataSize.ofKilobytes(64).toBytes()), false), wheelRepository, participantRepository,
+                DIRECTORY, DataSize.ofKilobytes(2));
+        restarted.open();
+        WheelStore.View replayed = restarted.view(WHEEL).orElseThrow();
+        assertEquals(expected.wheel(), replayed.wheel());
+        assertEquals(expected.active(), replayed.active());
+        assertTrue(snapshotCount() >= 1);
+
+        // Las tablas JPA alcanzan al log: mismo estado y todo el historial
+        awaitProjection();
+        Map<String, Participant> projected = participantRepository.findByWheel(wheelRegistry.find(WHEEL).orElseThrow())
+                .stream()
+                .collect(Collectors.toMap(Participant::getName, participant -> participant));
+        for (Participant participant : expected.active()) {
+            Participant row = projected.get(participant.getName());
+            assertEquals(participant.getTimesSelected(), row.getTimesSelected());
+            assertEquals(participant.getProbabilityWeight(), row.getProbabilityWeight());
+            assertEquals(participant.getWeightEpoch(), row.getWeightEpoch());
+        }
+        assertEquals(false, projected.get("bruno").getIsActive());
+        List<HistoryEntryDto> history = rouletteService.getRecentHistory(WHEEL, 1);
+        assertEquals(61, history.size());
+    }
+
+    @Test
+    void spinLogsOnlyTheParticipantsItChanged() {
+        List<String> names = IntStream.range(0, 200).mapToObj(i -> "marked-" + i).collect(Collectors.toList());
+        rouletteService.spinRoulette("marked", names);
+
+        // El registro de un spin lleva al ganador, no a los 200 participantes de la ruleta
+        long before = eventLog.end();
+        rouletteService.spinRoulette("marked", names);
+        WheelChange change = WheelChange.decode(eventLog.reader(before).next());
+        assertEquals(1, change.participants().size());
+        assertEquals(1, change.selections().size());
+    }
+
+    @Test
+    void failedAppendRestoresTheLoggedState() throws Exception {
+        Path directory = Files.createTempDirectory("event-log-failing");
+        FailingEventLog failing = new FailingEventLog(directory);
+        EventLogWheelStore store = new EventLogWheelStore(failing, wheelRepository, participantRepository,
+                directory, DataSize.ofMegabytes(1));
+        store.open();
+        Wheel wheel = store.getOrCreateWheel("failing-append");
+        Participant ana = store.insert(wheel, List.of(new Participant(wheel, "ana"))).get(0);
+        store.commit(wheel, List.of());
+        long boostEpoch = wheel.getBoostEpoch();
+
+        // Un spin cuyo registro no llega al log: la memoria vuelve a lo escrito y el alta se retira
+        ana.setTimesSelected(ana.getTimesSelected() + 1);
+        store.markChanged(wheel, ana);
+        wheel.setBoostEpoch(boostEpoch + 1);
+        store.insert(wheel, List.of(new Participant(wheel, "bruno")));
+        failing.failNext = true;
+        assertThrows(UncheckedIOException.class, () -> store.commit(wheel, List.of()));
+        assertEquals(0, ana.getTimesSelected());
+        assertEquals(boostEpoch, wheel.getBoostEpoch());
+        assertTrue(store.findByName(wheel, "bruno").isEmpty());
+
+        // El siguiente cambio se escribe entero, y es lo que ve un arranque
+        ana.setTimesSelected(1);
+        store.markChanged(wheel, ana);
+        store.commit(wheel, List.of());
+        EventLogWheelStore restarted = new EventLogWheelStore(new EventLog(directory, Math.toIntExact(
+                DataSize.ofKilobytes(64).toBytes()), false), wheelRepository, participantRepository,
+                directory, DataSize.ofMegabytes(1));
+        restarted.open();
+        List<Participant> active = restarted.view("failing-append").orElseThrow().active();
+        assertEquals(1, active.size());
+        assertEquals(1, active.get(0).getTimesSelected());
+    }
+
+    private void awaitProjection() throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(20).toNanos();
+        while (projector.position() < eventLog.end() && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(eventLog.end(), projector.position());
+    }
+
+    private static long snapshotCount() throws IOException {
+        try (var files = Files.list(DIRECTORY)) {
+            return files.filter(file -> file.getFileName().toString().startsWith("snapshot-")).count();
+        }
+    }
+
+    /**
+     * Log cuyo siguiente registro falla a petición, como con el disco lleno
+     */
+    private static final class FailingEventLog extends EventLog {
+
+        private volatile boolean failNext;
+
+        private FailingEventLog(Path directory) {
+            super(directory, Math.toIntExact(DataSize.ofKilobytes(64).toBytes()), false);
+        }
+
+        @Override
+        public long append(byte[] data) {
+            if (failNext) {
+                failNext = false;
+                throw new UncheckedIOException(new IOException("No queda espacio en el dispositivo"));
+            }
+            return super.append(data);
+        }
+    }
+
+    private static Path createDirectory() {
+        try {
+            return Files.createTempDirectory("event-log-test");
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
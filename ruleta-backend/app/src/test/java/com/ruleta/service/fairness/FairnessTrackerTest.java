@@ -0,0 +1,225 @@
+package com.ruleta.service.fairness;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ruleta.dto.FairnessReportDto;
+import com.ruleta.dto.HistoryEntryDto;
+import com.ruleta.dto.ParticipantFairnessDto;
+import com.ruleta.repository.FairnessSnapshotRepository;
+import com.ruleta.repository.SelectionHistoryRepository;
+import com.ruleta.repository.WheelRepository;
+import com.ruleta.service.RouletteService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:fairness-test;DB_CLOSE_DELAY=-1",
+        "spring.jpa.show-sql=false",
+        "ruleta.fairness.snapshot-interval=0",
+        "logging.level.com.ruleta=WARN"
+})
+class FairnessTrackerTest {
+
+    private static final List<String> NAMES = List.of("ana", "bruno", "carla");
+
+    @Autowired
+    private RouletteService rouletteService;
+
+    @Autowired
+    private FairnessTracker fairnessTracker;
+
+    @Autowired
+    private SelectionHistoryRepository selectionHistoryRepository;
+
+    @Autowired
+    private WheelRepository wheelRepository;
+
+    @Autowired
+    private FairnessSnapshotRepository fairnessSnapshotRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void accumulatorsMatchTheHistory() {
+        String wheel = "fairness";
+        for (int i = 0; i < 10; i++) {
+            rouletteService.spinRoulette(wheel, NAMES);
+        }
+        rouletteService.spinRouletteBatch(wheel, NAMES, 40);
+        rouletteService.recordSpecificWinner(wheel, "ana", NAMES);
+        rouletteService.recordSpecificWinner(wheel, "ana", NAMES);
+
+        FairnessReportDto report = fairnessTracker.report(wheel).orElseThrow();
+        List<HistoryEntryDto> history = chronological(wheel);
+        assertEquals(history.size(), report.getSpins());
+        assertEquals(history.size(), report.getTrackedSpins());
+        assertEquals("ana", report.getStreakHolder());
+        assertTrue(report.getCurrentStreak() >= 2);
+
+        Map<String, ParticipantFairnessDto> participants = byName(report);
+        double expectedTotal = participants.values().stream().mapToDouble(ParticipantFairnessDto::getExpectedWins).sum();
+        assertEquals(history.size(), expectedTotal, 1e-9);
+
+        // Misma cuenta que el informe, recorriendo el historial
+        double chiSquare = 0;
+        for (ParticipantFairnessDto participant : participants.values()) {
+            assertEquals(history.size(), participant.getTrackedSpins());
+            assertEquals(participant.getWins(), participant.getTrackedWins());
+            double deviation = participant.getTrackedWins() - participant.getExpectedWins();
+            chiSquare += deviation * deviation / participant.getExpectedWins();
+        }
+        assertEquals(chiSquare, report.getChiSquare(), 1e-9);
+        assertEquals(NAMES.size() - 1, report.getDegreesOfFreedom());
+        assertNotNull(report.getChiSquarePValue());
+
+        assertDroughtsAndStreaks(history, participants);
+    }
+
+    @Test
+    void snapshotRestoresEveryAccumulator() {
+        String wheel = "fairness-snapshot";
+        rouletteService.spinRouletteBatch(wheel, NAMES, 30);
+        rouletteService.recordSpecificWinner(wheel, "bruno", NAMES);
+        fairnessTracker.snapshot();
+        FairnessReportDto live = fairnessTracker.report(wheel).orElseThrow();
+
+        // Un tracker recién creado, como tras un reinicio, carga la instantánea: esperados incluidos
+        FairnessTracker restarted = restartedTracker();
+        assertEquals(live, restarted.report(wheel).orElseThrow());
+
+        // Y sigue acumulando donde lo dejó
+        rouletteService.spinRoulette(wheel, NAMES);
+        assertEquals(live.getSpins() + 1, fairnessTracker.report(wheel).orElseThrow().getSpins());
+        assertEquals(0, restarted.snapshot());
+    }
+
+    @Test
+    void wheelWithoutSnapshotIsRebuiltOnceFromHistory() {
+        String wheel = "fairness-replay";
+        rouletteService.spinRouletteBatch(wheel, NAMES, 30);
+        FairnessReportDto live = fairnessTracker.report(wheel).orElseThrow();
+        fairnessSnapshotRepository.deleteById(wheel);
+
+        // Sin instantánea solo queda el historial, como con una base anterior a fairness_snapshots
+        FairnessTracker restarted = restartedTracker();
+        FairnessReportDto replayed = restarted.report(wheel).orElseThrow();
+        assertTrue(fairnessSnapshotRepository.existsById(wheel));
+
+        assertEquals(live.getSpins(), replayed.getSpins());
+        assertEquals(0, replayed.getTrackedSpins());
+        assertNull(replayed.getChiSquare());
+        assertEquals(live.getStreakHolder(), replayed.getStreakHolder());
+        assertEquals(live.getCurrentStreak(), replayed.getCurrentStreak());
+
+        Map<String, ParticipantFairnessDto> replayedParticipants = byName(replayed);
+        for (ParticipantFairnessDto participant : live.getParticipants()) {
+            ParticipantFairnessDto seeded = replayedParticipants.get(participant.getParticipantName());
+            if (participant.getWins() == 0) {
+                // Sin victorias no aparece en el historial
+                assertNull(seeded);
+                continue;
+            }
+            assertEquals(participant.getWins(), seeded.getWins());
+            assertEquals(participant.getAverageProbabilityAtWin(), seeded.getAverageProbabilityAtWin(), 1e-9);
+            assertEquals(participant.getLongestStreak(), seeded.getLongestStreak());
+            assertEquals(participant.getCurrentDrought(), seeded.getCurrentDrought());
+        }
+
+        // El siguiente arranque ya no vuelve al historial
+        assertEquals(replayed, restartedTracker().report(wheel).orElseThrow());
+    }
+    @Test
+    void resetClearsTheAccumulatorsAndIsSaved() {
+        String wheel = "fairness-reset";
+        rouletteService.spinRouletteBatch(wheel, NAMES, 20);
+        fairnessTracker.snapshot();
+
+        rouletteService.resetAllStats(wheel);
+        FairnessReportDto reset = fairnessTracker.report(wheel).orElseThrow();
+        assertEquals(0, reset.getSpins());
+        assertEquals(0, reset.getTrackedSpins());
+        assertEquals(0, reset.getRepeats());
+        assertNull(reset.getStreakHolder());
+        assertNull(reset.getChiSquare());
+        assertTrue(reset.getParticipants().isEmpty());
+
+        // La próxima instantánea guarda el estado vacío en lugar del anterior
+        fairnessTracker.snapshot();
+        assertEquals(reset, restartedTracker().report(wheel).orElseThrow());
+
+        // Y vuelve a contar desde cero
+        rouletteService.spinRoulette(wheel, NAMES);
+        FairnessReportDto after = fairnessTracker.report(wheel).orElseThrow();
+        assertEquals(1, after.getSpins());
+        assertEquals(1, after.getTrackedSpins());
+        assertEquals(1, byName(after).get(after.getStreakHolder()).getWins());
+    }
+
+    @Test
+    void chiSquareSurvivalMatchesTables() {
+        assertEquals(0.05, ChiSquare.survival(3.841459, 1), 1e-6);
+        assertEquals(0.05, ChiSquare.survival(18.307038, 10), 1e-6);
+        assertEquals(0.01, ChiSquare.survival(9.210340, 2), 1e-6);
+        assertEquals(1.0, ChiSquare.survival(0, 4), 0.0);
+    }
+
+    private void assertDroughtsAndStreaks(List<HistoryEntryDto> history, Map<String, ParticipantFairnessDto> participants) {
+        Map<String, Integer> lastWin = new HashMap<>();
+        Map<String, Integer> longestDrought = new HashMap<>();
+        Map<String, Integer> longestStreak = new HashMap<>();
+        NAMES.forEach(name -> lastWin.put(name, 0));
+        String holder = null;
+        int streak = 0;
+        for (int spin = 1; spin <= history.size(); spin++) {
+            String winner = history.get(spin - 1).getParticipantName();
+            longestDrought.merge(winner, spin - lastWin.get(winner) - 1, Math::max);
+            lastWin.put(winner, spin);
+            streak = winner.equals(holder) ? streak + 1 : 1;
+            holder = winner;
+            longestStreak.merge(winner, streak, Math::max);
+        }
+        for (String name : NAMES) {
+            ParticipantFairnessDto participant = participants.get(name);
+            int current = history.size() - lastWin.get(name);
+            assertEquals(current, participant.getCurrentDrought());
+            assertEquals(Math.max(current, longestDrought.getOrDefault(name, 0)), participant.getLongestDrought());
+            assertEquals(longestStreak.getOrDefault(name, 0).longValue(), participant.getLongestStreak());
+        }
+    }
+
+    private FairnessTracker restartedTracker() {
+        FairnessTracker restarted = new FairnessTracker(selectionHistoryRepository, wheelRepository,
+                fairnessSnapshotRepository, objectMapper, transactionManager, Duration.ZERO);
+        restarted.afterSingletonsInstantiated();
+        return restarted;
+    }
+
+    private List<HistoryEntryDto> chronological(String wheel) {
+        return rouletteService.getRecentHistory(wheel, 1).stream()
+                .sorted(Comparator.comparing(HistoryEntryDto::getSelectedAt).thenComparing(HistoryEntryDto::getId))
+                .collect(Collectors.toList());
+    }
+
+    private static Map<String, ParticipantFairnessDto> byName(FairnessReportDto report) {
+        return report.getParticipants().stream()
+                .collect(Collectors.toMap(ParticipantFairnessDto::getParticipantName, Function.identity()));
+    }
+}
@@ -0,0 +1,99 @@
+package com.ruleta.service.sampling;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AliasTableTest {
+
+    // Pesos típicos tras varios spins: mínimos, máximos y valores intermedios
+    private static final double[] WEIGHTS = {0.1, 3.0, 1.0, 1.1, 0.5, 2.357, 0.25, 1.771561, 3.0, 0.8};
+
+    private static final int DRAWS = 500_000;
+
+    // Valor crítico chi-cuadrado con 9 grados de libertad para p = 0.001
+    private static final double CHI_SQUARE_CRITICAL_DF9 = 27.877;
+
+    @Test
+    void tableReproducesExactProbabilities() {
+        AliasTable table = AliasTable.of(WEIGHTS);
+        double total = 0.0;
+        for (double weight : WEIGHTS) {
+            total += weight;
+        }
+
+        for (int i = 0; i < WEIGHTS.length; i++) {
+            assertEquals(WEIGHTS[i] / total, table.probabilityOf(i), 1e-12);
+        }
+    }
+
+    @Test
+    void aliasDrawsMatchExpectedDistribution() {
+        long[] counts = draw(AliasTable.of(WEIGHTS), new SplittableRandom(42));
+        assertTrue(goodnessOfFit(counts, WEIGHTS) < CHI_SQUARE_CRITICAL_DF9);
+    }
+
+    @Test
+    void aliasDrawsMatchCumulativeSampler() {
+        long[] alias = draw(AliasTable.of(WEIGHTS), new SplittableRandom(7));
+        long[] cumulative = draw(CumulativeSampler.of(WEIGHTS), new SplittableRandom(11));
+
+        assertTrue(goodnessOfFit(cumulative, WEIGHTS) < CHI_SQUARE_CRITICAL_DF9);
+        assertTrue(homogeneity(alias, cumulative) < CHI_SQUARE_CRITICAL_DF9);
+    }
+
+    @Test
+    void zeroWeightIsNeverDrawn() {
+        AliasTable table = AliasTable.of(new double[]{0.0, 1.0, 0.0, 2.0});
+        long[] counts = draw(table, new SplittableRandom(3));
+        assertEquals(0, counts[0]);
+        assertEquals(0, counts[2]);
+    }
+
+    @Test
+    void rejectsInvalidWeights() {
+        assertThrows(IllegalArgumentException.class, () -> AliasTable.of(new double[0]));
+        assertThrows(IllegalArgumentException.class, () -> AliasTable.of(new double[]{0.0, 0.0}));
+        assertThrows(IllegalArgumentException.class, () -> AliasTable.of(new double[]{1.0, Double.NaN}));
+        assertThrows(IllegalArgumentException.class, () -> AliasTable.of(new double[]{1.0, -0.5}));
+    }
+
+    private static long[] draw(WeightedSampler sampler, SplittableRandom random) {
+        long[] counts = new long[sampler.size()];
+        for (int i = 0; i < DRAWS; i++) {
+            counts[sampler.sample(random)]++;
+        }
+        return counts;
+    }
+
+    private static double goodnessOfFit(long[] counts, double[] weights) {
+        double total = 0.0;
+        for (double weight : weights) {
+            total += weight;
+        }
+        double chiSquare = 0.0;
+        for (int i = 0; i < counts.length; i++) {
+            double expected = DRAWS * weights[i] / total;
+            double diff = counts[i] - expected;
+            chiSquare += diff * diff / expected;
+        }
+        return chiSquare;
+    }
+
+    private static double homogeneity(long[] first, long[] second) {
+        double chiSquare = 0.0;
+        for (int i = 0; i < first.length; i++) {
+            double pooled = (first[i] + second[i]) / 2.0;
+            chiSquare += sq(first[i] - pooled) / pooled + sq(second[i] - pooled) / pooled;
+        }
+        return chiSquare;
+    }
+
+    private static double sq(double value) {
+        return value * value;
+    }
+}
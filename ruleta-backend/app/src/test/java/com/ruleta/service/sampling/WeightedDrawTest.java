@@ -0,0 +1,76 @@
+package com.ruleta.service.sampling;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class WeightedDrawTest {
+
+    private static final double[] WEIGHTS = {1.0, 2.0, 3.0, 4.0};
+
+    private static final int DRAWS = 400_000;
+
+    // Valor crítico chi-cuadrado con 11 grados de libertad para p = 0.001
+    private static final double CHI_SQUARE_CRITICAL_DF11 = 31.264;
+
+    @Test
+    void orderedPairsMatchSequentialDrawsWithoutReplacement() {
+        int n = WEIGHTS.length;
+        long[][] counts = new long[n][n];
+        SplittableRandom random = new SplittableRandom(42);
+        for (int i = 0; i < DRAWS; i++) {
+            int[] drawn = WeightedDraw.draw(WEIGHTS, 2, random);
+            counts[drawn[0]][drawn[1]]++;
+        }
+
+        // P(i y luego j) = w_i / T · w_j / (T - w_i)
+        double total = Arrays.stream(WEIGHTS).sum();
+        double chiSquare = 0.0;
+        for (int i = 0; i < n; i++) {
+            assertEquals(0, counts[i][i]);
+            for (int j = 0; j < n; j++) {
+                if (i != j) {
+                    double expected = DRAWS * WEIGHTS[i] / total * WEIGHTS[j] / (total - WEIGHTS[i]);
+                    double diff = counts[i][j] - expected;
+                    chiSquare += diff * diff / expected;
+                }
+            }
+        }
+        assertTrue(chiSquare < CHI_SQUARE_CRITICAL_DF11, "chi-cuadrado: " + chiSquare);
+    }
+
+    @Test
+    void fullDrawIsAPermutationWithZeroWeightsLast() {
+        double[] weights = new double[10_000];
+        Arrays.fill(weights, 1.0);
+        weights[3] = 0.0;
+        weights[7] = 0.0;
+
+        int[] drawn = WeightedDraw.draw(weights, weights.length, new SplittableRandom(7));
+
+        int[] sorted = drawn.clone();
+        Arrays.sort(sorted);
+        for (int i = 0; i < sorted.length; i++) {
+            assertEquals(i, sorted[i]);
+        }
+        int[] tail = Arrays.copyOfRange(drawn, drawn.length - 2, drawn.length);
+        Arrays.sort(tail);
+        assertArrayEquals(new int[]{3, 7}, tail);
+    }
+
+    @Test
+    void rejectsInvalidCountsAndWeights() {
+        SplittableRandom random = new SplittableRandom(1);
+        assertEquals(0, WeightedDraw.draw(WEIGHTS, 0, random).length);
+        assertThrows(IllegalArgumentException.class, () -> WeightedDraw.draw(WEIGHTS, 5, random));
+        assertThrows(IllegalArgumentException.class, () -> WeightedDraw.draw(WEIGHTS, -1, random));
+        assertThrows(IllegalArgumentException.class, () -> WeightedDraw.draw(new double[]{1.0, Double.NaN}, 1, random));
+        assertThrows(IllegalArgumentException.class, () -> WeightedDraw.draw(new double[]{1.0, -0.5}, 1, random));
+    }
+}
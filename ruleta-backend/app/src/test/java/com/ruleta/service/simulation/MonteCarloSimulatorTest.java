@@ -0,0 +1,69 @@
+package com.ruleta.service.simulation;
+
+import com.ruleta.dto.SimulationResponse;
+import com.ruleta.service.WeightPolicy;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MonteCarloSimulatorTest {
+
+    private static final WeightPolicy UNIFORM = new WeightPolicy(1.0, 1.0, 1.0, 1.0);
+
+    @Test
+    void sameSeedGivesSameResultWithAnyParallelism() {
+        SimulationResponse sequential = simulate(1, WeightPolicy.DEFAULT, 8, 500, 64, 42L);
+        SimulationResponse parallel = simulate(4, WeightPolicy.DEFAULT, 8, 500, 64, 42L);
+
+        assertEquals(sequential.getMeanWinCountVariance(), parallel.getMeanWinCountVariance(), 0.0);
+        assertEquals(sequential.getMeanMaxDrought(), parallel.getMeanMaxDrought(), 0.0);
+        assertEquals(sequential.getStreakHistogram(), parallel.getStreakHistogram());
+    }
+
+    @Test
+    void uniformPolicyMatchesBinomialVariance() {
+        SimulationResponse result = simulate(2, UNIFORM, 5, 1_000, 400, 7L);
+
+        // La media de victorias es exacta (spins / N), así que la varianza esperada es la binomial
+        double expected = result.getUniformWinCountVariance();
+        assertEquals(expected, result.getMeanWinCountVariance(), expected * 0.1);
+
+        long spinsInStreaks = 0;
+        for (int i = 0; i < result.getStreakHistogram().size(); i++) {
+            spinsInStreaks += (i + 1) * result.getStreakHistogram().get(i);
+        }
+        assertEquals(result.getTotalSpins(), spinsInStreaks);
+    }
+
+    @Test
+    void defaultPolicyIsFairerThanUniformDraws() {
+        SimulationResponse uniform = simulate(2, UNIFORM, 10, 1_000, 100, 3L);
+        SimulationResponse weighted = simulate(2, WeightPolicy.DEFAULT, 10, 1_000, 100, 3L);
+
+        assertTrue(weighted.getMeanWinCountVariance() < uniform.getMeanWinCountVariance());
+        assertTrue(weighted.getMeanMaxDrought() < uniform.getMeanMaxDrought());
+    }
+
+    @Test
+    void rejectsSimulationsOverTheOperationLimit() {
+        MonteCarloSimulator simulator = new MonteCarloSimulator(1, 1_000);
+        try {
+            assertThrows(IllegalArgumentException.class,
+                    () -> simulator.simulate(WeightPolicy.DEFAULT, 10, 10, 11, 1L));
+        } finally {
+            simulator.stop();
+        }
+    }
+
+    private static SimulationResponse simulate(int parallelism, WeightPolicy policy,
+                                               int participants, int spins, int trials, long seed) {
+        MonteCarloSimulator simulator = new MonteCarloSimulator(parallelism, Long.MAX_VALUE);
+        try {
+            return simulator.simulate(policy, participants, spins, trials, seed);
+        } finally {
+            simulator.stop();
+        }
+    }
+}
@@ -0,0 +1,332 @@
+package com.ruleta.loadtest;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Escalado horizontal del modo multinodo: N procesos de la aplicación con {@code ruleta.cluster.enabled}
+ * contra un mismo servidor H2 (modo TCP, otro proceso más), para cada N de {@code --nodes}.
+ * <p>
+ * {@code --clients} clientes en bucle cerrado giran ruletas al azar de entre {@code --wheels}, cada
+ * petición contra un nodo al azar, así que varios nodos escriben a la vez en la misma ruleta. Se mide el
+ * rendimiento tras el calentamiento y, al final, se comprueba en cada ruleta que las victorias de los
+ * participantes y el historial coinciden con los spins confirmados al cliente, leídos desde dos nodos
+ * distintos. Termina con código 1 si alguna ruleta no cuadra. Cada N empieza con una base de datos vacía.
+ * <p>
+ * Opciones: {@code --nodes=1,2,4 --clients=64 --wheels=32 --participants=20 --warmup=5 --duration=20
+ * --app-args=...} (tiempos en segundos)
+ */
+public class ClusterScaleTest {
+
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(60);
+    private static final Pattern TIMES_SELECTED = Pattern.compile("\"timesSelected\":(\\d+)");
+    private static final Pattern HISTORY_ENTRY = Pattern.compile("\"participantName\":");
+
+    record Result(int nodes, long spins, long rejected, long errors, double seconds, List<String> inconsistencies) {
+
+        double throughput() {
+            return spins / seconds;
+        }
+    }
+
+    private final int clients;
+    private final int wheels;
+    private final int participants;
+    private final Duration warmup;
+    private final Duration duration;
+    private final List<String> appArguments;
+
+    ClusterScaleTest(int clients, int wheels, int participants, Duration warmup, Duration duration,
+                     List<String> appArguments) {
+        this.clients = clients;
+        this.wheels = wheels;
+        this.participants = participants;
+        this.warmup = warmup;
+        this.duration = duration;
+        this.appArguments = appArguments;
+    }
+
+    public static void main(String[] args) throws Exception {
+        List<Integer> nodes = List.of(1, 2, 4);
+        int clients = 64;
+        int wheels = 32;
+        int participants = 20;
+        Duration warmup = Duration.ofSeconds(5);
+        Duration duration = Duration.ofSeconds(20);
+        List<String> appArguments = List.of();
+
+        for (String arg : args) {
+            String[] option = arg.split("=", 2);
+            if (option.length != 2 || !option[0].startsWith("--")) {
+                throw new IllegalArgumentException("Opción no válida: " + arg);
+            }
+            String value = option[1];
+            switch (option[0]) {
+                case "--nodes" -> nodes = Stream.of(value.split(",")).map(String::trim).map(Integer::parseInt).toList();
+                case "--clients" -> clients = Integer.parseInt(value);
+                case "--wheels" -> wheels = Integer.parseInt(value);
+                case "--participants" -> participants = Integer.parseInt(value);
+                case "--warmup" -> warmup = Duration.ofSeconds(Long.parseLong(value));
+                case "--duration" -> duration = Duration.ofSeconds(Long.parseLong(value));
+                case "--app-args" -> appArguments = List.of(value.trim().split("\\s+"));
+                default -> throw new IllegalArgumentException("Opción desconocida: " + option[0]);
+            }
+        }
+
+        ClusterScaleTest test = new ClusterScaleTest(clients, wheels, participants, warmup, duration, appArguments);
+        List<Result> results = new ArrayList<>();
+        for (int count : nodes) {
+            results.add(test.run(count));
+        }
+        print(results);
+
+        boolean consistent = true;
+        for (Result result : results) {
+            if (!result.inconsistencies().isEmpty()) {
+                consistent = false;
+                System.out.printf("%nEstado incoherente con %d nodos:%n", result.nodes());
+                result.inconsistencies().forEach(line -> System.out.println("  " + line));
+            }
+        }
+        if (!consistent) {
+            System.exit(1);
+        }
+        System.out.println("Estado coherente en todas las ruletas");
+    }
+
+    Result run(int nodeCount) throws Exception {
+        System.out.printf("Arrancando base de datos y %d nodos...%n", nodeCount);
+        Path baseDir = Path.of("build", "loadtest", "cluster-db-" + nodeCount).toAbsolutePath();
+        deleteRecursively(baseDir);
+        Files.createDirectories(baseDir);
+
+        List<ServerProcess> servers = new ArrayList<>();
+        try (DatabaseServer database = DatabaseServer.start(baseDir)) {
+            List<String> arguments = new ArrayList<>();
+            arguments.add("--spring.datasource.url=" + database.url("ruleta"));
+            arguments.add("--ruleta.cluster.enabled=true");
+            // La retención se reparte mal entre nodos y aquí no hay nada que archivar
+            arguments.add("--ruleta.history.retention.enabled=false");
+            arguments.addAll(appArguments);
+            // En serie: el primero aplica las migraciones
+            for (int i = 0; i < nodeCount; i++) {
+                servers.add(ServerProcess.start("cluster-" + nodeCount + "-node-" + i,
+                        List.of("-cp", System.getProperty("java.class.path")), arguments));
+            }
+            List<String> baseUrls = servers.stream().map(ServerProcess::baseUrl).toList();
+            return drive(nodeCount, baseUrls);
+        } finally {
+            for (ServerProcess server : servers) {
+                server.close();
+            }
+        }
+    }
+
+    private Result drive(int nodeCount, List<String> baseUrls) throws Exception {
+        String body = "{\"participantNames\":[" + Stream.iterate(0, i -> i + 1).limit(participants)
+                .map(i -> "\"participant-" + i + "\"")
+                .reduce((a, b) -> a + "," + b).orElse("") + "]}";
+        AtomicLongArray confirmed = new AtomicLongArray(wheels);
+        LongAdder measured = new LongAdder();
+        LongAdder rejected = new LongAdder();
+        LongAdder errors = new LongAdder();
+
+        long start = System.nanoTime();
+        long measureFrom = start + warmup.toNanos();
+        long measureUntil = measureFrom + duration.toNanos();
+        try (HttpClient client = HttpClient.newBuilder()
+                     .version(HttpClient.Version.HTTP_1_1)
+                     .connectTimeout(REQUEST_TIMEOUT)
+                     .executor(Executors.newVirtualThreadPerTaskExecutor())
+                     .build()) {
+            try (ExecutorService workers = Executors.newVirtualThreadPerTaskExecutor()) {
+                for (int c = 0; c < clients; c++) {
+                    SplittableRandom random = new SplittableRandom(c);
+                    workers.submit(() -> {
+                        while (System.nanoTime() < measureUntil) {
+                            int wheel = random.nextInt(wheels);
+                            String baseUrl = baseUrls.get(random.nextInt(baseUrls.size()));
+                            HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/api/wheels/" + wheelName(wheel) + "/spin"))
+                                    .timeout(REQUEST_TIMEOUT)
+                                    .header("Content-Type", "application/json")
+                                    .POST(HttpRequest.BodyPublishers.ofString(body))
+                                    .build();
+                            int status;
+                            try {
+                                status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+                            } catch (IOException e) {
+                                errors.increment();
+                                continue;
+                            }
+                            long finished = System.nanoTime();
+                            if (status / 100 == 2) {
+                                confirmed.incrementAndGet(wheel);
+                                if (finished >= measureFrom && finished < measureUntil) {
+                                    measured.increment();
+                                }
+                            } else if (status == 429 || status == 503) {
+                                rejected.increment();
+                            } else {
+                                errors.increment();
+                            }
+                        }
+                        return null;
+                    });
+                }
+            }
+            return new Result(nodeCount, measured.sum(), rejected.sum(), errors.sum(), duration.toNanos() / 1e9,
+                    verify(client, baseUrls, confirmed));
+        }
+    }
+
+    /**
+     * Cada spin confirmado es exactamente una victoria y una entrada de historial, vistas desde dos nodos
+     */
+    private List<String> verify(HttpClient client, List<String> baseUrls, AtomicLongArray confirmed)
+            throws IOException, InterruptedException {
+        List<String> inconsistencies = new ArrayList<>();
+        for (int wheel = 0; wheel < wheels; wheel++) {
+            String wheelUrl = "/api/wheels/" + wheelName(wheel);
+            String first = baseUrls.get(wheel % baseUrls.size());
+            String second = baseUrls.get((wheel + 1) % baseUrls.size());
+            long expected = confirmed.get(wheel);
+
+            long wins = sum(TIMES_SELECTED, get(client, first + wheelUrl + "/participants"));
+            long winsElsewhere = sum(TIMES_SELECTED, get(client, second + wheelUrl + "/participants"));
+            long history = count(HISTORY_ENTRY, get(client, first + wheelUrl + "/history?days=1"));
+            if (wins != expected || winsElsewhere != expected || history != expected) {
+                inconsistencies.add(String.format(Locale.ROOT,
+                        "%s: %d spins confirmados, %d victorias (%d desde otro nodo), %d entradas de historial",
+                        wheelName(wheel), expected, wins, winsElsewhere, history));
+            }
+        }
+        return inconsistencies;
+    }
+
+    private static String get(HttpClient client, String url) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(url)).timeout(REQUEST_TIMEOUT).build();
+        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            throw new IOException("GET " + url + " respondió " + response.statusCode());
+        }
+        return response.body();
+    }
+
+    private static long sum(Pattern pattern, String json) {
+        long total = 0;
+        Matcher matcher = pattern.matcher(json);
+        while (matcher.find()) {
+            total += Long.parseLong(matcher.group(1));
+        }
+        return total;
+    }
+
+    private static long count(Pattern pattern, String json) {
+        return pattern.matcher(json).results().count();
+    }
+
+    private static String wheelName(int wheel) {
+        return "cluster-" + wheel;
+    }
+
+    private static void print(List<Result> results) {
+        double single = results.stream().filter(result -> result.nodes() == 1)
+                .mapToDouble(Result::throughput).findFirst().orElse(Double.NaN);
+        System.out.println();
+        System.out.printf("%6s %10s %10s %12s %10s %10s %8s%n",
+                "nodos", "spins", "spins/s", "aceleración", "eficiencia", "rechazos", "errores");
+        for (Result result : results) {
+            double speedup = result.throughput() / single;
+            System.out.printf(Locale.ROOT, "%6d %10d %10.1f %11.2fx %9.0f%% %10d %8d%n",
+                    result.nodes(), result.spins(), result.throughput(), speedup, speedup / result.nodes() * 100,
+                    result.rejected(), result.errors());
+        }
+    }
+
+    private static void deleteRecursively(Path directory) throws IOException {
+        if (!Files.exists(directory)) {
+            return;
+        }
+        try (Stream<Path> paths = Files.walk(directory)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(path);
+            }
+        }
+    }
+
+    /**
+     * Servidor H2 en modo TCP en un proceso aparte, con el classpath de este
+     */
+    private static final class DatabaseServer implements AutoCloseable {
+
+        private final Process process;
+        private final int port;
+
+        private DatabaseServer(Process process, int port) {
+            this.process = process;
+            this.port = port;
+        }
+
+        static DatabaseServer start(Path baseDir) throws IOException, InterruptedException {
+            int port;
+            try (ServerSocket socket = new ServerSocket(0)) {
+                port = socket.getLocalPort();
+            }
+            Process process = new ProcessBuilder(
+                    Path.of(System.getProperty("java.home"), "bin", "java").toString(),
+                    "-cp", System.getProperty("java.class.path"),
+                    "org.h2.tools.Server", "-tcp", "-tcpPort", Integer.toString(port),
+                    "-ifNotExists", "-baseDir", baseDir.toString())
+                    .redirectErrorStream(true)
+                    .redirectOutput(baseDir.resolveSibling(baseDir.getFileName() + ".log").toFile())
+                    .start();
+            DatabaseServer server = new DatabaseServer(process, port);
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+            while (System.nanoTime() < deadline) {
+                if (!process.isAlive()) {
+                    throw new IllegalStateException("El servidor H2 terminó al arrancar");
+                }
+                try (Socket socket = new Socket("localhost", port)) {
+                    return server;
+                } catch (IOException e) {
+                    Thread.sleep(50);
+                }
+            }
+            server.close();
+            throw new IllegalStateException("El servidor H2 no arrancó en 30 s");
+        }
+
+        String url(String database) {
+            return "jdbc:h2:tcp://localhost:" + port + "/" + database;
+        }
+
+        @Override
+        public void close() throws InterruptedException {
+            process.destroy();
+            if (!process.waitFor(30, TimeUnit.SECONDS)) {
+                process.destroyForcibly();
+            }
+        }
+    }
+}
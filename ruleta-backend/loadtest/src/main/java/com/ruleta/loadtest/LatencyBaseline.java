@@ -0,0 +1,118 @@
+package com.ruleta.loadtest;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Properties;
+
+/**
+ * Referencia de rendimiento de {@link OpenModelLoadTest} por endpoint, guardada como fichero de propiedades
+ * ({@code spin.p99=12.5}, en milisegundos y peticiones por segundo).
+ * <p>
+ * Un endpoint empeora si una latencia supera la referencia en más de la tolerancia (y de {@link #LATENCY_SLACK_MILLIS},
+ * para que el ruido en latencias de un milisegundo no cuente), si su rendimiento baja más de la tolerancia, o si
+ * la fracción de peticiones fallidas o descartadas sube más de {@link #FAILURE_SLACK}.
+ */
+final class LatencyBaseline {
+
+    static final double LATENCY_SLACK_MILLIS = 1.0;
+    static final double FAILURE_SLACK = 0.001;
+    private static final double[] PERCENTILES = {50, 99, 99.9};
+
+    private final Properties values;
+
+    private LatencyBaseline(Properties values) {
+        this.values = values;
+    }
+
+    static LatencyBaseline load(Path path) throws IOException {
+        Properties values = new Properties();
+        try (Reader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            values.load(reader);
+        }
+        return new LatencyBaseline(values);
+    }
+
+    static void save(Path path, double rate, List<OpenModelLoadTest.Result> results) throws IOException {
+        Properties values = new Properties();
+        values.setProperty("rate", format(rate));
+        for (OpenModelLoadTest.Result result : results) {
+            String name = result.name();
+            values.setProperty(name + ".throughput", format(result.throughput()));
+            for (double percentile : PERCENTILES) {
+                values.setProperty(name + "." + percentileKey(percentile), format(result.percentileMillis(percentile)));
+            }
+            values.setProperty(name + ".failures", format(failureRatio(result)));
+        }
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        try (Writer writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8)) {
+            values.store(writer, "Referencia de OpenModelLoadTest");
+        }
+    }
+
+    /**
+     * Diferencias que superan la tolerancia, una por línea; vacía si no hay regresiones
+     *
+     * @throws IllegalArgumentException si la referencia se tomó con otro ritmo de llegadas
+     */
+    List<String> compare(double rate, List<OpenModelLoadTest.Result> results, double tolerance) {
+        double baselineRate = Double.parseDouble(values.getProperty("rate", "0"));
+        // Se guarda con tres decimales
+        if (Math.abs(baselineRate - rate) > 1e-3) {
+            throw new IllegalArgumentException("La referencia se midió con --rate=" + format(baselineRate)
+                    + ", no con " + format(rate));
+        }
+        List<String> regressions = new ArrayList<>();
+        for (OpenModelLoadTest.Result result : results) {
+            String name = result.name();
+            if (values.getProperty(name + ".throughput") == null) {
+                continue;
+            }
+            for (double percentile : PERCENTILES) {
+                String key = name + "." + percentileKey(percentile);
+                String stored = values.getProperty(key);
+                if (stored == null) {
+                    continue;
+                }
+                double reference = Double.parseDouble(stored);
+                double actual = result.percentileMillis(percentile);
+                if (actual > reference * (1 + tolerance) + LATENCY_SLACK_MILLIS) {
+                    regressions.add(String.format(Locale.ROOT, "%s: %.1f ms (referencia %.1f ms)", key, actual, reference));
+                }
+            }
+            double referenceThroughput = Double.parseDouble(values.getProperty(name + ".throughput"));
+            if (result.throughput() < referenceThroughput * (1 - tolerance)) {
+                regressions.add(String.format(Locale.ROOT, "%s.throughput: %.1f/s (referencia %.1f/s)",
+                        name, result.throughput(), referenceThroughput));
+            }
+            double referenceFailures = Double.parseDouble(values.getProperty(name + ".failures", "0"));
+            if (failureRatio(result) > referenceFailures + FAILURE_SLACK) {
+                regressions.add(String.format(Locale.ROOT, "%s.failures: %.2f%% (referencia %.2f%%)",
+                        name, failureRatio(result) * 100, referenceFailures * 100));
+            }
+        }
+        return regressions;
+    }
+
+    // Fallidas (no 2xx o sin respuesta) y descartadas sobre las llegadas medidas
+    private static double failureRatio(OpenModelLoadTest.Result result) {
+        long arrivals = result.latencies().getTotalCount() + result.dropped();
+        return arrivals == 0 ? 0.0 : (double) (result.errors() + result.dropped()) / arrivals;
+    }
+
+    private static String percentileKey(double percentile) {
+        return percentile == Math.rint(percentile) ? "p" + (long) percentile : "p" + percentile;
+    }
+
+    private static String format(double value) {
+        return String.format(Locale.ROOT, "%.3f", value);
+    }
+}
@@ -0,0 +1,336 @@
+package com.ruleta.loadtest;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Prueba de carga en modelo abierto: las peticiones llegan a ritmo constante ({@code --rate} por segundo)
+ * tanto si el servidor responde a tiempo como si no, como harían clientes independientes.
+ * <p>
+ * Arranca la aplicación en un proceso aparte con una base H2 en memoria desechable y reparte las llegadas
+ * entre {@code /spin}, {@code /record-winner}, {@code /participants} y {@code /history/page} según
+ * {@code --mix}. La latencia de cada petición se mide desde el instante en que debía salir, no desde que
+ * salió: si el generador o el servidor se retrasan, ese retraso cuenta (sin omisión coordinada). Solo se
+ * miden las llegadas programadas tras el calentamiento. Las que encuentran {@code --max-in-flight}
+ * peticiones pendientes no se envían y se cuentan como descartadas.
+ * <p>
+ * Con {@code --baseline} compara el resultado con una referencia guardada con {@code --save-baseline} y
+ * termina con código 1 si algún endpoint empeora más de {@code --tolerance}.
+ * <p>
+ * Opciones: {@code --rate=200 --warmup=10 --duration=30 --mix=spin:10,record-winner:5,participants:75,history:10
+ * --participants=50 --max-in-flight=10000 --app-args=--spring.profiles.active=virtual-threads
+ * --baseline=baseline.properties --save-baseline=baseline.properties --tolerance=0.2} (tiempos en segundos)
+ */
+public class OpenModelLoadTest {
+
+    private static final String WHEEL = "loadtest";
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(60);
+
+    enum Endpoint {
+        SPIN("spin"),
+        RECORD_WINNER("record-winner"),
+        PARTICIPANTS("participants"),
+        HISTORY("history");
+
+        private final String key;
+
+        Endpoint(String key) {
+            this.key = key;
+        }
+
+        String key() {
+            return key;
+        }
+
+        static Endpoint parse(String key) {
+            for (Endpoint endpoint : values()) {
+                if (endpoint.key.equals(key.trim())) {
+                    return endpoint;
+                }
+            }
+            throw new IllegalArgumentException("Endpoint desconocido en --mix: " + key);
+        }
+    }
+
+    /**
+     * Resultado de un endpoint, o del total con {@code endpoint == null}
+     */
+    record Result(Endpoint endpoint, Histogram latencies, long errors, long dropped, double seconds) {
+
+        String name() {
+            return endpoint != null ? endpoint.key() : "total";
+        }
+
+        double throughput() {
+            return latencies.getTotalCount() / seconds;
+        }
+
+        double percentileMillis(double percentile) {
+            return latencies.getValueAtPercentile(percentile) / 1e6;
+        }
+    }
+
+    private final double rate;
+    private final Duration warmup;
+    private final Duration duration;
+    private final Map<Endpoint, Integer> mix;
+    private final int participants;
+    private final int maxInFlight;
+    private final List<String> appArguments;
+
+    OpenModelLoadTest(double rate, Duration warmup, Duration duration, Map<Endpoint, Integer> mix,
+                      int participants, int maxInFlight, List<String> appArguments) {
+        if (!(rate > 0)) {
+            throw new IllegalArgumentException("--rate debe ser positivo");
+        }
+        if (mix.values().stream().mapToInt(Integer::intValue).sum() <= 0) {
+            throw new IllegalArgumentException("--mix debe tener algún peso positivo");
+        }
+        this.rate = rate;
+        this.warmup = warmup;
+        this.duration = duration;
+        this.mix = mix;
+        this.participants = participants;
+        this.maxInFlight = maxInFlight;
+        this.appArguments = appArguments;
+    }
+
+    public static void main(String[] args) throws Exception {
+        double rate = 200;
+        Duration warmup = Duration.ofSeconds(10);
+        Duration duration = Duration.ofSeconds(30);
+        Map<Endpoint, Integer> mix = parseMix("spin:10,record-winner:5,participants:75,history:10");
+        int participants = 50;
+        int maxInFlight = 10000;
+        List<String> appArguments = List.of();
+        Path baseline = null;
+        Path saveBaseline = null;
+        double tolerance = 0.2;
+
+        for (String arg : args) {
+            String[] option = arg.split("=", 2);
+            if (option.length != 2 || !option[0].startsWith("--")) {
+                throw new IllegalArgumentException("Opción no válida: " + arg);
+            }
+            String value = option[1];
+            switch (option[0]) {
+                case "--rate" -> rate = Double.parseDouble(value);
+                case "--warmup" -> warmup = Duration.ofSeconds(Long.parseLong(value));
+                case "--duration" -> duration = Duration.ofSeconds(Long.parseLong(value));
+                case "--mix" -> mix = parseMix(value);
+                case "--participants" -> participants = Integer.parseInt(value);
+                case "--max-in-flight" -> maxInFlight = Integer.parseInt(value);
+                case "--app-args" -> appArguments = List.of(value.trim().split("\\s+"));
+                case "--baseline" -> baseline = Path.of(value);
+                case "--save-baseline" -> saveBaseline = Path.of(value);
+                case "--tolerance" -> tolerance = Double.parseDouble(value);
+                default -> throw new IllegalArgumentException("Opción desconocida: " + option[0]);
+            }
+        }
+
+        List<Result> results = new OpenModelLoadTest(rate, warmup, duration, mix, participants, maxInFlight,
+                appArguments).run();
+        print(results);
+
+        if (saveBaseline != null) {
+            LatencyBaseline.save(saveBaseline, rate, results);
+            System.out.printf("Referencia guardada en %s%n", saveBaseline.toAbsolutePath());
+        }
+        if (baseline != null) {
+            List<String> regressions = LatencyBaseline.load(baseline).compare(rate, results, tolerance);
+            if (!regressions.isEmpty()) {
+                System.out.println();
+                System.out.printf("Regresiones frente a %s (tolerancia %.0f%%):%n", baseline, tolerance * 100);
+                regressions.forEach(regression -> System.out.println("  " + regression));
+                System.exit(1);
+            }
+            System.out.printf("Sin regresiones frente a %s%n", baseline);
+        }
+    }
+
+    List<Result> run() throws Exception {
+        System.out.printf("Arrancando la aplicación (%,.0f peticiones/s durante %d s)...%n", rate, duration.toSeconds());
+        try (ServerProcess server = ServerProcess.start("loadtest-open", appArguments)) {
+            String baseUrl = server.baseUrl() + "/api/wheels/" + WHEEL;
+            List<String> names = new ArrayList<>(participants);
+            for (int i = 0; i < participants; i++) {
+                names.add("participant-" + i);
+            }
+            Map<Endpoint, HttpRequest> requests = requests(baseUrl, names);
+            // El primer spin da de alta a los participantes
+            try (HttpClient client = HttpClient.newHttpClient()) {
+                client.send(requests.get(Endpoint.SPIN), HttpResponse.BodyHandlers.discarding());
+            }
+            return drive(requests);
+        }
+    }
+
+    private List<Result> drive(Map<Endpoint, HttpRequest> requests) throws InterruptedException {
+        Endpoint[] schedule = weightedSchedule();
+        Map<Endpoint, Recorder> recorders = new EnumMap<>(Endpoint.class);
+        Map<Endpoint, LongAdder> errors = new EnumMap<>(Endpoint.class);
+        Map<Endpoint, LongAdder> dropped = new EnumMap<>(Endpoint.class);
+        for (Endpoint endpoint : Endpoint.values()) {
+            recorders.put(endpoint, new Recorder(3));
+            errors.put(endpoint, new LongAdder());
+            dropped.put(endpoint, new LongAdder());
+        }
+        Semaphore inFlight = new Semaphore(maxInFlight);
+        SplittableRandom random = new SplittableRandom(42);
+
+        double intervalNanos = 1e9 / rate;
+        long start = System.nanoTime();
+        long measureFrom = start + warmup.toNanos();
+        long measureUntil = measureFrom + duration.toNanos();
+        // Al salir se cierra primero el ejecutor, que espera a las peticiones pendientes
+        try (HttpClient client = HttpClient.newBuilder()
+                     .version(HttpClient.Version.HTTP_1_1)
+                     .connectTimeout(REQUEST_TIMEOUT)
+                     .executor(Executors.newVirtualThreadPerTaskExecutor())
+                     .build();
+             ExecutorService senders = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (long i = 0; ; i++) {
+                // Instante programado de la llegada i, independiente de lo que tarden las anteriores
+                long intended = start + (long) (i * intervalNanos);
+                if (intended >= measureUntil) {
+                    break;
+                }
+                long wait = intended - System.nanoTime();
+                if (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+                Endpoint endpoint = schedule[random.nextInt(schedule.length)];
+                boolean measured = intended >= measureFrom;
+                if (!inFlight.tryAcquire()) {
+                    if (measured) {
+                        dropped.get(endpoint).increment();
+                    }
+                    continue;
+                }
+                HttpRequest request = requests.get(endpoint);
+                senders.submit(() -> {
+                    boolean ok;
+                    try {
+                        ok = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() / 100 == 2;
+                    } catch (Exception e) {
+                        ok = false;
+                    } finally {
+                        inFlight.release();
+                    }
+                    if (measured) {
+                        recorders.get(endpoint).recordValue(System.nanoTime() - intended);
+                        if (!ok) {
+                            errors.get(endpoint).increment();
+                        }
+                    }
+                });
+            }
+        }
+
+        double seconds = duration.toNanos() / 1e9;
+        List<Result> results = new ArrayList<>();
+        Histogram total = new Histogram(3);
+        long totalErrors = 0;
+        long totalDropped = 0;
+        for (Endpoint endpoint : Endpoint.values()) {
+            if (!mix.containsKey(endpoint)) {
+                continue;
+            }
+            Histogram latencies = recorders.get(endpoint).getIntervalHistogram();
+            total.add(latencies);
+            totalErrors += errors.get(endpoint).sum();
+            totalDropped += dropped.get(endpoint).sum();
+            results.add(new Result(endpoint, latencies, errors.get(endpoint).sum(), dropped.get(endpoint).sum(), seconds));
+        }
+        results.add(new Result(null, total, totalErrors, totalDropped, seconds));
+        return results;
+    }
+
+    /**
+     * Tabla de endpoints con cada uno repetido según su peso: elegir una posición al azar respeta la mezcla
+     */
+    private Endpoint[] weightedSchedule() {
+        List<Endpoint> schedule = new ArrayList<>();
+        mix.forEach((endpoint, weight) -> {
+            for (int i = 0; i < weight; i++) {
+                schedule.add(endpoint);
+            }
+        });
+        return schedule.toArray(Endpoint[]::new);
+    }
+
+    private Map<Endpoint, HttpRequest> requests(String baseUrl, List<String> names) {
+        String nameList = names.stream().map(name -> '"' + name + '"').reduce((a, b) -> a + "," + b).orElse("");
+        Map<Endpoint, HttpRequest> requests = new EnumMap<>(Endpoint.class);
+        requests.put(Endpoint.SPIN, post(baseUrl + "/spin", "{\"participantNames\":[" + nameList + "]}"));
+        requests.put(Endpoint.RECORD_WINNER, post(baseUrl + "/record-winner",
+                "{\"winner\":\"" + names.get(0) + "\",\"participants\":[" + nameList + "]}"));
+        requests.put(Endpoint.PARTICIPANTS, HttpRequest.newBuilder(URI.create(baseUrl + "/participants"))
+                .timeout(REQUEST_TIMEOUT)
+                .build());
+        // Página acotada: /history devolvería una respuesta que crece con la prueba
+        requests.put(Endpoint.HISTORY, HttpRequest.newBuilder(URI.create(baseUrl + "/history/page?days=1&limit=50"))
+                .timeout(REQUEST_TIMEOUT)
+                .build());
+        return requests;
+    }
+
+    private static HttpRequest post(String url, String body) {
+        return HttpRequest.newBuilder(URI.create(url))
+                .timeout(REQUEST_TIMEOUT)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    static Map<Endpoint, Integer> parseMix(String value) {
+        Map<Endpoint, Integer> mix = new EnumMap<>(Endpoint.class);
+        for (String part : value.split(",")) {
+            String[] entry = part.split(":", 2);
+            int weight = entry.length == 2 ? Integer.parseInt(entry[1].trim()) : 1;
+            if (weight < 0) {
+                throw new IllegalArgumentException("Peso negativo en --mix: " + part);
+            }
+            if (weight > 0) {
+                mix.put(Endpoint.parse(entry[0]), weight);
+            }
+        }
+        return mix;
+    }
+
+    private static void print(List<Result> results) {
+        System.out.println();
+        System.out.printf("%-14s %10s %12s %9s %9s %9s %9s %8s %10s%n",
+                "endpoint", "peticiones", "peticiones/s", "p50 ms", "p99 ms", "p99.9 ms", "max ms", "errores", "descartes");
+        for (Result result : results) {
+            System.out.printf(Locale.ROOT, "%-14s %10d %12.1f %9.1f %9.1f %9.1f %9.1f %8d %10d%n",
+                    result.name(),
+                    result.latencies().getTotalCount(),
+                    result.throughput(),
+                    result.percentileMillis(50),
+                    result.percentileMillis(99),
+                    result.percentileMillis(99.9),
+                    result.latencies().getMaxValue() / 1e6,
+                    result.errors(),
+                    result.dropped());
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package com.ruleta.loadtest;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * La aplicación arrancada en un proceso aparte, en un puerto libre y por defecto con una base H2 en memoria
+ * desechable. Cliente y servidor no comparten montículo, GC ni límite de descriptores.
+ */
+final class ServerProcess implements AutoCloseable {
+
+    private static final Duration STARTUP_TIMEOUT = Duration.ofMinutes(3);
+
+    private final Process process;
+    private final Path log;
+    private final String baseUrl;
+    private final long launchedAt;
+    private Duration startupTime;
+
+    private ServerProcess(Process process, Path log, int port, long launchedAt) {
+        this.process = process;
+        this.log = log;
+        this.baseUrl = "http://localhost:" + port;
+        this.launchedAt = launchedAt;
+    }
+
+    /**
+     * Arranca la aplicación con el classpath de este proceso y espera a que responda a /health
+     *
+     * @param name         nombre de la base de datos y del fichero de log
+     * @param appArguments argumentos adicionales de Spring Boot (perfil, propiedades)
+     */
+    static ServerProcess start(String name, List<String> appArguments) throws IOException, InterruptedException {
+        List<String> arguments = new ArrayList<>();
+        arguments.add("--spring.datasource.url=jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1");
+        arguments.addAll(appArguments);
+        return start(name, List.of("-cp", System.getProperty("java.class.path")), arguments);
+    }
+
+    /**
+     * Arranca {@code com.ruleta.App} con las opciones de JVM y el classpath dados y espera a que responda a /health
+     *
+     * @param name         nombre del fichero de log
+     * @param jvmArguments opciones de la JVM, incluido el classpath
+     * @param appArguments argumentos de Spring Boot, incluida la base de datos
+     */
+    static ServerProcess start(String name, List<String> jvmArguments, List<String> appArguments)
+            throws IOException, InterruptedException {
+        int port = freePort();
+        Path logDirectory = Files.createDirectories(Path.of("build", "loadtest"));
+        Path log = logDirectory.resolve(name + ".log");
+
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        command.addAll(jvmArguments);
+        command.add("com.ruleta.App");
+        command.add("--server.port=" + port);
+        command.add("--spring.jpa.show-sql=false");
+        command.add("--logging.level.com.ruleta=WARN");
+        command.add("--logging.level.org.springframework.web=WARN");
+        command.addAll(appArguments);
+
+        long launchedAt = System.nanoTime();
+        Process process = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(log.toFile())
+                .start();
+        ServerProcess server = new ServerProcess(process, log, port, launchedAt);
+        server.awaitHealthy();
+        return server;
+    }
+
+    String baseUrl() {
+        return baseUrl;
+    }
+
+    /**
+     * Tiempo desde que se lanzó el proceso hasta la primera respuesta 200 de /health
+     */
+    Duration startupTime() {
+        return startupTime;
+    }
+
+    /**
+     * Memoria residente del proceso en bytes, leída de /proc (solo Linux); -1 si no se puede leer
+     */
+    long residentBytes() {
+        try {
+            for (String line : Files.readAllLines(Path.of("/proc", Long.toString(process.pid()), "status"))) {
+                if (line.startsWith("VmRSS:")) {
+                    // "VmRSS:    123456 kB"
+                    return Long.parseLong(line.replaceAll("\\D", "")) * 1024;
+                }
+            }
+        } catch (IOException | NumberFormatException e) {
+            // Sin /proc
+        }
+        return -1;
+    }
+
+    @Override
+    public void close() throws InterruptedException {
+        process.destroy();
+        if (!process.waitFor(30, TimeUnit.SECONDS)) {
+            process.destroyForcibly();
+        }
+    }
+
+    private void awaitHealthy() throws InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/api/roulette/health"))
+                .timeout(Duration.ofSeconds(5))
+                .build();
+        long deadline = System.nanoTime() + STARTUP_TIMEOUT.toNanos();
+        try (HttpClient client = HttpClient.newHttpClient()) {
+            while (System.nanoTime() < deadline) {
+                if (!process.isAlive()) {
+                    throw new IllegalStateException("La aplicación terminó al arrancar, ver " + log.toAbsolutePath());
+                }
+                try {
+                    if (client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                        startupTime = Duration.ofNanos(System.nanoTime() - launchedAt);
+                        return;
+                    }
+                } catch (IOException e) {
+                    // Todavía no escucha
+                }
+                // Intervalo corto: acota el error al medir el tiempo de arranque
+                Thread.sleep(10);
+            }
+        }
+        close();
+        throw new IllegalStateException("La aplicación no arrancó en " + STARTUP_TIMEOUT + ", ver " + log.toAbsolutePath());
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
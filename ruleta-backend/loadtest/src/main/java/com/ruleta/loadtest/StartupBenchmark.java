@@ -0,0 +1,171 @@
+package com.ruleta.loadtest;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Collectors;
+
+/**
+ * Mide el arranque de la aplicación: tiempo desde que se lanza el proceso hasta el primer 200 de
+ * {@code /api/roulette/health} y memoria residente (RSS) en ese momento.
+ * <p>
+ * Todos los modos usan el mismo {@code app.jar} de {@code app/build/fast-startup} (./gradlew :app:cdsArchive):
+ * <ul>
+ *     <li>{@code ddl-auto}: como antes de las migraciones, Hibernate compara el esquema con
+ *     {@code ddl-auto: update} y Flyway no se usa</li>
+ *     <li>{@code flyway}: esquema por migraciones, arranque normal de la JVM</li>
+ *     <li>{@code aot-cds}: además, contexto preprocesado por Spring AOT y archivo CDS de clases</li>
+ * </ul>
+ * Cada modo tiene su propia base H2 en fichero, creada por un primer arranque que no se mide: los arranques
+ * medidos son reinicios sobre un esquema existente, como al escalar.
+ * <p>
+ * Opciones: {@code --modes=ddl-auto,flyway,aot-cds --runs=5}. El directorio del jar se toma de la
+ * propiedad de sistema {@code ruleta.fast-startup.dir}.
+ */
+public class StartupBenchmark {
+
+    enum Mode {
+        DDL_AUTO(List.of(), List.of("--spring.jpa.hibernate.ddl-auto=update", "--spring.flyway.enabled=false")),
+        FLYWAY(List.of(), List.of()),
+        AOT_CDS(List.of("-XX:SharedArchiveFile=%s/app.jsa", "-Dspring.aot.enabled=true"), List.of());
+
+        private final List<String> jvmArguments;
+        private final List<String> appArguments;
+
+        Mode(List<String> jvmArguments, List<String> appArguments) {
+            this.jvmArguments = jvmArguments;
+            this.appArguments = appArguments;
+        }
+
+        String label() {
+            return name().toLowerCase(Locale.ROOT).replace('_', '-');
+        }
+
+        static Mode parse(String label) {
+            return valueOf(label.trim().toUpperCase(Locale.ROOT).replace('-', '_'));
+        }
+    }
+
+    record Result(Mode mode, List<Duration> startupTimes, List<Long> residentBytes) {
+
+        Duration medianStartup() {
+            return startupTimes.stream().sorted().toList().get(startupTimes.size() / 2);
+        }
+
+        Duration minStartup() {
+            return startupTimes.stream().min(Comparator.naturalOrder()).orElseThrow();
+        }
+
+        Duration maxStartup() {
+            return startupTimes.stream().max(Comparator.naturalOrder()).orElseThrow();
+        }
+
+        long medianResidentBytes() {
+            return residentBytes.stream().sorted().toList().get(residentBytes.size() / 2);
+        }
+    }
+
+    private final Path fastStartupDir;
+    private final List<Mode> modes;
+    private final int runs;
+
+    StartupBenchmark(Path fastStartupDir, List<Mode> modes, int runs) {
+        this.fastStartupDir = fastStartupDir;
+        this.modes = modes;
+        this.runs = runs;
+    }
+
+    public static void main(String[] args) throws Exception {
+        List<Mode> modes = List.of(Mode.values());
+        int runs = 5;
+
+        for (String arg : args) {
+            String[] option = arg.split("=", 2);
+            if (option.length != 2 || !option[0].startsWith("--")) {
+                throw new IllegalArgumentException("Opción no válida: " + arg);
+            }
+            String value = option[1];
+            switch (option[0]) {
+                case "--modes" -> modes = Arrays.stream(value.split(","))
+                        .map(Mode::parse)
+                        .collect(Collectors.toList());
+                case "--runs" -> runs = Integer.parseInt(value);
+                default -> throw new IllegalArgumentException("Opción desconocida: " + option[0]);
+            }
+        }
+
+        String directory = System.getProperty("ruleta.fast-startup.dir");
+        if (directory == null) {
+            throw new IllegalArgumentException("Falta -Druleta.fast-startup.dir (ver ./gradlew :loadtest:startupBenchmark)");
+        }
+        Path fastStartupDir = Path.of(directory).toAbsolutePath();
+        if (!Files.isRegularFile(fastStartupDir.resolve("app.jar")) || !Files.isRegularFile(fastStartupDir.resolve("app.jsa"))) {
+            throw new IllegalArgumentException("No hay app.jar y app.jsa en " + fastStartupDir + ": ./gradlew :app:cdsArchive");
+        }
+
+        List<Result> results = new StartupBenchmark(fastStartupDir, modes, Math.max(1, runs)).run();
+        print(results);
+    }
+
+    List<Result> run() throws Exception {
+        Path databases = Files.createTempDirectory("startup-benchmark");
+        List<Result> results = new ArrayList<>();
+        for (Mode mode : modes) {
+            String name = "startup-" + mode.label();
+            List<String> jvmArguments = jvmArguments(mode);
+            List<String> appArguments = new ArrayList<>(mode.appArguments);
+            appArguments.add("--spring.datasource.url=jdbc:h2:file:" + databases.resolve(mode.label()).resolve("ruletadb"));
+
+            System.out.printf("Modo %s: preparando la base de datos...%n", mode.label());
+            try (ServerProcess ignored = ServerProcess.start(name, jvmArguments, appArguments)) {
+                // Solo crea el esquema
+            }
+
+            List<Duration> startupTimes = new ArrayList<>();
+            List<Long> residentBytes = new ArrayList<>();
+            for (int i = 0; i < runs; i++) {
+                try (ServerProcess server = ServerProcess.start(name, jvmArguments, appArguments)) {
+                    startupTimes.add(server.startupTime());
+                    residentBytes.add(server.residentBytes());
+                    System.out.printf("  arranque %d: %d ms, RSS %s%n", i + 1, server.startupTime().toMillis(),
+                            megabytes(server.residentBytes()));
+                }
+            }
+            results.add(new Result(mode, startupTimes, residentBytes));
+        }
+        return results;
+    }
+
+    private List<String> jvmArguments(Mode mode) {
+        List<String> arguments = new ArrayList<>();
+        for (String argument : mode.jvmArguments) {
+            arguments.add(argument.formatted(fastStartupDir));
+        }
+        // Mismo classpath que en el entrenamiento del archivo CDS (el jar con las dependencias en su manifiesto)
+        arguments.add("-cp");
+        arguments.add(fastStartupDir.resolve("app.jar").toString());
+        return arguments;
+    }
+
+    private static String megabytes(long bytes) {
+        return bytes < 0 ? "n/d" : String.format(Locale.ROOT, "%.0f MB", bytes / (1024.0 * 1024.0));
+    }
+
+    private static void print(List<Result> results) {
+        System.out.println();
+        System.out.printf("%-9s %12s %9s %9s %10s%n", "modo", "mediana ms", "min ms", "max ms", "RSS");
+        for (Result result : results) {
+            System.out.printf(Locale.ROOT, "%-9s %12d %9d %9d %10s%n",
+                    result.mode().label(),
+                    result.medianStartup().toMillis(),
+                    result.minStartup().toMillis(),
+                    result.maxStartup().toMillis(),
+                    megabytes(result.medianResidentBytes()));
+        }
+    }
+}
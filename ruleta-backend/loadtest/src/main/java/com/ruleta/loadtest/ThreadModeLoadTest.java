@@ -0,0 +1,216 @@
+package com.ruleta.loadtest;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * Compara el rendimiento y la latencia p99 de la aplicación con peticiones en hilos de plataforma
+ * (pool de Tomcat) y en hilos virtuales (perfil {@code virtual-threads}).
+ * <p>
+ * Para cada modo arranca la aplicación en un proceso aparte y, para cada nivel de concurrencia, lanza
+ * ese número de clientes en bucle cerrado (cada uno envía la siguiente petición al recibir la respuesta)
+ * sobre una mezcla de lecturas de participantes y spins. Solo se miden las peticiones completadas tras
+ * el calentamiento; los errores (incluidos los 503 por cola de escritura llena) se cuentan aparte.
+ * <p>
+ * Opciones: {@code --modes=platform,virtual --clients=10,1000,10000 --warmup=10 --duration=30
+ * --spin-ratio=0.1 --participants=50} (tiempos en segundos)
+ */
+public class ThreadModeLoadTest {
+
+    private static final String WHEEL = "loadtest";
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(60);
+
+    enum Mode {
+        PLATFORM(List.of()),
+        VIRTUAL(List.of("--spring.profiles.active=virtual-threads"));
+
+        // Mismo límite de conexiones en ambos modos para que solo cambie el modelo de hilos
+        private static final List<String> COMMON = List.of(
+                "--server.tomcat.max-connections=20000",
+                "--server.tomcat.accept-count=1000");
+
+        private final List<String> arguments;
+
+        Mode(List<String> arguments) {
+            this.arguments = arguments;
+        }
+
+        List<String> arguments() {
+            List<String> all = new ArrayList<>(COMMON);
+            all.addAll(arguments);
+            return all;
+        }
+    }
+
+    record Result(Mode mode, int clients, Histogram latencies, long errors, double seconds) {
+
+        double throughput() {
+            return latencies.getTotalCount() / seconds;
+        }
+
+        double percentileMillis(double percentile) {
+            return latencies.getValueAtPercentile(percentile) / 1e6;
+        }
+    }
+
+    private final List<Mode> modes;
+    private final int[] clientLevels;
+    private final Duration warmup;
+    private final Duration duration;
+    private final double spinRatio;
+    private final int participants;
+
+    ThreadModeLoadTest(List<Mode> modes, int[] clientLevels, Duration warmup, Duration duration,
+                       double spinRatio, int participants) {
+        this.modes = modes;
+        this.clientLevels = clientLevels;
+        this.warmup = warmup;
+        this.duration = duration;
+        this.spinRatio = spinRatio;
+        this.participants = participants;
+    }
+
+    public static void main(String[] args) throws Exception {
+        List<Mode> modes = List.of(Mode.values());
+        int[] clientLevels = {10, 1000, 10000};
+        Duration warmup = Duration.ofSeconds(10);
+        Duration duration = Duration.ofSeconds(30);
+        double spinRatio = 0.1;
+        int participants = 50;
+
+        for (String arg : args) {
+            String[] option = arg.split("=", 2);
+            if (option.length != 2 || !option[0].startsWith("--")) {
+                throw new IllegalArgumentException("Opción no válida: " + arg);
+            }
+            String value = option[1];
+            switch (option[0]) {
+                case "--modes" -> modes = Arrays.stream(value.split(","))
+                        .map(mode -> Mode.valueOf(mode.trim().toUpperCase(Locale.ROOT)))
+                        .collect(Collectors.toList());
+                case "--clients" -> clientLevels = Arrays.stream(value.split(","))
+                        .mapToInt(level -> Integer.parseInt(level.trim()))
+                        .toArray();
+                case "--warmup" -> warmup = Duration.ofSeconds(Long.parseLong(value));
+                case "--duration" -> duration = Duration.ofSeconds(Long.parseLong(value));
+                case "--spin-ratio" -> spinRatio = Double.parseDouble(value);
+                case "--participants" -> participants = Integer.parseInt(value);
+                default -> throw new IllegalArgumentException("Opción desconocida: " + option[0]);
+            }
+        }
+
+        List<Result> results = new ThreadModeLoadTest(modes, clientLevels, warmup, duration, spinRatio, participants).run();
+        print(results);
+    }
+
+    List<Result> run() throws Exception {
+        List<Result> results = new ArrayList<>();
+        for (Mode mode : modes) {
+            String name = "loadtest-" + mode.name().toLowerCase(Locale.ROOT);
+            System.out.printf("Arrancando la aplicación en modo %s...%n", mode);
+            try (ServerProcess server = ServerProcess.start(name, mode.arguments())) {
+                String spinBody = spinBody();
+                // El primer spin da de alta a los participantes
+                try (HttpClient client = HttpClient.newHttpClient()) {
+                    client.send(spin(server.baseUrl(), spinBody), HttpResponse.BodyHandlers.discarding());
+                }
+                for (int clients : clientLevels) {
+                    Result result = runLevel(mode, server.baseUrl(), spinBody, clients);
+                    System.out.printf("  %,d clientes: %,.0f peticiones/s, p99 %.1f ms, %d errores%n",
+                            clients, result.throughput(), result.percentileMillis(99), result.errors());
+                    results.add(result);
+                }
+            }
+        }
+        return results;
+    }
+
+    private Result runLevel(Mode mode, String baseUrl, String spinBody, int clients) throws InterruptedException {
+        HttpRequest participantsRequest = HttpRequest.newBuilder(URI.create(baseUrl + "/api/wheels/" + WHEEL + "/participants"))
+                .timeout(REQUEST_TIMEOUT)
+                .build();
+        HttpRequest spinRequest = spin(baseUrl, spinBody);
+        Recorder recorder = new Recorder(3);
+        LongAdder errors = new LongAdder();
+
+        long measureFrom = System.nanoTime() + warmup.toNanos();
+        long measureUntil = measureFrom + duration.toNanos();
+        // Al salir se cierra primero el ejecutor de clientes, que espera a que todos terminen
+        try (HttpClient client = HttpClient.newBuilder()
+                     .version(HttpClient.Version.HTTP_1_1)
+                     .connectTimeout(REQUEST_TIMEOUT)
+                     .executor(Executors.newVirtualThreadPerTaskExecutor())
+                     .build();
+             ExecutorService clientThreads = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < clients; i++) {
+                clientThreads.submit(() -> {
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    long now;
+                    while ((now = System.nanoTime()) < measureUntil) {
+                        HttpRequest request = random.nextDouble() < spinRatio ? spinRequest : participantsRequest;
+                        boolean ok;
+                        try {
+                            ok = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() / 100 == 2;
+                        } catch (Exception e) {
+                            ok = false;
+                        }
+                        long end = System.nanoTime();
+                        if (now >= measureFrom && end <= measureUntil) {
+                            recorder.recordValue(end - now);
+                            if (!ok) {
+                                errors.increment();
+                            }
+                        }
+                    }
+                });
+            }
+        }
+        return new Result(mode, clients, recorder.getIntervalHistogram(), errors.sum(), duration.toNanos() / 1e9);
+    }
+
+    private HttpRequest spin(String baseUrl, String body) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + "/api/wheels/" + WHEEL + "/spin"))
+                .timeout(REQUEST_TIMEOUT)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    private String spinBody() {
+        StringBuilder body = new StringBuilder("{\"participantNames\":[");
+        for (int i = 0; i < participants; i++) {
+            body.append(i == 0 ? "" : ",").append("\"participant-").append(i).append('"');
+        }
+        return body.append("]}").toString();
+    }
+
+    private static void print(List<Result> results) {
+        System.out.println();
+        System.out.printf("%-9s %9s %14s %9s %9s %9s %8s%n", "modo", "clientes", "peticiones/s", "p50 ms", "p99 ms", "max ms", "errores");
+        for (Result result : results) {
+            System.out.printf(Locale.ROOT, "%-9s %9d %14.1f %9.1f %9.1f %9.1f %8d%n",
+                    result.mode().name().toLowerCase(Locale.ROOT),
+                    result.clients(),
+                    result.throughput(),
+                    result.percentileMillis(50),
+                    result.percentileMillis(99),
+                    result.latencies().getMaxValue() / 1e6,
+                    result.errors());
+        }
+    }
+}